@@ -0,0 +1,1064 @@
+package edgeconvert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only schema stored as parallel arrays rather than as Table and
+ * Field objects, for analysing catalogs too large for the object graph.
+ *
+ * Tables and fields are numbered from zero. A table's fields have
+ * consecutive numbers, in table order, so walking every field of the schema
+ * is a scan along each array. Names and default values are kept once each in
+ * a shared string pool, and everything else about a field is a primitive:
+ * its table, data type code, length, flags, and the numbers of the fields it
+ * references. NONE stands for a missing table, field or string.
+ *
+ * The columns are read through NIO buffers, so the same schema can be kept
+ * on the heap, copied into a direct buffer with toOffHeap, or written to a
+ * file with write and mapped back in place with map. Off the heap, a schema
+ * costs the garbage collector nothing however large it grows, at the price
+ * of decoding names when they are read. One buffer holds at most 2GB.
+ */
+public final class ColumnarSchema {
+
+    /**
+     * Collects tables, fields and relations, then packs them into a
+     * ColumnarSchema. A table's fields are added straight after the table.
+     */
+    public static class Builder {
+
+        // private static/final attributes
+        private static final int INITIAL_CAPACITY = 16;
+
+        // declarations
+        private final Map<String, Integer> stringIds;
+        private String[] strings;
+        private int stringCount;
+        private int[] tableNames, fieldStarts;
+        private int tableCount;
+        private int[] fieldTables, fieldNames, fieldLengths, fieldDefaults, relatedFields, foreignFields;
+        private byte[] fieldTypes, fieldFlags;
+        private int fieldCount;
+        private int[] relatedTablePairs; // table, related table
+        private int relatedTablePairCount;
+        private int[] indexEntries; // table, name, field
+        private int indexCount;
+
+        /**
+         * Construct an empty builder.
+         */
+        public Builder() {
+            stringIds = new HashMap<>();
+            strings = new String[INITIAL_CAPACITY];
+            tableNames = new int[INITIAL_CAPACITY];
+            fieldStarts = new int[INITIAL_CAPACITY];
+            fieldTables = new int[INITIAL_CAPACITY];
+            fieldNames = new int[INITIAL_CAPACITY];
+            fieldLengths = new int[INITIAL_CAPACITY];
+            fieldDefaults = new int[INITIAL_CAPACITY];
+            relatedFields = new int[INITIAL_CAPACITY];
+            foreignFields = new int[INITIAL_CAPACITY];
+            fieldTypes = new byte[INITIAL_CAPACITY];
+            fieldFlags = new byte[INITIAL_CAPACITY];
+            relatedTablePairs = new int[INITIAL_CAPACITY * 2];
+            indexEntries = new int[INITIAL_CAPACITY * 3];
+        }
+
+        /**
+         * Add a table. Fields added after it belong to it.
+         *
+         * @param name The table's name
+         * @return The table's number
+         */
+        public int addTable(String name) {
+            if (tableCount == tableNames.length) {
+                tableNames = Arrays.copyOf(tableNames, tableCount * 2);
+                fieldStarts = Arrays.copyOf(fieldStarts, tableCount * 2);
+            }
+            tableNames[tableCount] = stringId(name);
+            fieldStarts[tableCount] = fieldCount;
+            return tableCount++;
+        }
+
+        /**
+         * Add a field to the last table added.
+         *
+         * @param name The field's name
+         * @param dataType The field's data type, or null
+         * @param charLength The maximum length of the field's values
+         * @param allowNull Whether or not the field can be null
+         * @param primaryKey Whether or not the field is a primary key
+         * @param autoIncrement Whether or not the field increments
+         * automatically
+         * @param defaultValue The field's default value
+         * @return The field's number
+         */
+        public int addField(String name, DataType dataType, int charLength, boolean allowNull,
+                boolean primaryKey, boolean autoIncrement, String defaultValue) {
+            if (tableCount == 0) {
+                throw new IllegalStateException("A table must be added before its fields");
+            }
+            if (fieldCount == fieldNames.length) {
+                int capacity = fieldCount * 2;
+                fieldTables = Arrays.copyOf(fieldTables, capacity);
+                fieldNames = Arrays.copyOf(fieldNames, capacity);
+                fieldLengths = Arrays.copyOf(fieldLengths, capacity);
+                fieldDefaults = Arrays.copyOf(fieldDefaults, capacity);
+                relatedFields = Arrays.copyOf(relatedFields, capacity);
+                foreignFields = Arrays.copyOf(foreignFields, capacity);
+                fieldTypes = Arrays.copyOf(fieldTypes, capacity);
+                fieldFlags = Arrays.copyOf(fieldFlags, capacity);
+            }
+            fieldTables[fieldCount] = tableCount - 1;
+            fieldNames[fieldCount] = stringId(name);
+            fieldTypes[fieldCount] = dataType == null ? NONE : (byte) dataType.ordinal();
+            fieldLengths[fieldCount] = charLength;
+            fieldFlags[fieldCount] = (byte) ((allowNull ? ALLOW_NULL : 0) | (primaryKey ? PRIMARY_KEY : 0)
+                    | (autoIncrement ? AUTO_INCREMENT : 0));
+            fieldDefaults[fieldCount] = stringId(defaultValue);
+            relatedFields[fieldCount] = NONE;
+            foreignFields[fieldCount] = NONE;
+            return fieldCount++;
+        }
+
+        /**
+         * Make a field a foreign key referencing another field, as
+         * Table.setRelatedField does.
+         *
+         * @param field The referencing field's number
+         * @param target The referenced field's number
+         */
+        public void setRelatedField(int field, int target) {
+            relatedFields[checkField(field)] = target;
+        }
+
+        /**
+         * Set the field a field references, as Field.setForeignField does.
+         *
+         * @param field The referencing field's number
+         * @param target The referenced field's number
+         */
+        public void setForeignField(int field, int target) {
+            foreignFields[checkField(field)] = target;
+        }
+
+        /**
+         * Add a table to a table's related tables. Adding the same table
+         * twice has no effect.
+         *
+         * @param table The table's number
+         * @param relatedTable The related table's number
+         */
+        public void addRelatedTable(int table, int relatedTable) {
+            if (relatedTablePairCount * 2 == relatedTablePairs.length) {
+                relatedTablePairs = Arrays.copyOf(relatedTablePairs, relatedTablePairs.length * 2);
+            }
+            relatedTablePairs[relatedTablePairCount * 2] = table;
+            relatedTablePairs[relatedTablePairCount * 2 + 1] = relatedTable;
+            relatedTablePairCount++;
+        }
+
+        /**
+         * Add a named index on a field of a table.
+         *
+         * @param table The table's number
+         * @param name The index's name
+         * @param field The indexed field's number
+         */
+        public void addIndex(int table, String name, int field) {
+            if (indexCount * 3 == indexEntries.length) {
+                indexEntries = Arrays.copyOf(indexEntries, indexEntries.length * 2);
+            }
+            indexEntries[indexCount * 3] = table;
+            indexEntries[indexCount * 3 + 1] = stringId(name);
+            indexEntries[indexCount * 3 + 2] = field;
+            indexCount++;
+        }
+
+        /**
+         * Pack everything added into a schema. The builder should not be
+         * used afterwards.
+         *
+         * @return The schema
+         * @throws IllegalArgumentException If a relation refers to a table or
+         * field that was never added
+         */
+        public ColumnarSchema build() {
+            for (int field = 0; field < fieldCount; field++) {
+                checkTarget(relatedFields[field], fieldCount);
+                checkTarget(foreignFields[field], fieldCount);
+            }
+            int[] starts = Arrays.copyOf(fieldStarts, tableCount + 1);
+            starts[tableCount] = fieldCount;
+
+            // Group related tables by table, keeping the order they were added in
+            int[] relatedStarts = new int[tableCount + 1];
+            for (int i = 0; i < relatedTablePairCount; i++) {
+                relatedStarts[checkTarget(relatedTablePairs[i * 2], tableCount) + 1]++;
+                checkTarget(relatedTablePairs[i * 2 + 1], tableCount);
+            }
+            for (int table = 0; table < tableCount; table++) {
+                relatedStarts[table + 1] += relatedStarts[table];
+            }
+            int[] related = new int[relatedTablePairCount];
+            int[] next = Arrays.copyOf(relatedStarts, tableCount);
+            for (int i = 0; i < relatedTablePairCount; i++) {
+                related[next[relatedTablePairs[i * 2]]++] = relatedTablePairs[i * 2 + 1];
+            }
+            int[] distinctStarts = new int[tableCount + 1];
+            int distinct = 0;
+            for (int table = 0; table < tableCount; table++) {
+                distinctStarts[table] = distinct;
+                for (int i = relatedStarts[table]; i < relatedStarts[table + 1]; i++) {
+                    if (!contains(related, distinctStarts[table], distinct, related[i])) {
+                        related[distinct++] = related[i];
+                    }
+                }
+            }
+            distinctStarts[tableCount] = distinct;
+
+            // Group indexes by table the same way
+            int[] indexStarts = new int[tableCount + 1];
+            for (int i = 0; i < indexCount; i++) {
+                indexStarts[checkTarget(indexEntries[i * 3], tableCount) + 1]++;
+                checkTarget(indexEntries[i * 3 + 2], fieldCount);
+            }
+            for (int table = 0; table < tableCount; table++) {
+                indexStarts[table + 1] += indexStarts[table];
+            }
+            int[] indexNames = new int[indexCount];
+            int[] indexFields = new int[indexCount];
+            next = Arrays.copyOf(indexStarts, tableCount);
+            for (int i = 0; i < indexCount; i++) {
+                int position = next[indexEntries[i * 3]]++;
+                indexNames[position] = indexEntries[i * 3 + 1];
+                indexFields[position] = indexEntries[i * 3 + 2];
+            }
+
+            return new ColumnarSchema(Arrays.copyOf(strings, stringCount),
+                    Arrays.copyOf(tableNames, tableCount), starts,
+                    Arrays.copyOf(fieldTables, fieldCount), Arrays.copyOf(fieldNames, fieldCount),
+                    Arrays.copyOf(fieldTypes, fieldCount), Arrays.copyOf(fieldLengths, fieldCount),
+                    Arrays.copyOf(fieldFlags, fieldCount), Arrays.copyOf(fieldDefaults, fieldCount),
+                    Arrays.copyOf(relatedFields, fieldCount), Arrays.copyOf(foreignFields, fieldCount),
+                    distinctStarts, Arrays.copyOf(related, distinct), indexStarts, indexNames, indexFields);
+        }
+
+        /**
+         * Get the pool number of a string, adding it to the pool if needed.
+         *
+         * @param string The string, or null
+         * @return The string's number, or NONE for null
+         */
+        private int stringId(String string) {
+            if (string == null) {
+                return NONE;
+            }
+            Integer id = stringIds.get(string);
+            if (id == null) {
+                if (stringCount == strings.length) {
+                    strings = Arrays.copyOf(strings, stringCount * 2);
+                }
+                id = stringCount;
+                strings[stringCount++] = string;
+                stringIds.put(string, id);
+            }
+            return id;
+        }
+
+        /**
+         * Check that a field has been added.
+         *
+         * @param field The field's number
+         * @return The field's number
+         */
+        private int checkField(int field) {
+            if (field < 0 || field >= fieldCount) {
+                throw new IndexOutOfBoundsException("No field " + field);
+            }
+            return field;
+        }
+
+        /**
+         * Check that a relation refers to something that was added.
+         *
+         * @param target The table or field number, or NONE
+         * @param count The number of tables or fields added
+         * @return The number
+         */
+        private static int checkTarget(int target, int count) {
+            if (target < NONE || target >= count) {
+                throw new IllegalArgumentException("A relation refers to " + target + " of " + count);
+            }
+            return target;
+        }
+
+        /**
+         * Determine whether part of an array holds a value.
+         *
+         * @param values The array
+         * @param from The first position to look at
+         * @param to The position after the last one to look at
+         * @param value The value to look for
+         * @return Whether or not the value was found
+         */
+        private static boolean contains(int[] values, int from, int to, int value) {
+            for (int i = from; i < to; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // public static/final attributes
+    public static final int NONE = -1;
+    public static final byte ALLOW_NULL = 1, PRIMARY_KEY = 2, AUTO_INCREMENT = 4;
+
+    // private static/final attributes
+    private static final DataType[] DATA_TYPES = DataType.values();
+    private static final int MAGIC = 0x45444743; // "EDGC"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+
+    // declarations
+    private final String[] strings; // null when the strings are stored as bytes
+    private final IntBuffer stringStarts;
+    private final ByteBuffer stringBytes;
+    private final IntBuffer tableNames, fieldStarts;
+    private final IntBuffer fieldTables, fieldNames, fieldLengths, fieldDefaults, relatedFields, foreignFields;
+    private final ByteBuffer fieldTypes, fieldFlags;
+    private final IntBuffer relatedTableStarts, relatedTables;
+    private final IntBuffer indexStarts, indexNames, indexFields;
+    private final boolean offHeap;
+
+    /**
+     * Construct a schema on the heap from its packed arrays.
+     */
+    private ColumnarSchema(String[] strings, int[] tableNames, int[] fieldStarts, int[] fieldTables,
+            int[] fieldNames, byte[] fieldTypes, int[] fieldLengths, byte[] fieldFlags, int[] fieldDefaults,
+            int[] relatedFields, int[] foreignFields, int[] relatedTableStarts, int[] relatedTables,
+            int[] indexStarts, int[] indexNames, int[] indexFields) {
+        this.strings = strings;
+        this.stringStarts = null;
+        this.stringBytes = null;
+        this.tableNames = IntBuffer.wrap(tableNames);
+        this.fieldStarts = IntBuffer.wrap(fieldStarts);
+        this.fieldTables = IntBuffer.wrap(fieldTables);
+        this.fieldNames = IntBuffer.wrap(fieldNames);
+        this.fieldTypes = ByteBuffer.wrap(fieldTypes);
+        this.fieldLengths = IntBuffer.wrap(fieldLengths);
+        this.fieldFlags = ByteBuffer.wrap(fieldFlags);
+        this.fieldDefaults = IntBuffer.wrap(fieldDefaults);
+        this.relatedFields = IntBuffer.wrap(relatedFields);
+        this.foreignFields = IntBuffer.wrap(foreignFields);
+        this.relatedTableStarts = IntBuffer.wrap(relatedTableStarts);
+        this.relatedTables = IntBuffer.wrap(relatedTables);
+        this.indexStarts = IntBuffer.wrap(indexStarts);
+        this.indexNames = IntBuffer.wrap(indexNames);
+        this.indexFields = IntBuffer.wrap(indexFields);
+        this.offHeap = false;
+    }
+
+    /**
+     * Construct a schema over a buffer written by write, reading each
+     * column in place.
+     *
+     * @param buffer The buffer, positioned at the header
+     * @throws IllegalArgumentException If the buffer does not hold a schema
+     */
+    private ColumnarSchema(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_INTS * 4 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a packed schema");
+        }
+        if (buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException("Unsupported packed schema version");
+        }
+        int stringCount = buffer.getInt();
+        int stringByteCount = buffer.getInt();
+        int tableCount = buffer.getInt();
+        int fieldCount = buffer.getInt();
+        int relatedTableCount = buffer.getInt();
+        int indexCount = buffer.getInt();
+        this.strings = null;
+        this.stringStarts = intColumn(buffer, stringCount + 1);
+        this.tableNames = intColumn(buffer, tableCount);
+        this.fieldStarts = intColumn(buffer, tableCount + 1);
+        this.fieldTables = intColumn(buffer, fieldCount);
+        this.fieldNames = intColumn(buffer, fieldCount);
+        this.fieldLengths = intColumn(buffer, fieldCount);
+        this.fieldDefaults = intColumn(buffer, fieldCount);
+        this.relatedFields = intColumn(buffer, fieldCount);
+        this.foreignFields = intColumn(buffer, fieldCount);
+        this.relatedTableStarts = intColumn(buffer, tableCount + 1);
+        this.relatedTables = intColumn(buffer, relatedTableCount);
+        this.indexStarts = intColumn(buffer, tableCount + 1);
+        this.indexNames = intColumn(buffer, indexCount);
+        this.indexFields = intColumn(buffer, indexCount);
+        this.fieldTypes = byteColumn(buffer, fieldCount);
+        this.fieldFlags = byteColumn(buffer, fieldCount);
+        this.stringBytes = byteColumn(buffer, stringByteCount);
+        this.offHeap = buffer.isDirect();
+    }
+
+    /**
+     * Read a column of ints from a buffer, leaving it in place.
+     *
+     * @param buffer The buffer, positioned at the column
+     * @param length The number of ints in the column
+     * @return A view of the column
+     */
+    private static IntBuffer intColumn(ByteBuffer buffer, int length) {
+        return byteColumn(buffer, length * 4).order(buffer.order()).asIntBuffer();
+    }
+
+    /**
+     * Read a column of bytes from a buffer, leaving it in place.
+     *
+     * @param buffer The buffer, positioned at the column
+     * @param length The number of bytes in the column
+     * @return A view of the column
+     * @throws IllegalArgumentException If the buffer is too short
+     */
+    private static ByteBuffer byteColumn(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("The packed schema is truncated");
+        }
+        ByteBuffer column = buffer.slice();
+        column.limit(length);
+        buffer.position(buffer.position() + length);
+        return column;
+    }
+
+    /**
+     * Copy this schema out of the Java heap into a direct buffer, so it adds
+     * nothing to the work of the garbage collector however large it is. The
+     * memory is released once the copy is no longer reachable. Names are
+     * decoded each time they are read.
+     *
+     * @return The copy
+     */
+    public ColumnarSchema toOffHeap() {
+        byte[][] utf8 = getStringBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(getPackedSize(utf8)).order(ByteOrder.nativeOrder());
+        pack(buffer, utf8);
+        buffer.flip();
+        return new ColumnarSchema(buffer);
+    }
+
+    /**
+     * Write this schema to a file that map can read in place.
+     *
+     * @param file The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        byte[][] utf8 = getStringBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(getPackedSize(utf8)).order(ByteOrder.LITTLE_ENDIAN);
+        pack(buffer, utf8);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Map a file written by write into memory. The schema is read from the
+     * file in place, so only the pages in use are loaded, and they are kept
+     * by the operating system rather than the Java heap.
+     *
+     * @param file The file to map
+     * @return The schema in the file
+     * @throws IOException If the file cannot be read, or does not hold a
+     * schema
+     */
+    public static ColumnarSchema map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return new ColumnarSchema(buffer.order(ByteOrder.LITTLE_ENDIAN));
+            } catch (IllegalArgumentException iae) {
+                throw new IOException(file + ": " + iae.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the number of bytes this schema takes when packed into one buffer.
+     *
+     * @param utf8 The strings in the pool, encoded
+     * @return The packed size
+     * @throws IllegalStateException If the schema is too large for one buffer
+     */
+    private int getPackedSize(byte[][] utf8) {
+        int tableCount = getTableCount();
+        long ints = HEADER_INTS + getStringCount() + 1L + tableCount + 3L * (tableCount + 1)
+                + 6L * getFieldCount() + relatedTables.limit() + 2L * indexNames.limit();
+        long size = ints * 4 + 2L * getFieldCount();
+        for (byte[] string : utf8) {
+            size += string.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The schema is too large to pack into one buffer");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Write this schema into a buffer: a header of counts, each int column,
+     * each byte column, then the strings' UTF-8 bytes.
+     *
+     * @param buffer The buffer to write into
+     * @param utf8 The strings in the pool, encoded
+     */
+    private void pack(ByteBuffer buffer, byte[][] utf8) {
+        int stringByteCount = 0;
+        for (byte[] string : utf8) {
+            stringByteCount += string.length;
+        }
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(utf8.length).putInt(stringByteCount)
+                .putInt(getTableCount()).putInt(getFieldCount()).putInt(relatedTables.limit())
+                .putInt(indexNames.limit());
+        int start = 0;
+        for (byte[] string : utf8) {
+            buffer.putInt(start);
+            start += string.length;
+        }
+        buffer.putInt(start);
+        IntBuffer[] intColumns = {tableNames, fieldStarts, fieldTables, fieldNames, fieldLengths, fieldDefaults,
+            relatedFields, foreignFields, relatedTableStarts, relatedTables, indexStarts, indexNames, indexFields};
+        for (IntBuffer column : intColumns) {
+            for (int i = 0; i < column.limit(); i++) {
+                buffer.putInt(column.get(i));
+            }
+        }
+        for (ByteBuffer column : new ByteBuffer[] {fieldTypes, fieldFlags}) {
+            for (int i = 0; i < column.limit(); i++) {
+                buffer.put(column.get(i));
+            }
+        }
+        for (byte[] string : utf8) {
+            buffer.put(string);
+        }
+    }
+
+    /**
+     * Encode each string in the pool as UTF-8.
+     *
+     * @return The encoded strings, in pool order
+     */
+    private byte[][] getStringBytes() {
+        byte[][] utf8 = new byte[getStringCount()][];
+        for (int id = 0; id < utf8.length; id++) {
+            utf8[id] = string(id).getBytes(StandardCharsets.UTF_8);
+        }
+        return utf8;
+    }
+
+    /**
+     * Determine whether this schema is held outside the Java heap, in a
+     * direct buffer or a mapped file.
+     *
+     * @return Whether or not the schema is off the heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Pack a schema into arrays. Relations to tables or fields outside the
+     * schema are left out. Schemas are only changed on the event dispatch
+     * thread, so an open schema should be packed there.
+     *
+     * @param schema The schema to pack
+     * @return The packed schema
+     */
+    public static ColumnarSchema of(Schema schema) {
+        Builder builder = new Builder();
+        List<Table> tables = schema.getTables();
+        Map<Field, Integer> fieldIds = new HashMap<>();
+        for (Table table : tables) {
+            builder.addTable(table.getName());
+            for (Field field : table.getFields()) {
+                fieldIds.put(field, builder.addField(field.getName(), field.getDataType(), field.getCharLength(),
+                        field.isAllowNull(), field.isPrimaryKey(), field.isAutoIncrement(),
+                        field.getDefaultValue()));
+            }
+        }
+        for (int table = 0; table < tables.size(); table++) {
+            Table parsedTable = tables.get(table);
+            for (Table relatedTable : parsedTable.getRelatedTables()) {
+                int related = schema.getTableIndex(relatedTable);
+                if (related != NONE) {
+                    builder.addRelatedTable(table, related);
+                }
+            }
+            for (Map.Entry<Field, Field> related : parsedTable.getRelatedFields().entrySet()) {
+                Integer target = fieldIds.get(related.getValue());
+                if (target != null) {
+                    builder.setRelatedField(fieldIds.get(related.getKey()), target);
+                }
+            }
+            for (Map.Entry<String, Field> index : parsedTable.getIndexes().entrySet()) {
+                builder.addIndex(table, index.getKey(), fieldIds.get(index.getValue()));
+            }
+            for (Field field : parsedTable.getFields()) {
+                Integer target = fieldIds.get(field.getForeignField());
+                if (target != null) {
+                    builder.setForeignField(fieldIds.get(field), target);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Pack the tables and fields read by the Edge diagram and save file
+     * parsers, without creating Table and Field objects. The result matches
+     * the parsers' getSchema: tables come in the order it lists them, and
+     * each table's fields and related tables in the order it adds them.
+     *
+     * @param tables The parsed tables
+     * @param fields The parsed fields
+     * @return The packed schema
+     */
+    public static ColumnarSchema of(List<EdgeTable> tables, List<EdgeField> fields) {
+        // getSchema lists the tables as a HashMap keyed by figure number
+        // gives them, so one filled the same way gives the same order
+        Map<Integer, Integer> tableIds = new HashMap<>();
+        for (int table = 0; table < tables.size(); table++) {
+            tableIds.put(tables.get(table).getNumFigure(), table);
+        }
+        int[] positions = new int[tables.size()];
+        Arrays.fill(positions, NONE);
+        int[] readOrder = new int[tableIds.size()];
+        int tableCount = 0;
+        for (int table : tableIds.values()) {
+            positions[table] = tableCount;
+            readOrder[tableCount++] = table;
+        }
+
+        // Order the fields by table, keeping each table's fields in the order read
+        int[] starts = new int[tableCount + 1];
+        int[] owners = new int[fields.size()];
+        for (int field = 0; field < fields.size(); field++) {
+            Integer table = tableIds.get(fields.get(field).getTableID());
+            owners[field] = table == null ? NONE : positions[table];
+            if (table != null) {
+                starts[owners[field] + 1]++;
+            }
+        }
+        for (int table = 0; table < tableCount; table++) {
+            starts[table + 1] += starts[table];
+        }
+        int[] order = new int[starts[tableCount]];
+        int[] next = Arrays.copyOf(starts, tableCount);
+        for (int field = 0; field < fields.size(); field++) {
+            if (owners[field] != NONE) {
+                order[next[owners[field]]++] = field;
+            }
+        }
+
+        Builder builder = new Builder();
+        for (int table = 0; table < tableCount; table++) {
+            builder.addTable(tables.get(readOrder[table]).getName());
+            for (int i = starts[table]; i < starts[table + 1]; i++) {
+                EdgeField parsedField = fields.get(order[i]);
+                builder.addField(parsedField.getName(), DataType.VARCHAR, Field.VARCHAR_DEFAULT_LENGTH,
+                        !parsedField.getDisallowNull(), parsedField.getIsPrimaryKey(), false, "");
+            }
+        }
+        // as in the parsers, a relation is made once both tables have been
+        // read, so related tables are added in the order the tables were read
+        for (int table = 0; table < tables.size(); table++) {
+            if (positions[table] == NONE) {
+                continue; // a later table has the same figure number
+            }
+            for (int relatedId : tables.get(table).getRelatedTables()) {
+                Integer related = tableIds.get(relatedId);
+                if (related != null && related < table) {
+                    builder.addRelatedTable(positions[table], positions[related]);
+                    builder.addRelatedTable(positions[related], positions[table]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Unpack this schema into Table and Field objects.
+     *
+     * @return A new schema with the same tables, fields and relations
+     */
+    public Schema toSchema() {
+        Table[] tables = new Table[getTableCount()];
+        Field[] fields = new Field[getFieldCount()];
+        for (int table = 0; table < tables.length; table++) {
+            tables[table] = new Table(getTableName(table));
+            for (int field = getFirstField(table); field < getFieldEnd(table); field++) {
+                Field unpacked = new Field(getFieldName(field));
+                unpacked.setDataType(getDataType(field));
+                unpacked.setCharLength(getCharLength(field));
+                unpacked.setDefaultValue(getDefaultValue(field));
+                unpacked.setAllowNull(isAllowNull(field));
+                unpacked.setIsPrimaryKey(isPrimaryKey(field));
+                unpacked.setAutoIncrement(isAutoIncrement(field));
+                unpacked.setTable(tables[table]);
+                tables[table].addField(unpacked);
+                fields[field] = unpacked;
+            }
+        }
+
+        // Relations can only be unpacked once every table and field has been
+        for (int table = 0; table < tables.length; table++) {
+            for (int i = relatedTableStarts.get(table); i < relatedTableStarts.get(table + 1); i++) {
+                tables[table].addRelatedTable(tables[relatedTables.get(i)]);
+            }
+            for (int field = getFirstField(table); field < getFieldEnd(table); field++) {
+                if (relatedFields.get(field) != NONE) {
+                    tables[table].setRelatedField(fields[field], fields[relatedFields.get(field)]);
+                }
+                if (foreignFields.get(field) != NONE) {
+                    fields[field].setForeignField(fields[foreignFields.get(field)]);
+                }
+            }
+            for (int i = indexStarts.get(table); i < indexStarts.get(table + 1); i++) {
+                tables[table].setIndex(string(indexNames.get(i)), fields[indexFields.get(i)]);
+            }
+        }
+
+        List<Table> tableList = new ArrayList<>(tables.length);
+        for (Table table : tables) {
+            tableList.add(table);
+        }
+        return new Schema(tableList);
+    }
+
+    /**
+     * Get the number of tables.
+     *
+     * @return The table count
+     */
+    public int getTableCount() {
+        return tableNames.limit();
+    }
+
+    /**
+     * Get the number of fields in all tables.
+     *
+     * @return The field count
+     */
+    public int getFieldCount() {
+        return fieldNames.limit();
+    }
+
+    /**
+     * Get the number of distinct names and default values.
+     *
+     * @return The size of the string pool
+     */
+    public int getStringCount() {
+        return strings != null ? strings.length : stringStarts.limit() - 1;
+    }
+
+    /**
+     * Get the name of a table.
+     *
+     * @param table The table's number
+     * @return The table's name
+     */
+    public String getTableName(int table) {
+        return string(tableNames.get(table));
+    }
+
+    /**
+     * Find a table by name.
+     *
+     * @param name The name of the table
+     * @return The first table with the name, or NONE
+     */
+    public int getTableByName(String name) {
+        byte[] utf8 = strings == null ? name.getBytes(StandardCharsets.UTF_8) : null;
+        for (int table = 0; table < tableNames.limit(); table++) {
+            int id = tableNames.get(table);
+            if (utf8 == null ? name.equals(string(id)) : stringEquals(id, utf8)) {
+                return table;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Get the number of a table's first field.
+     *
+     * @param table The table's number
+     * @return The first field's number
+     */
+    public int getFirstField(int table) {
+        return fieldStarts.get(table);
+    }
+
+    /**
+     * Get the number after a table's last field.
+     *
+     * @param table The table's number
+     * @return The number after the last field
+     */
+    public int getFieldEnd(int table) {
+        return fieldStarts.get(table + 1);
+    }
+
+    /**
+     * Get the table a field is in.
+     *
+     * @param field The field's number
+     * @return The table's number
+     */
+    public int getTable(int field) {
+        return fieldTables.get(field);
+    }
+
+    /**
+     * Get the name of a field.
+     *
+     * @param field The field's number
+     * @return The field's name
+     */
+    public String getFieldName(int field) {
+        return string(fieldNames.get(field));
+    }
+
+    /**
+     * Get the data type of a field.
+     *
+     * @param field The field's number
+     * @return The field's data type, or null
+     */
+    public DataType getDataType(int field) {
+        byte dataType = fieldTypes.get(field);
+        return dataType == NONE ? null : DATA_TYPES[dataType];
+    }
+
+    /**
+     * Get the data type of a field as its ordinal.
+     *
+     * @param field The field's number
+     * @return The data type's ordinal, or NONE
+     */
+    public byte getDataTypeCode(int field) {
+        return fieldTypes.get(field);
+    }
+
+    /**
+     * Get the maximum number of characters a field can hold.
+     *
+     * @param field The field's number
+     * @return The field's length
+     */
+    public int getCharLength(int field) {
+        return fieldLengths.get(field);
+    }
+
+    /**
+     * Get the ALLOW_NULL, PRIMARY_KEY and AUTO_INCREMENT flags of a field.
+     *
+     * @param field The field's number
+     * @return The field's flags
+     */
+    public byte getFlags(int field) {
+        return fieldFlags.get(field);
+    }
+
+    /**
+     * Determine whether or not a field is allowed to be null.
+     *
+     * @param field The field's number
+     * @return Whether or not the field can be null
+     */
+    public boolean isAllowNull(int field) {
+        return (fieldFlags.get(field) & ALLOW_NULL) != 0;
+    }
+
+    /**
+     * Determine whether or not a field is a primary key.
+     *
+     * @param field The field's number
+     * @return Whether or not the field is a primary key
+     */
+    public boolean isPrimaryKey(int field) {
+        return (fieldFlags.get(field) & PRIMARY_KEY) != 0;
+    }
+
+    /**
+     * Determine whether or not a field increments automatically.
+     *
+     * @param field The field's number
+     * @return Whether or not the field auto increments
+     */
+    public boolean isAutoIncrement(int field) {
+        return (fieldFlags.get(field) & AUTO_INCREMENT) != 0;
+    }
+
+    /**
+     * Get the default value of a field.
+     *
+     * @param field The field's number
+     * @return The field's default value
+     */
+    public String getDefaultValue(int field) {
+        return string(fieldDefaults.get(field));
+    }
+
+    /**
+     * Get the field a foreign key references, from its table's related
+     * fields.
+     *
+     * @param field The foreign key's number
+     * @return The referenced field's number, or NONE
+     */
+    public int getRelatedField(int field) {
+        return relatedFields.get(field);
+    }
+
+    /**
+     * Get the field a field references, from Field.getForeignField.
+     *
+     * @param field The field's number
+     * @return The referenced field's number, or NONE
+     */
+    public int getForeignField(int field) {
+        return foreignFields.get(field);
+    }
+
+    /**
+     * Get the number of foreign keys in a table.
+     *
+     * @param table The table's number
+     * @return The foreign key count
+     */
+    public int getRelatedFieldCount(int table) {
+        int count = 0;
+        for (int field = fieldStarts.get(table); field < fieldStarts.get(table + 1); field++) {
+            if (relatedFields.get(field) != NONE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of tables related to a table.
+     *
+     * @param table The table's number
+     * @return The related table count
+     */
+    public int getRelatedTableCount(int table) {
+        return relatedTableStarts.get(table + 1) - relatedTableStarts.get(table);
+    }
+
+    /**
+     * Get one of the tables related to a table.
+     *
+     * @param table The table's number
+     * @param i The position of the related table
+     * @return The related table's number
+     */
+    public int getRelatedTable(int table, int i) {
+        return relatedTables.get(relatedTableStarts.get(table) + i);
+    }
+
+    /**
+     * Get the number of indexes on a table.
+     *
+     * @param table The table's number
+     * @return The index count
+     */
+    public int getIndexCount(int table) {
+        return indexStarts.get(table + 1) - indexStarts.get(table);
+    }
+
+    /**
+     * Get the name of one of a table's indexes.
+     *
+     * @param table The table's number
+     * @param i The position of the index
+     * @return The index's name
+     */
+    public String getIndexName(int table, int i) {
+        return string(indexNames.get(indexStarts.get(table) + i));
+    }
+
+    /**
+     * Get the field one of a table's indexes is on.
+     *
+     * @param table The table's number
+     * @param i The position of the index
+     * @return The indexed field's number
+     */
+    public int getIndexField(int table, int i) {
+        return indexFields.get(indexStarts.get(table) + i);
+    }
+
+    /**
+     * Get a string from the pool.
+     *
+     * @param id The string's number, or NONE
+     * @return The string, or null
+     */
+    private String string(int id) {
+        if (id == NONE) {
+            return null;
+        }
+        if (strings != null) {
+            return strings[id];
+        }
+        int start = stringStarts.get(id);
+        byte[] utf8 = new byte[stringStarts.get(id + 1) - start];
+        ByteBuffer bytes = stringBytes.duplicate(); // its own position, so reads can run concurrently
+        bytes.position(start);
+        bytes.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare a string stored as bytes with UTF-8 bytes, without decoding it.
+     *
+     * @param id The string's number, or NONE
+     * @param utf8 The bytes to compare with
+     * @return Whether or not the string has the same bytes
+     */
+    private boolean stringEquals(int id, byte[] utf8) {
+        if (id == NONE) {
+            return false;
+        }
+        int start = stringStarts.get(id);
+        if (stringStarts.get(id + 1) - start != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (stringBytes.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,534 @@
+package edgeconvert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analysis of the foreign key graph of a schema: which tables are mutually
+ * dependent, in what order tables can be created or loaded, and how deep the
+ * chains of references go. A table depends on another when one of its fields
+ * refers to a field of the other, through its table's related fields or its
+ * own foreign key.
+ *
+ * Tables that depend on each other, directly or through other tables, form
+ * one group (a strongly connected component); such a group cannot be loaded,
+ * truncated or migrated one table at a time. Groups are found with Tarjan's
+ * algorithm, run with an explicit stack so deep chains cannot overflow the
+ * thread's stack, and everything takes time in proportion to the number of
+ * tables plus references. Tables are numbered as in the list or columnar
+ * schema the analysis was made from.
+ */
+public final class DependencyAnalysis {
+
+    // private static/final attributes
+    private static final int INITIAL_EDGES = 16;
+
+    // declarations
+    private final String[] tableNames;
+    private final int edgeCount;
+    private final int[] componentOf; // each table's group
+    private final int[] componentStarts; // where each group's tables start in members
+    private final int[] members; // tables, grouped, groups in dependency order
+    private final boolean[] cyclic; // for each group
+    private final int[] levels; // for each group
+    private final int[] chainNext; // for each group, the group it depends on most deeply, or -1
+    private final int cyclicCount;
+    private final int deepestComponent;
+
+    /**
+     * Analyze a graph held as the references out of each table.
+     *
+     * @param tableNames The names of the tables
+     * @param edgeStarts Where each table's references start in targets, with
+     * one more entry for the end
+     * @param targets The tables referred to
+     */
+    private DependencyAnalysis(String[] tableNames, int[] edgeStarts, int[] targets) {
+        int tableCount = tableNames.length;
+        this.tableNames = tableNames;
+        this.edgeCount = edgeStarts[tableCount];
+        this.componentOf = new int[tableCount];
+        int componentCount = findComponents(edgeStarts, targets);
+
+        // Group the tables by component. Tarjan's algorithm finishes a group
+        // only after every group it depends on, so the groups are already in
+        // dependency order.
+        this.componentStarts = new int[componentCount + 1];
+        for (int table = 0; table < tableCount; table++) {
+            componentStarts[componentOf[table] + 1]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            componentStarts[component + 1] += componentStarts[component];
+        }
+        this.members = new int[tableCount];
+        int[] next = Arrays.copyOf(componentStarts, componentCount);
+        for (int table = 0; table < tableCount; table++) {
+            members[next[componentOf[table]]++] = table;
+        }
+
+        this.cyclic = new boolean[componentCount];
+        this.levels = new int[componentCount];
+        this.chainNext = new int[componentCount];
+        int cycles = 0;
+        int deepest = -1;
+        for (int component = 0; component < componentCount; component++) {
+            boolean isCyclic = componentStarts[component + 1] - componentStarts[component] > 1;
+            int level = 0;
+            int below = -1;
+            for (int i = componentStarts[component]; i < componentStarts[component + 1]; i++) {
+                int table = members[i];
+                for (int edge = edgeStarts[table]; edge < edgeStarts[table + 1]; edge++) {
+                    int target = componentOf[targets[edge]];
+                    if (target == component) {
+                        isCyclic |= targets[edge] == table; // a table referring to itself
+                    } else if (levels[target] + 1 > level) {
+                        level = levels[target] + 1;
+                        below = target;
+                    }
+                }
+            }
+            cyclic[component] = isCyclic;
+            levels[component] = level;
+            chainNext[component] = below;
+            if (isCyclic) {
+                cycles++;
+            }
+            if (deepest < 0 || level > levels[deepest]) {
+                deepest = component;
+            }
+        }
+        this.cyclicCount = cycles;
+        this.deepestComponent = deepest;
+    }
+
+    /**
+     * Find the strongly connected components with Tarjan's algorithm,
+     * keeping the depth-first search's path in arrays instead of on the call
+     * stack.
+     *
+     * @param edgeStarts Where each table's references start in targets
+     * @param targets The tables referred to
+     * @return The number of components
+     */
+    private int findComponents(int[] edgeStarts, int[] targets) {
+        int tableCount = componentOf.length;
+        int[] order = new int[tableCount]; // when each table was reached, plus one; 0 if not yet
+        int[] low = new int[tableCount];
+        int[] nextEdge = new int[tableCount];
+        int[] path = new int[tableCount]; // the search's path from its starting table
+        int[] open = new int[tableCount]; // tables reached but not yet in a component
+        boolean[] isOpen = new boolean[tableCount];
+        int reached = 0;
+        int componentCount = 0;
+        for (int start = 0; start < tableCount; start++) {
+            if (order[start] != 0) {
+                continue;
+            }
+            int pathLength = 0;
+            int openCount = 0;
+            order[start] = low[start] = ++reached;
+            nextEdge[start] = edgeStarts[start];
+            path[pathLength++] = start;
+            open[openCount++] = start;
+            isOpen[start] = true;
+            while (pathLength > 0) {
+                int table = path[pathLength - 1];
+                if (nextEdge[table] < edgeStarts[table + 1]) {
+                    int target = targets[nextEdge[table]++];
+                    if (order[target] == 0) { // go deeper
+                        order[target] = low[target] = ++reached;
+                        nextEdge[target] = edgeStarts[target];
+                        path[pathLength++] = target;
+                        open[openCount++] = target;
+                        isOpen[target] = true;
+                    } else if (isOpen[target]) {
+                        low[table] = Math.min(low[table], order[target]);
+                    }
+                } else { // every reference followed, so step back
+                    pathLength--;
+                    if (low[table] == order[table]) { // the first table reached in its component
+                        int member;
+                        do {
+                            member = open[--openCount];
+                            isOpen[member] = false;
+                            componentOf[member] = componentCount;
+                        } while (member != table);
+                        componentCount++;
+                    }
+                    if (pathLength > 0) {
+                        int parent = path[pathLength - 1];
+                        low[parent] = Math.min(low[parent], low[table]);
+                    }
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    /**
+     * Analyze the references between a list of tables. References to tables
+     * not in the list are left out.
+     *
+     * @param tables The tables
+     * @return The analysis, numbering tables by their position in the list
+     */
+    public static DependencyAnalysis of(List<Table> tables) {
+        int tableCount = tables.size();
+        Map<Table, Integer> positions = new IdentityHashMap<>(tableCount);
+        String[] names = new String[tableCount];
+        for (int table = 0; table < tableCount; table++) {
+            positions.put(tables.get(table), table);
+            names[table] = tables.get(table).getName();
+        }
+        EdgeList edges = new EdgeList(tableCount);
+        for (int table = 0; table < tableCount; table++) {
+            Table source = tables.get(table);
+            for (Field field : source.getFields()) {
+                Field foreignField = field.getForeignField();
+                Field relatedField = source.getRelatedField(field);
+                addEdge(edges, positions, table, foreignField);
+                if (relatedField != foreignField) { // usually both are set to the same field
+                    addEdge(edges, positions, table, relatedField);
+                }
+            }
+        }
+        return edges.analyze(names);
+    }
+
+    /**
+     * Add a reference to a field's table, if the table is one analyzed.
+     *
+     * @param edges The references found so far
+     * @param positions Each table's number
+     * @param table The referring table
+     * @param target The field referred to, or null
+     */
+    private static void addEdge(EdgeList edges, Map<Table, Integer> positions, int table, Field target) {
+        if (target != null) {
+            Integer targetTable = positions.get(target.getTable());
+            if (targetTable != null) {
+                edges.add(table, targetTable);
+            }
+        }
+    }
+
+    /**
+     * Analyze the references between the tables of a columnar schema,
+     * reading its arrays directly.
+     *
+     * @param schema The schema
+     * @return The analysis, numbering tables as the schema does
+     */
+    public static DependencyAnalysis of(ColumnarSchema schema) {
+        int tableCount = schema.getTableCount();
+        String[] names = new String[tableCount];
+        EdgeList edges = new EdgeList(tableCount);
+        for (int table = 0; table < tableCount; table++) {
+            names[table] = schema.getTableName(table);
+            for (int field = schema.getFirstField(table); field < schema.getFieldEnd(table); field++) {
+                int foreignField = schema.getForeignField(field);
+                int relatedField = schema.getRelatedField(field);
+                if (foreignField != ColumnarSchema.NONE) {
+                    edges.add(table, schema.getTable(foreignField));
+                }
+                if (relatedField != ColumnarSchema.NONE && relatedField != foreignField) {
+                    edges.add(table, schema.getTable(relatedField));
+                }
+            }
+        }
+        return edges.analyze(names);
+    }
+
+    /**
+     * Get the number of tables analyzed.
+     *
+     * @return The table count
+     */
+    public int getTableCount() {
+        return tableNames.length;
+    }
+
+    /**
+     * Get the number of references between the tables. A field whose
+     * related field and foreign key are the same field counts once.
+     *
+     * @return The reference count
+     */
+    public int getReferenceCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Get the name of a table.
+     *
+     * @param table The table's number
+     * @return The name
+     */
+    public String getTableName(int table) {
+        return tableNames[table];
+    }
+
+    /**
+     * Get the number of groups of tables. A table in no cycle is a group of
+     * its own.
+     *
+     * @return The group count
+     */
+    public int getComponentCount() {
+        return levels.length;
+    }
+
+    /**
+     * Get the group a table is in. Groups are numbered in dependency order:
+     * a group only depends on groups with lower numbers.
+     *
+     * @param table The table's number
+     * @return The group's number
+     */
+    public int getComponent(int table) {
+        return componentOf[table];
+    }
+
+    /**
+     * Get the tables in a group.
+     *
+     * @param component The group's number
+     * @return The numbers of its tables
+     */
+    public int[] getComponentTables(int component) {
+        return Arrays.copyOfRange(members, componentStarts[component], componentStarts[component + 1]);
+    }
+
+    /**
+     * Determine whether the tables of a group depend on each other, so they
+     * have to be loaded, truncated or migrated together. A group of one
+     * table is cyclic if the table refers to itself.
+     *
+     * @param component The group's number
+     * @return Whether or not the group is cyclic
+     */
+    public boolean isCyclic(int component) {
+        return cyclic[component];
+    }
+
+    /**
+     * Get the number of cyclic groups.
+     *
+     * @return The cyclic group count
+     */
+    public int getCyclicComponentCount() {
+        return cyclicCount;
+    }
+
+    /**
+     * Get the cyclic groups, in dependency order.
+     *
+     * @return The numbers of the cyclic groups
+     */
+    public int[] getCyclicComponents() {
+        int[] components = new int[cyclicCount];
+        int found = 0;
+        for (int component = 0; component < cyclic.length; component++) {
+            if (cyclic[component]) {
+                components[found++] = component;
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Get the dependency level of a table: 0 if it depends on no other
+     * group, otherwise one more than the highest level it depends on. Every
+     * table can be created once the tables of lower levels have been.
+     *
+     * @param table The table's number
+     * @return The table's level
+     */
+    public int getLevel(int table) {
+        return levels[componentOf[table]];
+    }
+
+    /**
+     * Get the number of dependency levels.
+     *
+     * @return The level count, 0 if there are no tables
+     */
+    public int getLevelCount() {
+        return deepestComponent < 0 ? 0 : levels[deepestComponent] + 1;
+    }
+
+    /**
+     * Get an order the tables can be created or loaded in: every table
+     * after the tables it depends on, except for tables in the same cyclic
+     * group. Tables of one level keep their order in the schema.
+     *
+     * @return The table numbers, in load order
+     */
+    public int[] getLoadOrder() {
+        int levelCount = getLevelCount();
+        int[] starts = new int[levelCount + 1];
+        for (int table = 0; table < componentOf.length; table++) {
+            starts[getLevel(table) + 1]++;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            starts[level + 1] += starts[level];
+        }
+        int[] order = new int[componentOf.length];
+        for (int table = 0; table < componentOf.length; table++) {
+            order[starts[getLevel(table)]++] = table;
+        }
+        return order;
+    }
+
+    /**
+     * Get a longest chain of dependencies, from a group on the deepest level
+     * down to a group that depends on no other.
+     *
+     * @return The numbers of the groups on the chain
+     */
+    public int[] getLongestChain() {
+        int[] chain = new int[getLevelCount()];
+        int length = 0;
+        for (int component = deepestComponent; component >= 0; component = chainNext[component]) {
+            chain[length++] = component;
+        }
+        return chain;
+    }
+
+    /**
+     * Get a readable report of the analysis.
+     *
+     * @param limit The most groups and tables to list in each section
+     * @return The report
+     */
+    public String toReport(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Foreign key dependencies%n"));
+        sb.append(String.format("%,d tables, %,d references, %,d groups, %,d dependency levels%n%n",
+                getTableCount(), edgeCount, getComponentCount(), getLevelCount()));
+
+        if (cyclicCount == 0) {
+            sb.append(String.format("No tables depend on each other; they can be loaded one at a time.%n"));
+        } else {
+            sb.append(cyclicCount == 1
+                    ? String.format("1 group of tables depends on itself and must be loaded together:%n")
+                    : String.format("%,d groups of tables depend on themselves and must each be loaded together:%n",
+                            cyclicCount));
+            int[] components = getCyclicComponents();
+            for (int i = 0; i < Math.min(limit, components.length); i++) {
+                sb.append(String.format("  level %,d: %s%n", levels[components[i]],
+                        describe(getComponentTables(components[i]), limit)));
+            }
+            if (components.length > limit) {
+                sb.append(String.format("  ... and %,d more%n", components.length - limit));
+            }
+        }
+
+        int[] chain = getLongestChain();
+        if (chain.length > 0) {
+            sb.append(String.format("%nLongest chain (%,d levels):%n", chain.length));
+            for (int i = 0; i < Math.min(limit, chain.length); i++) {
+                sb.append(String.format("  %s%n", describe(getComponentTables(chain[i]), limit)));
+            }
+            if (chain.length > limit) {
+                sb.append(String.format("  ... and %,d more%n", chain.length - limit));
+            }
+
+            int[] perLevel = new int[getLevelCount()];
+            for (int table = 0; table < componentOf.length; table++) {
+                perLevel[getLevel(table)]++;
+            }
+            sb.append(String.format("%nTables per level:%n"));
+            for (int level = 0; level < Math.min(limit, perLevel.length); level++) {
+                sb.append(String.format("  %,5d %,10d%n", level, perLevel[level]));
+            }
+            if (perLevel.length > limit) {
+                sb.append(String.format("  ... and %,d more levels%n", perLevel.length - limit));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * List the names of some tables.
+     *
+     * @param tables The table numbers
+     * @param limit The most names to list
+     * @return The names, separated by commas
+     */
+    private String describe(int[] tables, int limit) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, tables.length); i++) {
+            names.add(tableNames[tables[i]]);
+        }
+        if (tables.length > limit) {
+            names.add(String.format("and %,d more", tables.length - limit));
+        }
+        return String.join(", ", names);
+    }
+
+    /**
+     * The references found between tables, gathered before the graph is
+     * packed into arrays.
+     */
+    private static class EdgeList {
+
+        // declarations
+        private final int[] counts; // references out of each table
+        private int[] sources;
+        private int[] targets;
+        private int size;
+
+        /**
+         * Construct an empty list.
+         *
+         * @param tableCount The number of tables
+         */
+        EdgeList(int tableCount) {
+            counts = new int[tableCount];
+            sources = new int[INITIAL_EDGES];
+            targets = new int[INITIAL_EDGES];
+        }
+
+        /**
+         * Add a reference.
+         *
+         * @param source The referring table
+         * @param target The table referred to
+         */
+        void add(int source, int target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+            counts[source]++;
+        }
+
+        /**
+         * Pack the references by referring table and analyze them.
+         *
+         * @param names The names of the tables
+         * @return The analysis
+         */
+        DependencyAnalysis analyze(String[] names) {
+            int[] starts = new int[counts.length + 1];
+            for (int table = 0; table < counts.length; table++) {
+                starts[table + 1] = starts[table] + counts[table];
+            }
+            int[] next = Arrays.copyOf(starts, counts.length);
+            int[] packed = new int[size];
+            for (int edge = 0; edge < size; edge++) {
+                packed[next[sources[edge]]++] = targets[edge];
+            }
+            sources = null; // no longer needed while the analysis runs
+            targets = null;
+            return new DependencyAnalysis(names, starts, packed);
+        }
+    }
+}
@@ -1,40 +1,105 @@
 package edgeconvert;
 
+import edgeconvert.diagnostics.MBeans;
 import edgeconvert.input.FileParser;
 import edgeconvert.output.DDLBuilder;
 import edgeconvert.view.DefineRelationsView;
 import edgeconvert.view.DefineTablesView;
 import edgeconvert.view.EdgeConvertView;
+import edgeconvert.view.SwingDispatcher;
 import edgeconvert.view.events.FileSaver;
 import java.io.File;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * Mediator for the EdgeConvert program. Allows state to be maintained across
  * the application without passing values back and forth and for distinct
  * components to communicate without knowing about each other. Singleton.
+ * The mediator and its PluginManager are registered as MBeans, so that a
+ * process embedding EdgeConvert can be monitored over JMX.
  */
-public class EdgeConvertMediator implements Observer {
+public class EdgeConvertMediator implements Observer, EdgeConvertMediatorMXBean {
 
-    private static EdgeConvertMediator instance;
+    private static final Logger LOGGER = Logger.getLogger(EdgeConvertMediator.class.getName());
 
     private final PluginManager pluginManager;
-    private Schema schema;
+    private final ExecutorService pluginLoader; // loads one plugin directory at a time
+    private volatile CompletableFuture<Void> pluginsLoaded;
+    private volatile Schema schema;
     private EdgeConvertView defineTablesView, defineRelationsView;
-    private boolean schemaModified;
-    private File parseFile, saveFile;
+    private String defineRelationsTitle; // kept until the view is created
+    private volatile boolean schemaModified;
+    private final AtomicLong modificationCount;
+    private volatile SchemaMeasure lastMeasure; // shared by the counts read in one JMX refresh
+    private volatile File parseFile;
+    private File saveFile;
 
     /**
-     * Construct a mediator. This method is private because the mediator is
-     * accessed via the static getInstance() method.
+     * Construct a mediator and start loading plugins in the background. This
+     * method is private because the mediator is accessed via the static
+     * getInstance() method.
      */
     private EdgeConvertMediator() {
         this.pluginManager = new PluginManager();
-        this.pluginManager.loadPlugins();
+        this.pluginLoader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "edgeconvert-plugin-loader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
         this.schemaModified = false;
+        this.modificationCount = new AtomicLong();
+        this.pluginsLoaded = loadPlugins();
+        MBeans.register("edgeconvert:type=PluginManager", pluginManager);
+        MBeans.register("edgeconvert:type=Mediator", this);
+    }
+
+    /**
+     * Holds the singleton. The class is only initialized, creating the
+     * mediator, the first time getInstance() is called, and class
+     * initialization is thread-safe.
+     */
+    private static class InstanceHolder {
+
+        private static final EdgeConvertMediator INSTANCE = new EdgeConvertMediator();
+    }
+
+    /**
+     * The counts of a schema, as they were after a number of change
+     * notifications.
+     */
+    private static class SchemaMeasure {
+
+        private final Schema schema;
+        private final long modification;
+        private final int[] counts;
+
+        /**
+         * Construct a measure.
+         *
+         * @param schema The schema counted, or null
+         * @param modification The notification count before it was counted
+         * @param counts Its tables, fields and relations
+         */
+        SchemaMeasure(Schema schema, long modification, int[] counts) {
+            this.schema = schema;
+            this.modification = modification;
+            this.counts = counts;
+        }
     }
 
     /**
@@ -43,10 +108,70 @@ public class EdgeConvertMediator implements Observer {
      * @return An instance of EdgeConvertMediator
      */
     public static EdgeConvertMediator getInstance() {
-        if (instance == null) {
-            instance = new EdgeConvertMediator();
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Load plugins from the plugin directory in the background. Once loaded,
+     * the views' Open menus and Create DDL buttons are updated on the event
+     * dispatch thread.
+     *
+     * @return Completes once the plugins have been loaded
+     */
+    private CompletableFuture<Void> loadPlugins() {
+        CompletableFuture<Void> loading = CompletableFuture.runAsync(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                pluginManager.loadPlugins();
+                LOGGER.log(Level.INFO, "Loaded {0} parsers and {1} builders from {2} in {3} ms",
+                        new Object[]{pluginManager.getParsers().size(), pluginManager.getBuilders().size(),
+                            pluginManager.getPluginPath(), (System.nanoTime() - start) / 1000000L});
+            }
+        }, pluginLoader);
+        loading.whenComplete(new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(Void result, Throwable failure) {
+                if (failure != null) {
+                    LOGGER.log(Level.SEVERE, "Unable to load plugins", failure);
+                }
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        updatePluginActions();
+                    }
+                });
+            }
+        });
+        return loading;
+    }
+
+    /**
+     * Determine whether plugins have finished loading, so that files can be
+     * opened and DDL created.
+     *
+     * @return Whether or not the plugins are ready
+     */
+    @Override
+    public boolean isPluginsReady() {
+        CompletableFuture<Void> loaded = pluginsLoaded;
+        return loaded != null && loaded.isDone() && !loaded.isCompletedExceptionally();
+    }
+
+    /**
+     * Update the actions that depend on plugins in every view that has been
+     * created. Called on the event dispatch thread.
+     */
+    private void updatePluginActions() {
+        boolean canSave = isPluginsReady() && schema != null;
+        if (defineTablesView != null) {
+            defineTablesView.populateOpenMenu();
+            defineTablesView.setCreateDDLEnabled(canSave);
+        }
+        if (defineRelationsView != null) {
+            defineRelationsView.populateOpenMenu();
+            defineRelationsView.setCreateDDLEnabled(canSave);
         }
-        return instance;
     }
 
     /**
@@ -89,7 +214,9 @@ public class EdgeConvertMediator implements Observer {
         if (this.schema != null) {
             this.schema.addObserver(this);
             defineTablesView.populate();
-            defineRelationsView.populate();
+            if (defineRelationsView != null) {
+                defineRelationsView.populate();
+            }
         }
         schemaModified = false;
     }
@@ -100,10 +227,149 @@ public class EdgeConvertMediator implements Observer {
      *
      * @return Whether or not the schema is modified
      */
+    @Override
     public boolean isSchemaModified() {
         return schemaModified;
     }
 
+    /**
+     * Determine whether a schema is open.
+     *
+     * @return Whether or not there is a schema
+     */
+    @Override
+    public boolean isSchemaOpen() {
+        return schema != null;
+    }
+
+    /**
+     * Get the number of tables in the open schema.
+     *
+     * @return The number of tables
+     */
+    @Override
+    public int getTableCount() {
+        return measureSchema()[0];
+    }
+
+    /**
+     * Get the number of fields in the open schema.
+     *
+     * @return The number of fields
+     */
+    @Override
+    public int getFieldCount() {
+        return measureSchema()[1];
+    }
+
+    /**
+     * Get the number of pairs of related tables in the open schema.
+     *
+     * @return The number of relations
+     */
+    @Override
+    public int getRelationCount() {
+        return measureSchema()[2];
+    }
+
+    /**
+     * Count the tables, fields and relations of the open schema, in one pass
+     * on the calling thread; Schema and Table can be read while the event
+     * dispatch thread edits them. The counts are kept until the schema
+     * changes, so the three attributes read in one JMX refresh share a pass,
+     * and an idle schema is not walked again.
+     *
+     * @return The tables, fields and relations
+     */
+    private int[] measureSchema() {
+        Schema current = schema;
+        long modification = modificationCount.get(); // read first, so edits made during the pass are seen next time
+        SchemaMeasure last = lastMeasure;
+        if (last != null && last.schema == current && last.modification == modification) {
+            return last.counts;
+        }
+        int[] counts = measure(current);
+        lastMeasure = new SchemaMeasure(current, modification, counts);
+        return counts;
+    }
+
+    /**
+     * Count the tables, fields and relations of a schema.
+     *
+     * @param schema The schema, or null
+     * @return The tables, fields and relations
+     */
+    private static int[] measure(Schema schema) {
+        if (schema == null) {
+            return new int[3];
+        }
+        List<Table> tables = schema.getTables();
+        int fields = 0, relations = 0;
+        for (Table table : tables) {
+            fields += table.getFields().size();
+            for (Table related : table.getRelatedTables()) {
+                // Count each pair once, whether one or both tables list the other
+                if (!related.getRelatedTables().contains(table)
+                        || schema.getTableIndex(table) < schema.getTableIndex(related)) {
+                    relations++;
+                }
+            }
+        }
+        return new int[]{tables.size(), fields, relations};
+    }
+
+    /**
+     * Get the number of change notifications the mediator has received from
+     * open schemas.
+     *
+     * @return The notification count
+     */
+    @Override
+    public long getSchemaNotificationCount() {
+        return modificationCount.get();
+    }
+
+    /**
+     * Get the file the program last opened.
+     *
+     * @return The file's path, or null if none has been opened
+     */
+    @Override
+    public String getParseFilePath() {
+        File file = parseFile;
+        return file == null ? null : file.getPath();
+    }
+
+    /**
+     * Get the number of view updates posted to the SwingDispatcher.
+     *
+     * @return The posted count
+     */
+    @Override
+    public long getDispatcherPostedCount() {
+        return SwingDispatcher.getInstance().getPostedCount();
+    }
+
+    /**
+     * Get the number of view updates the SwingDispatcher dropped.
+     *
+     * @return The dropped count
+     */
+    @Override
+    public long getDispatcherDroppedCount() {
+        return SwingDispatcher.getInstance().getDroppedCount();
+    }
+
+    /**
+     * Get the number of times the SwingDispatcher has run pending updates.
+     *
+     * @return The flush count
+     */
+    @Override
+    public long getDispatcherFlushCount() {
+        return SwingDispatcher.getInstance().getFlushCount();
+    }
+
     /**
      * Set the DefineTablesView for the program.
      *
@@ -122,11 +388,32 @@ public class EdgeConvertMediator implements Observer {
         this.defineRelationsView = defineRelationsView;
     }
 
+    /**
+     * Get the DefineRelationsView, creating it the first time it is needed.
+     * Users who never define relations never pay for building it.
+     *
+     * @return The DefineRelationsView
+     */
+    private EdgeConvertView getDefineRelationsView() {
+        if (this.defineRelationsView == null) {
+            this.defineRelationsView = new DefineRelationsView();
+            if (defineRelationsTitle != null) {
+                this.defineRelationsView.setTitle(defineRelationsTitle);
+            }
+            if (schema != null) {
+                this.defineRelationsView.populate();
+            }
+        }
+        return this.defineRelationsView;
+    }
+
     /**
      * Show the DefineTablesView.
      */
     public void showDefineTablesView() {
-        this.defineRelationsView.setVisible(false);
+        if (this.defineRelationsView != null) {
+            this.defineRelationsView.setVisible(false);
+        }
         this.defineTablesView.setVisible(true);
     }
 
@@ -134,8 +421,9 @@ public class EdgeConvertMediator implements Observer {
      * Show the DefineRelationsView.
      */
     public void showDefineRelationsView() {
+        EdgeConvertView relationsView = getDefineRelationsView();
         this.defineTablesView.setVisible(false);
-        this.defineRelationsView.setVisible(true);
+        relationsView.setVisible(true);
     }
 
     /**
@@ -153,7 +441,10 @@ public class EdgeConvertMediator implements Observer {
      * @param title The view's new title
      */
     public void setDefineRelationsTitle(String title) {
-        this.defineRelationsView.setTitle("Define Relations - " + title);
+        this.defineRelationsTitle = "Define Relations - " + title;
+        if (this.defineRelationsView != null) {
+            this.defineRelationsView.setTitle(defineRelationsTitle);
+        }
     }
 
     /**
@@ -166,15 +457,15 @@ public class EdgeConvertMediator implements Observer {
     }
 
     /**
-     * Get the directory from which plugins are loaded and load plugins from it.
+     * Set the directory from which plugins are loaded and load plugins from it
+     * in the background.
      *
      * @param pluginDir The new plugin directory
      */
     public void setPluginDir(File pluginDir) {
         pluginManager.setPluginPath(pluginDir);
-        pluginManager.loadPlugins();
-        defineTablesView.populateOpenMenu();
-        defineRelationsView.populateOpenMenu();
+        pluginsLoaded = loadPlugins();
+        updatePluginActions(); // disabled until the new plugins are loaded
     }
 
     /**
@@ -223,6 +514,7 @@ public class EdgeConvertMediator implements Observer {
     @Override
     public void update(Observable o, Object arg) {
         schemaModified = true;
+        modificationCount.incrementAndGet();
     }
 
     /**
@@ -245,12 +537,18 @@ public class EdgeConvertMediator implements Observer {
             switch (response) {
                 case JOptionPane.YES_OPTION:
                     // Only exit after a successful save
-                    if (save()) {
-                        System.exit(0);
-                    }
+                    save(new FileSaver.SaveListener() {
+                        @Override
+                        public void saveFinished(boolean success) {
+                            if (success) {
+                                System.exit(0);
+                            }
+                        }
+                    });
                     break;
                 case JOptionPane.NO_OPTION:
                     System.exit(0);
+                    break;
                 case JOptionPane.CANCEL_OPTION:
                 // Do nothing
                 default:
@@ -262,14 +560,32 @@ public class EdgeConvertMediator implements Observer {
     }
 
     /**
-     * Save the currently open schema.
+     * Save the currently open schema. The save runs in the background.
+     */
+    public void save() {
+        save(null);
+    }
+
+    /**
+     * Save the currently open schema in the background, telling the given
+     * listener whether it succeeded.
      *
-     * @return Whether or not the schema was saved successfully
+     * @param listener Told whether the save succeeded, or null
      */
-    public boolean save() {
-        boolean success = new FileSaver().save();
-        // If successful, schemaModified is false. Else, schemaModified is left alone.
-        schemaModified &= !success;
-        return success;
+    private void save(final FileSaver.SaveListener listener) {
+        final long savedModification = modificationCount.get();
+        new FileSaver().save(new FileSaver.SaveListener() {
+            @Override
+            public void saveFinished(boolean success) {
+                // If successful and not edited since, schemaModified is false.
+                // Else, schemaModified is left alone.
+                if (success && modificationCount.get() == savedModification) {
+                    schemaModified = false;
+                }
+                if (listener != null) {
+                    listener.saveFinished(success);
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,89 @@
+package edgeconvert;
+
+/**
+ * Management interface for the EdgeConvertMediator, registered as
+ * edgeconvert:type=Mediator.
+ */
+public interface EdgeConvertMediatorMXBean {
+
+    /**
+     * Determine whether a schema is open.
+     *
+     * @return Whether or not there is a schema
+     */
+    public boolean isSchemaOpen();
+
+    /**
+     * Get the number of tables in the open schema.
+     *
+     * @return The number of tables
+     */
+    public int getTableCount();
+
+    /**
+     * Get the number of fields in the open schema.
+     *
+     * @return The number of fields
+     */
+    public int getFieldCount();
+
+    /**
+     * Get the number of pairs of related tables in the open schema.
+     *
+     * @return The number of relations
+     */
+    public int getRelationCount();
+
+    /**
+     * Determine whether or not the schema has been modified since it became
+     * active.
+     *
+     * @return Whether or not the schema is modified
+     */
+    public boolean isSchemaModified();
+
+    /**
+     * Get the number of change notifications the mediator has received from
+     * open schemas. Sampled over time, this gives the notification rate.
+     *
+     * @return The notification count
+     */
+    public long getSchemaNotificationCount();
+
+    /**
+     * Determine whether plugins have finished loading.
+     *
+     * @return Whether or not the plugins are ready
+     */
+    public boolean isPluginsReady();
+
+    /**
+     * Get the file the program last opened.
+     *
+     * @return The file's path, or null if none has been opened
+     */
+    public String getParseFilePath();
+
+    /**
+     * Get the number of view updates posted to the SwingDispatcher.
+     *
+     * @return The posted count
+     */
+    public long getDispatcherPostedCount();
+
+    /**
+     * Get the number of view updates the SwingDispatcher dropped because the
+     * same update was already pending.
+     *
+     * @return The dropped count
+     */
+    public long getDispatcherDroppedCount();
+
+    /**
+     * Get the number of times the SwingDispatcher has run its pending
+     * updates.
+     *
+     * @return The flush count
+     */
+    public long getDispatcherFlushCount();
+}
@@ -5,17 +5,32 @@ import java.util.Observable;
 /**
  * Class representing a field in a table. Notifies observers
  * whenever modified.
+ *
+ * Its flags are packed into one byte and its data type is a one byte code.
+ * The parsers take names and default values from the shared NamePool, so
+ * fields with the same name share one string.
+ *
+ * Fields can be read from many threads while they are edited. A lock per
+ * field would outweigh the field, so each value is volatile, and the setters
+ * that change the packed flags together with the data type hold the field's
+ * monitor.
  */
 public class Field extends Observable {
 
     public static final int VARCHAR_DEFAULT_LENGTH = 1;
 
-    private DataType dataType;
-    private Table table;
-    private Field foreignField;
-    private boolean allowNull, isPrimaryKey, autoIncrement;
-    private String name, defaultValue;
-    private int charLength;
+    // private static/final attributes
+    private static final DataType[] DATA_TYPES = DataType.values();
+    private static final byte NO_DATA_TYPE = -1;
+    private static final byte ALLOW_NULL = 1, PRIMARY_KEY = 2, AUTO_INCREMENT = 4;
+
+    // declarations
+    private final String name;
+    private volatile Table table;
+    private volatile Field foreignField;
+    private volatile String defaultValue;
+    private volatile int charLength;
+    private volatile byte flags, dataType;
 
     /**
      * Construct a new Field with the given name and set default values.
@@ -23,12 +38,10 @@ public class Field extends Observable {
      */
     public Field(String name) {
         this.name = name;
-        this.dataType = DataType.VARCHAR;
+        this.dataType = (byte) DataType.VARCHAR.ordinal();
         this.defaultValue = "";
         this.charLength = 1;
-        allowNull = true;
-        isPrimaryKey = false;
-        autoIncrement = false;
+        this.flags = ALLOW_NULL;
     }
 
     /**
@@ -59,9 +72,11 @@ public class Field extends Observable {
      * @param dataType The data type this field holds
      */
     public void setDataType(DataType dataType) {
-        this.dataType = dataType;
-        if (dataType != DataType.INTEGER) {
-            this.autoIncrement = false;
+        synchronized (this) {
+            this.dataType = dataType == null ? NO_DATA_TYPE : (byte) dataType.ordinal();
+            if (dataType != DataType.INTEGER) {
+                setFlag(AUTO_INCREMENT, false);
+            }
         }
         setChanged();
         notifyObservers();
@@ -83,7 +98,7 @@ public class Field extends Observable {
      * @param allowNull Whether or not the field can be null
      */
     public void setAllowNull(boolean allowNull) {
-        this.allowNull = allowNull;
+        setFlag(ALLOW_NULL, allowNull);
         setChanged();
         notifyObservers();
     }
@@ -93,7 +108,7 @@ public class Field extends Observable {
      * @param isPrimaryKey Whether or not the field is a primary key
      */
     public void setIsPrimaryKey(boolean isPrimaryKey) {
-        this.isPrimaryKey = isPrimaryKey;
+        setFlag(PRIMARY_KEY, isPrimaryKey);
         setChanged();
         notifyObservers();
     }
@@ -104,9 +119,11 @@ public class Field extends Observable {
      * @param autoIncrement Whether or not the field should auto increment.
      */
     public void setAutoIncrement(boolean autoIncrement) {
-        this.autoIncrement = autoIncrement;
-        if (autoIncrement) {
-            this.dataType = DataType.INTEGER;
+        synchronized (this) {
+            setFlag(AUTO_INCREMENT, autoIncrement);
+            if (autoIncrement) {
+                this.dataType = (byte) DataType.INTEGER.ordinal();
+            }
         }
         setChanged();
         notifyObservers();
@@ -151,7 +168,8 @@ public class Field extends Observable {
      * @return This field's data type
      */
     public DataType getDataType() {
-        return this.dataType;
+        byte code = this.dataType;
+        return code == NO_DATA_TYPE ? null : DATA_TYPES[code];
     }
 
     /**
@@ -167,7 +185,7 @@ public class Field extends Observable {
      * @return Whether or not this field can be null
      */
     public boolean isAllowNull() {
-        return this.allowNull;
+        return (this.flags & ALLOW_NULL) != 0;
     }
 
     /**
@@ -175,7 +193,7 @@ public class Field extends Observable {
      * @return Whether or not this field is a primary key
      */
     public boolean isPrimaryKey() {
-        return this.isPrimaryKey;
+        return (this.flags & PRIMARY_KEY) != 0;
     }
 
     /**
@@ -183,7 +201,7 @@ public class Field extends Observable {
      * @return Whether or not this field auto increments
      */
     public boolean isAutoIncrement() {
-        return this.autoIncrement;
+        return (this.flags & AUTO_INCREMENT) != 0;
     }
 
     /**
@@ -193,7 +211,22 @@ public class Field extends Observable {
     public int getCharLength() {
         return this.charLength;
     }
-    
+
+    /**
+     * Set or clear one of the packed flags. Holds this field's monitor, so
+     * flags set at once on other threads are not lost.
+     *
+     * @param flag The flag's bit
+     * @param value Whether the flag is set
+     */
+    private synchronized void setFlag(byte flag, boolean value) {
+        if (value) {
+            this.flags |= flag;
+        } else {
+            this.flags &= ~flag;
+        }
+    }
+
     /**
      * Get a string representation of this field (its name).
      * @return The name of this field
@@ -0,0 +1,134 @@
+package edgeconvert;
+
+/**
+ * An immutable copy of a field, as it was when its table was last copied
+ * into a SchemaSnapshot. A foreign key is held as the positions of the
+ * referenced table in the schema and of the referenced field in its table,
+ * so it stays valid while the referenced table is copied again after a
+ * change. Tables referring to a table whose fields are reordered are copied
+ * again too. Use SchemaSnapshot.getForeignField to follow it.
+ */
+public final class FieldSnapshot {
+
+    // declarations
+    private final String name, defaultValue;
+    private final DataType dataType;
+    private final int charLength;
+    private final boolean allowNull, primaryKey, autoIncrement;
+    private final int foreignTable; // position in the schema, or -1 if there is no foreign key
+    private final int foreignField; // position in the foreign table
+
+    /**
+     * Copy a field.
+     *
+     * @param field The field to copy
+     * @param schema The schema the field's table belongs to
+     */
+    FieldSnapshot(Field field, Schema schema) {
+        this.name = field.getName();
+        this.defaultValue = field.getDefaultValue();
+        this.dataType = field.getDataType();
+        this.charLength = field.getCharLength();
+        this.allowNull = field.isAllowNull();
+        this.primaryKey = field.isPrimaryKey();
+        this.autoIncrement = field.isAutoIncrement();
+        Field foreign = field.getForeignField();
+        Table table = foreign == null ? null : foreign.getTable();
+        int position = table == null ? -1 : table.getFieldIndex(foreign);
+        this.foreignTable = position < 0 ? -1 : schema.getTableIndex(table);
+        this.foreignField = this.foreignTable < 0 ? -1 : position;
+    }
+
+    /**
+     * Get the name of this field.
+     *
+     * @return This field's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the data type of this field.
+     *
+     * @return This field's data type
+     */
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Get the default value of this field.
+     *
+     * @return This field's default value
+     */
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Get the maximum number of characters this field can hold.
+     *
+     * @return This field's max amount of characters
+     */
+    public int getCharLength() {
+        return charLength;
+    }
+
+    /**
+     * Determine whether or not this field is allowed to be null.
+     *
+     * @return Whether or not this field can be null
+     */
+    public boolean isAllowNull() {
+        return allowNull;
+    }
+
+    /**
+     * Determine whether or not this field is a primary key.
+     *
+     * @return Whether or not this field is a primary key
+     */
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * Determine whether or not this field increments automatically.
+     *
+     * @return Whether or not this field auto increments
+     */
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    /**
+     * Get the position in the schema of the table this field's foreign key
+     * references.
+     *
+     * @return The table's position, or -1 if this field has no foreign key
+     */
+    int getForeignTable() {
+        return foreignTable;
+    }
+
+    /**
+     * Get the position in its table of the field this field's foreign key
+     * references.
+     *
+     * @return The field's position, or -1 if this field has no foreign key
+     */
+    int getForeignField() {
+        return foreignField;
+    }
+
+    /**
+     * Get a string representation of this field (its name).
+     *
+     * @return The name of this field
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,212 @@
+package edgeconvert;
+
+import edgeconvert.diagnostics.MBeans;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of table names, field names and default values, so the
+ * parsers keep one copy of a name like "id" however many tables repeat it.
+ * Parsers share the pool, including parsers running at once in a batch
+ * conversion. Singleton.
+ *
+ * The pool is a fixed number of slots, two for each hash, and never grows.
+ * A new name takes the first of its two slots, moving the name there to the
+ * second and pushing out the name in the second, so the names still in use
+ * stay. Threads read and write the slots without locking; a race can at
+ * worst lose a name from the pool, never return a different one.
+ */
+public class NamePool implements NamePoolMXBean {
+
+    // public static/final attributes
+    public static final String CAPACITY_PROPERTY = "edgeconvert.namePool.capacity";
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int MAX_NAME_LENGTH = 128;
+
+    // private static/final attributes
+    private static final int GOLDEN_RATIO = 0x9E3779B9; // spreads names with nearby hashes apart
+    private static final NamePool INSTANCE = createShared();
+
+    // declarations
+    private final AtomicReferenceArray<String> slots;
+    private final int shift; // keeps the top bits of a scrambled hash as a slot number
+    private final LongAdder hits, misses, evictions;
+
+    /**
+     * Construct an empty pool.
+     *
+     * @param capacity The number of names the pool can hold, rounded up to a
+     * power of two
+     * @throws IllegalArgumentException If the capacity is less than two
+     */
+    public NamePool(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be from 2 to 2^30");
+        }
+        int slotCount = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.shift = 32 - Integer.numberOfTrailingZeros(slotCount);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Create the shared pool, sized by the edgeconvert.namePool.capacity
+     * system property, and register it for JMX.
+     *
+     * @return The shared pool
+     */
+    private static NamePool createShared() {
+        NamePool pool;
+        try {
+            pool = new NamePool(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+        } catch (IllegalArgumentException iae) {
+            pool = new NamePool(DEFAULT_CAPACITY);
+        }
+        MBeans.register("edgeconvert:type=NamePool", pool);
+        return pool;
+    }
+
+    /**
+     * Get the pool shared by all parsers.
+     *
+     * @return The shared pool
+     */
+    public static NamePool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the pooled copy of a name, adding the name if the pool holds no
+     * equal one. Names longer than MAX_NAME_LENGTH are returned as they are,
+     * so long default values do not fill the pool.
+     *
+     * @param name The name, or null
+     * @return An equal name from the pool, or the name itself
+     */
+    public String intern(String name) {
+        if (name == null || name.length() > MAX_NAME_LENGTH) {
+            return name;
+        }
+        int slot = ((name.hashCode() * GOLDEN_RATIO) >>> shift) & ~1;
+        String first = slots.get(slot);
+        if (name.equals(first)) {
+            hits.increment();
+            return first;
+        }
+        String second = slots.get(slot + 1);
+        if (name.equals(second)) {
+            hits.increment();
+            return second;
+        }
+        misses.increment();
+        if (first != null) {
+            if (second != null) {
+                evictions.increment();
+            }
+            slots.lazySet(slot + 1, first);
+        }
+        slots.lazySet(slot, name);
+        return name;
+    }
+
+    /**
+     * Get the number of names the pool can hold.
+     *
+     * @return The capacity
+     */
+    @Override
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Get the number of names the pool holds now.
+     *
+     * @return The names held
+     */
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of names looked up since the pool was created or reset.
+     *
+     * @return The lookup count
+     */
+    @Override
+    public long getLookups() {
+        return hits.sum() + misses.sum();
+    }
+
+    /**
+     * Get the number of lookups that found an equal name in the pool.
+     *
+     * @return The hit count
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that added their name to the pool.
+     *
+     * @return The miss count
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of names pushed out of the pool to make room.
+     *
+     * @return The eviction count
+     */
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the share of lookups that found an equal name in the pool.
+     *
+     * @return The hit rate, from 0 to 1
+     */
+    @Override
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Reset the counts. The names held are kept.
+     */
+    @Override
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Get a summary of the pool's statistics.
+     *
+     * @return The summary
+     */
+    @Override
+    public String toString() {
+        return String.format("Name pool: %,d lookups, %.1f%% hits, %,d evictions, capacity %,d",
+                getLookups(), getHitRate() * 100, getEvictions(), getCapacity());
+    }
+}
@@ -0,0 +1,63 @@
+package edgeconvert;
+
+/**
+ * Management interface for the shared NamePool, registered as
+ * edgeconvert:type=NamePool.
+ */
+public interface NamePoolMXBean {
+
+    /**
+     * Get the number of names the pool can hold.
+     *
+     * @return The capacity
+     */
+    public int getCapacity();
+
+    /**
+     * Get the number of names the pool holds now. The slots are counted, so
+     * this is not meant to be read often.
+     *
+     * @return The names held
+     */
+    public int getSize();
+
+    /**
+     * Get the number of names looked up since the pool was created or reset.
+     *
+     * @return The lookup count
+     */
+    public long getLookups();
+
+    /**
+     * Get the number of lookups that found an equal name in the pool.
+     *
+     * @return The hit count
+     */
+    public long getHits();
+
+    /**
+     * Get the number of lookups that added their name to the pool.
+     *
+     * @return The miss count
+     */
+    public long getMisses();
+
+    /**
+     * Get the number of names pushed out of the pool to make room.
+     *
+     * @return The eviction count
+     */
+    public long getEvictions();
+
+    /**
+     * Get the share of lookups that found an equal name in the pool.
+     *
+     * @return The hit rate, from 0 to 1
+     */
+    public double getHitRate();
+
+    /**
+     * Reset the counts. The names held are kept.
+     */
+    public void resetStatistics();
+}
@@ -1,5 +1,6 @@
 package edgeconvert;
 
+import edgeconvert.diagnostics.LoadPluginsEvent;
 import edgeconvert.input.FileParser;
 import edgeconvert.output.DDLBuilder;
 import java.io.File;
@@ -14,11 +15,15 @@ import net.xeoh.plugins.base.util.uri.ClassURI;
 /**
  * Class responsible for loading in plugins for reading and writing files.
  */
-public class PluginManager {
+public class PluginManager implements PluginManagerMXBean {
 
-    private File pluginPath;
-    private List<DDLBuilder> builders;
-    private List<FileParser> parsers;
+    private volatile File pluginPath;
+    // replaced as a whole when plugins are loaded, so they can be read
+    // while loading runs on another thread
+    private volatile List<DDLBuilder> builders;
+    private volatile List<FileParser> parsers;
+    // only changed by loadPlugins, which is not run on two threads at once
+    private volatile long loadCount, lastLoadNanos, totalLoadNanos;
 
     /**
      * Construct a new PluginManager with a default plugin path.
@@ -52,6 +57,9 @@ public class PluginManager {
      * Load plugins from the classpath and the plugin path and store them.
      */
     public void loadPlugins() {
+        long start = System.nanoTime();
+        LoadPluginsEvent event = new LoadPluginsEvent();
+        event.begin();
         net.xeoh.plugins.base.PluginManager pm = PluginManagerFactory.createPluginManager();
         // Load plugins from the classpath and the plugin path
         pm.addPluginsFrom(ClassURI.CLASSPATH);
@@ -63,6 +71,10 @@ public class PluginManager {
         // Get all FileParser plugins
         Collection<FileParser> parserPlugins = pmUtil.getPlugins(FileParser.class);
         this.parsers = new ArrayList<>(parserPlugins);
+        event.finish(pluginPath, parsers.size(), builders.size());
+        lastLoadNanos = System.nanoTime() - start;
+        totalLoadNanos += lastLoadNanos;
+        loadCount++;
     }
 
     /**
@@ -80,4 +92,122 @@ public class PluginManager {
     public List<FileParser> getParsers() {
         return Collections.unmodifiableList(parsers);
     }
+
+    /**
+     * Get the FileParser that handles files with the same extension as the
+     * given file. If no parser handles the extension, return null.
+     * @param file The file to be parsed
+     * @return The parser for the file or null
+     */
+    public FileParser getParserForFile(File file) {
+        String name = file.getName();
+        String extension = name.substring(name.lastIndexOf(".") + 1);
+        for (FileParser parser : parsers) {
+            if (parser.getFileExtension().equalsIgnoreCase(extension)) {
+                return parser;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the DDLBuilder with the given product name. If no builder has the
+     * given product name, return null.
+     * @param productName The product name of the builder to get
+     * @return The builder with the given product name or null
+     */
+    public DDLBuilder getBuilder(String productName) {
+        for (DDLBuilder builder : builders) {
+            if (builder.getProductName().equals(productName)) {
+                return builder;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a new FileParser of the same kind as the given one. Parsers keep
+     * the state of the file being parsed, so callers parsing on several
+     * threads at once need an instance each.
+     * @param parser The parser to copy
+     * @return A new parser of the same class
+     * @throws ReflectiveOperationException If the parser cannot be instantiated
+     */
+    public FileParser newParser(FileParser parser) throws ReflectiveOperationException {
+        return parser.getClass().getConstructor().newInstance();
+    }
+
+    /**
+     * Create a new DDLBuilder of the same kind as the given one. Builders keep
+     * the tables being built, so callers building on several threads at once
+     * need an instance each.
+     * @param builder The builder to copy
+     * @return A new builder of the same class
+     * @throws ReflectiveOperationException If the builder cannot be instantiated
+     */
+    public DDLBuilder newBuilder(DDLBuilder builder) throws ReflectiveOperationException {
+        return builder.getClass().getConstructor().newInstance();
+    }
+
+    /**
+     * Get the directory plugins are loaded from.
+     * @return The plugin directory
+     */
+    @Override
+    public String getPluginDirectory() {
+        return String.valueOf(pluginPath);
+    }
+
+    /**
+     * Get the loaded FileParser plugins.
+     * @return Each parser's class and file extension
+     */
+    @Override
+    public List<String> getParserNames() {
+        List<String> names = new ArrayList<>();
+        for (FileParser parser : parsers) {
+            names.add(parser.getClass().getName() + " (." + parser.getFileExtension() + ")");
+        }
+        return names;
+    }
+
+    /**
+     * Get the loaded DDLBuilder plugins.
+     * @return Each builder's product name and class
+     */
+    @Override
+    public List<String> getBuilderNames() {
+        List<String> names = new ArrayList<>();
+        for (DDLBuilder builder : builders) {
+            names.add(builder.getProductName() + " (" + builder.getClass().getName() + ")");
+        }
+        return names;
+    }
+
+    /**
+     * Get the number of times plugins have been loaded.
+     * @return The load count
+     */
+    @Override
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Get how long the last load of plugins took.
+     * @return The time in milliseconds
+     */
+    @Override
+    public double getLastLoadTimeMillis() {
+        return lastLoadNanos / 1e6;
+    }
+
+    /**
+     * Get the total time spent loading plugins.
+     * @return The time in milliseconds
+     */
+    @Override
+    public double getTotalLoadTimeMillis() {
+        return totalLoadNanos / 1e6;
+    }
 }
@@ -0,0 +1,53 @@
+package edgeconvert;
+
+import java.util.List;
+
+/**
+ * Management interface for a PluginManager, registered as
+ * edgeconvert:type=PluginManager.
+ */
+public interface PluginManagerMXBean {
+
+    /**
+     * Get the directory plugins are loaded from.
+     *
+     * @return The plugin directory
+     */
+    public String getPluginDirectory();
+
+    /**
+     * Get the loaded FileParser plugins.
+     *
+     * @return Each parser's class and the file extension it reads
+     */
+    public List<String> getParserNames();
+
+    /**
+     * Get the loaded DDLBuilder plugins.
+     *
+     * @return Each builder's product name and class
+     */
+    public List<String> getBuilderNames();
+
+    /**
+     * Get the number of times plugins have been loaded.
+     *
+     * @return The load count
+     */
+    public long getLoadCount();
+
+    /**
+     * Get how long the last load of plugins took. The plugin framework loads
+     * every plugin in one call, so times are per load rather than per plugin.
+     *
+     * @return The time in milliseconds
+     */
+    public double getLastLoadTimeMillis();
+
+    /**
+     * Get the total time spent loading plugins.
+     *
+     * @return The time in milliseconds
+     */
+    public double getTotalLoadTimeMillis();
+}
@@ -0,0 +1,223 @@
+package edgeconvert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The references into each table and field of a schema, kept up to date as
+ * relations are set and removed, so finding what refers to a table or field
+ * takes time in proportion to the number of references rather than the size
+ * of the schema. A field refers to another through its table's related
+ * fields (Table.setRelatedField) or through its foreign key
+ * (Field.setForeignField); the two are indexed separately, since either can
+ * be set without the other.
+ *
+ * The index is told a source field's new target and looks up the one it
+ * replaces itself, so it ends up right whatever order changes from several
+ * threads arrive in, as long as each change is reported after it was made.
+ * References are kept by field only. The table a field belongs to is looked
+ * up when a query runs, so moving a field to another table needs no update.
+ */
+class ReferenceIndex {
+
+    /**
+     * One field's reference to another.
+     */
+    private static final class Reference {
+
+        // declarations
+        private final Table relatingTable; // the table holding a related field, or null for a foreign key
+        private final Field source;
+        private final Field target;
+
+        /**
+         * Construct a reference.
+         *
+         * @param relatingTable The table holding the related field, or null
+         * for a foreign key
+         * @param source The referring field
+         * @param target The referenced field
+         */
+        Reference(Table relatingTable, Field source, Field target) {
+            this.relatingTable = relatingTable;
+            this.source = source;
+            this.target = target;
+        }
+
+        /**
+         * Get the table the reference is made from: the table holding a
+         * related field, or the referring field's table now.
+         *
+         * @return The table, or null if the field belongs to none
+         */
+        Table getSourceTable() {
+            return relatingTable != null ? relatingTable : source.getTable();
+        }
+    }
+
+    // declarations
+    private final Map<Field, Reference> relatedFields; // by referring field
+    private final Map<Field, Reference> foreignFields; // by referring field
+    private final Map<Field, List<Reference>> byField; // by referenced field
+
+    /**
+     * Construct an empty index.
+     */
+    ReferenceIndex() {
+        relatedFields = new HashMap<>();
+        foreignFields = new HashMap<>();
+        byField = new HashMap<>();
+    }
+
+    /**
+     * Index the references of a table added to the schema.
+     *
+     * @param table The table
+     */
+    synchronized void addTable(Table table) {
+        for (Field field : table.getFields()) {
+            setForeignField(field, field.getForeignField());
+        }
+        for (Map.Entry<Field, Field> related : table.getRelatedFields().entrySet()) {
+            setRelatedField(table, related.getKey(), related.getValue());
+        }
+    }
+
+    /**
+     * Record the related field a table now holds for one of its fields.
+     *
+     * @param table The table
+     * @param source The table's field
+     * @param target The field it is related to, or null if it was removed
+     */
+    synchronized void setRelatedField(Table table, Field source, Field target) {
+        set(relatedFields, table, source, target);
+    }
+
+    /**
+     * Record a field's foreign key.
+     *
+     * @param source The field
+     * @param target The field its foreign key references, or null
+     */
+    synchronized void setForeignField(Field source, Field target) {
+        set(foreignFields, null, source, target);
+    }
+
+    /**
+     * Replace a field's reference of one kind.
+     *
+     * @param references The references of that kind, by referring field
+     * @param relatingTable The table holding a related field, or null for a
+     * foreign key
+     * @param source The referring field
+     * @param target The referenced field, or null
+     */
+    private void set(Map<Field, Reference> references, Table relatingTable, Field source, Field target) {
+        Reference old = references.get(source);
+        if (old != null) {
+            if (old.target == target && old.relatingTable == relatingTable) {
+                return;
+            }
+            references.remove(source);
+            remove(byField, old.target, old);
+        }
+        if (target != null) {
+            Reference reference = new Reference(relatingTable, source, target);
+            references.put(source, reference);
+            add(byField, target, reference);
+        }
+    }
+
+    /**
+     * Add a reference to the list under a key.
+     *
+     * @param index The index
+     * @param key The key, or null to leave the reference out
+     * @param reference The reference
+     */
+    private static <K> void add(Map<K, List<Reference>> index, K key, Reference reference) {
+        if (key != null) {
+            List<Reference> list = index.get(key);
+            if (list == null) {
+                list = new ArrayList<>(2);
+                index.put(key, list);
+            }
+            list.add(reference);
+        }
+    }
+
+    /**
+     * Remove a reference from the list under a key.
+     *
+     * @param index The index
+     * @param key The key, or null if the reference was left out
+     * @param reference The reference
+     */
+    private static <K> void remove(Map<K, List<Reference>> index, K key, Reference reference) {
+        List<Reference> list = key == null ? null : index.get(key);
+        if (list != null) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) == reference) {
+                    list.remove(i);
+                    break;
+                }
+            }
+            if (list.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Get the fields that refer to a field.
+     *
+     * @param target The field
+     * @return The referring fields, each once
+     */
+    synchronized List<Field> getReferencingFields(Field target) {
+        List<Reference> references = byField.get(target);
+        if (references == null) {
+            return Collections.emptyList();
+        }
+        Set<Field> sources = new LinkedHashSet<>();
+        for (Reference reference : references) {
+            sources.add(reference.source);
+        }
+        return new ArrayList<>(sources);
+    }
+
+    /**
+     * Get the other tables with a field that refers to a field of a table.
+     * The table's fields are the ones it holds now, and each referring
+     * table is the one its field belongs to now. Takes time in proportion
+     * to the table's fields and the references into them.
+     *
+     * @param target The table
+     * @return The referring tables, each once
+     */
+    synchronized List<Table> getReferencingTables(Table target) {
+        Set<Table> sources = null;
+        for (Field field : target.getFields()) {
+            List<Reference> references = byField.get(field);
+            if (references == null) {
+                continue;
+            }
+            for (Reference reference : references) {
+                Table sourceTable = reference.getSourceTable();
+                if (sourceTable != null && sourceTable != target) {
+                    if (sources == null) {
+                        sources = new LinkedHashSet<>();
+                    }
+                    sources.add(sourceTable);
+                }
+            }
+        }
+        return sources == null ? Collections.<Table>emptyList() : new ArrayList<>(sources);
+    }
+}
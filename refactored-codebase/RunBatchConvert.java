@@ -0,0 +1,61 @@
+package edgeconvert;
+
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.pipeline.ConversionJob;
+import edgeconvert.pipeline.ConversionPipeline;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts files to DDL from the command line, without the GUI.
+ *
+ * Usage: RunBatchConvert [-d databaseName] product outputDir file...
+ */
+public class RunBatchConvert {
+
+    public static void main(String[] args) throws InterruptedException {
+        String databaseName = null;
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-d") && i + 1 < args.length) {
+                databaseName = args[++i];
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.size() < 3) {
+            System.err.println("Usage: RunBatchConvert [-d databaseName] product outputDir file...");
+            System.exit(2);
+        }
+
+        PluginManager pluginManager = new PluginManager();
+        pluginManager.loadPlugins();
+        DDLBuilder builder = pluginManager.getBuilder(arguments.get(0));
+        if (builder == null) {
+            System.err.println("Unknown product \"" + arguments.get(0) + "\".");
+            System.exit(2);
+        }
+        File outputDir = new File(arguments.get(1));
+
+        ConversionPipeline pipeline = new ConversionPipeline(pluginManager, builder, databaseName,
+                ConversionPipeline.DEFAULT_QUEUE_CAPACITY);
+        pipeline.start();
+        for (String fileName : arguments.subList(2, arguments.size())) {
+            File inputFile = new File(fileName);
+            pipeline.submit(inputFile, ConversionPipeline.getOutputFile(inputFile, outputDir, builder));
+        }
+
+        // Report the outcome of each conversion
+        int failures = 0;
+        for (ConversionJob job : pipeline.finish()) {
+            if (job.isWritten()) {
+                System.out.println(job + " -> " + job.getOutputFile());
+            } else {
+                System.err.println(job + ": " + job.getErrorMessage());
+                failures++;
+            }
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,29 @@
+package edgeconvert;
+
+import edgeconvert.diagnostics.MBeans;
+import edgeconvert.service.ConversionService;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * Runs EdgeConvert as a local conversion service.
+ *
+ * Usage: RunConversionService [port [maxConcurrent]]
+ */
+public class RunConversionService {
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 0;
+        int maxConcurrent = (args.length > 1) ? Integer.parseInt(args[1]) : ConversionService.DEFAULT_MAX_CONCURRENT;
+
+        PluginManager pluginManager = new PluginManager();
+        pluginManager.loadPlugins();
+        MBeans.register("edgeconvert:type=PluginManager", pluginManager);
+        ConversionService service = new ConversionService(pluginManager,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                maxConcurrent, ConversionService.DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+        service.start();
+        System.out.println("EdgeConvert service listening on http://localhost:" + service.getPort() + "/convert");
+    }
+}
@@ -0,0 +1,58 @@
+package edgeconvert;
+
+import edgeconvert.input.FileParser;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses files and reports the groups of tables that depend on each other
+ * through foreign keys, the dependency levels and the longest chains, for
+ * planning loads, truncations and migrations.
+ *
+ * Usage: RunDependencyReport [-top count] file...
+ */
+public class RunDependencyReport {
+
+    // public static/final attributes
+    public static final int DEFAULT_LIMIT = 10;
+
+    public static void main(String[] args) {
+        int limit = DEFAULT_LIMIT;
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-top") && i + 1 < args.length) {
+                limit = Integer.parseInt(args[++i]);
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.isEmpty()) {
+            System.err.println("Usage: RunDependencyReport [-top count] file...");
+            System.exit(2);
+        }
+
+        PluginManager pluginManager = new PluginManager();
+        pluginManager.loadPlugins();
+        int failures = 0;
+        for (String fileName : arguments) {
+            File file = new File(fileName);
+            FileParser parser = pluginManager.getParserForFile(file);
+            if (parser == null) {
+                System.err.println(file + ": no parser is available for this file.");
+                failures++;
+                continue;
+            }
+            parser.setFile(file);
+            if (!parser.parseFile()) {
+                System.err.println(file + ": " + parser.getErrorMessage());
+                failures++;
+                continue;
+            }
+            System.out.println(file);
+            // the columnar form keeps catalogs with millions of references compact
+            System.out.println(DependencyAnalysis.of(parser.getColumnarSchema()).toReport(limit));
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
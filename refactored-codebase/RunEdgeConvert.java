@@ -1,15 +1,72 @@
 package edgeconvert;
 
-import edgeconvert.view.DefineRelationsView;
 import edgeconvert.view.DefineTablesView;
+import edgeconvert.view.help.HelpViewer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
 
 public class RunEdgeConvert {
+   
+   private static final Logger LOGGER = Logger.getLogger(RunEdgeConvert.class.getName());
+   
+   // Swing classes that are slow to load the first time a dialog is opened
+   private static final String[] WARM_CLASSES = {
+       "javax.swing.JFileChooser", "javax.swing.JOptionPane", "javax.swing.ProgressMonitor"
+   };
+   
    public static void main(String[] args) {
+       final long start = System.nanoTime();
        
-       // Create the mediator and instantiate the views
-       EdgeConvertMediator mediator = EdgeConvertMediator.getInstance();
-       mediator.setDefineTablesView(new DefineTablesView());
-       mediator.setDefineRelationsView(new DefineRelationsView());
-       mediator.showDefineTablesView(); // show initial view
+       // Creating the mediator starts loading plugins in the background
+       final EdgeConvertMediator mediator = EdgeConvertMediator.getInstance();
+       logPhase("Mediator created", start);
+       
+       // Load the classes used by dialogs while the window is being built
+       Thread warmup = new Thread(new Runnable() {
+           @Override
+           public void run() {
+               long warmStart = System.nanoTime();
+               for (String className : WARM_CLASSES) {
+                   try {
+                       Class.forName(className);
+                   } catch (ClassNotFoundException cnfe) {
+                       LOGGER.log(Level.FINE, "Unable to preload " + className, cnfe);
+                   }
+               }
+               logPhase("Dialog classes loaded", warmStart);
+           }
+       }, "edgeconvert-warmup");
+       warmup.setDaemon(true);
+       warmup.setPriority(Thread.MIN_PRIORITY);
+       warmup.start();
+       
+       // Build and show the window on the event dispatch thread; Open and
+       // Create DDL are enabled once the plugins are ready.
+       // The Define Relations view is created when it is first shown
+       SwingUtilities.invokeLater(new Runnable() {
+           @Override
+           public void run() {
+               long viewStart = System.nanoTime();
+               mediator.setDefineTablesView(new DefineTablesView());
+               mediator.showDefineTablesView(); // show initial view
+               logPhase("Main window shown", viewStart);
+               logPhase("Startup", start);
+               
+               // Optionally start JavaFX in the background so help opens quickly
+               if (Boolean.getBoolean(HelpViewer.PREWARM_PROPERTY)) {
+                   HelpViewer.prewarm();
+               }
+           }
+       });
+   }
+   
+   /**
+    * Log how long a phase of startup took.
+    * @param phase The name of the phase
+    * @param startNanos When the phase started, from System.nanoTime()
+    */
+   private static void logPhase(String phase, long startNanos) {
+       LOGGER.log(Level.INFO, "{0} in {1} ms", new Object[]{phase, (System.nanoTime() - startNanos) / 1000000L});
    }
-}
\ No newline at end of file
+}
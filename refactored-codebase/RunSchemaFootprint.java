@@ -0,0 +1,57 @@
+package edgeconvert;
+
+import edgeconvert.diagnostics.SchemaFootprint;
+import edgeconvert.input.FileParser;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses files and reports the estimated heap their schemas take, for sizing
+ * heaps before opening large catalogs.
+ *
+ * Usage: RunSchemaFootprint [-top tables] file...
+ */
+public class RunSchemaFootprint {
+
+    // public static/final attributes
+    public static final int DEFAULT_LARGEST_TABLES = 10;
+
+    public static void main(String[] args) {
+        int largestTables = DEFAULT_LARGEST_TABLES;
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-top") && i + 1 < args.length) {
+                largestTables = Integer.parseInt(args[++i]);
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.isEmpty()) {
+            System.err.println("Usage: RunSchemaFootprint [-top tables] file...");
+            System.exit(2);
+        }
+
+        PluginManager pluginManager = new PluginManager();
+        pluginManager.loadPlugins();
+        int failures = 0;
+        for (String fileName : arguments) {
+            File file = new File(fileName);
+            FileParser parser = pluginManager.getParserForFile(file);
+            if (parser == null) {
+                System.err.println(file + ": no parser is available for this file.");
+                failures++;
+                continue;
+            }
+            parser.setFile(file);
+            if (!parser.parseFile()) {
+                System.err.println(file + ": " + parser.getErrorMessage());
+                failures++;
+                continue;
+            }
+            System.out.println(file + " (" + file.length() + " bytes on disk)");
+            System.out.println(SchemaFootprint.measure(parser.getSchema()).toReport(largestTables));
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
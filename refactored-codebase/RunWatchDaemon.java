@@ -0,0 +1,52 @@
+package edgeconvert;
+
+import edgeconvert.diagnostics.MBeans;
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.service.WatchFolderDaemon;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches folders and converts diagrams to DDL whenever they change.
+ *
+ * Usage: RunWatchDaemon [-d databaseName] product directory...
+ */
+public class RunWatchDaemon {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String databaseName = null;
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-d") && i + 1 < args.length) {
+                databaseName = args[++i];
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.size() < 2) {
+            System.err.println("Usage: RunWatchDaemon [-d databaseName] product directory...");
+            System.exit(2);
+        }
+
+        PluginManager pluginManager = new PluginManager();
+        pluginManager.loadPlugins();
+        MBeans.register("edgeconvert:type=PluginManager", pluginManager);
+        DDLBuilder builder = pluginManager.getBuilder(arguments.get(0));
+        if (builder == null) {
+            System.err.println("Unknown product \"" + arguments.get(0) + "\".");
+            System.exit(2);
+        }
+        List<File> directories = new ArrayList<>();
+        for (String directory : arguments.subList(1, arguments.size())) {
+            directories.add(new File(directory));
+        }
+
+        WatchFolderDaemon daemon = new WatchFolderDaemon(pluginManager, builder, databaseName,
+                directories, WatchFolderDaemon.DEFAULT_DEBOUNCE_MILLIS);
+        daemon.start();
+        System.out.println("Watching " + directories + " for changes");
+        Thread.currentThread().join(); // run until killed
+    }
+}
@@ -2,24 +2,49 @@ package edgeconvert;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Class representing a generic database schema.
  * Notifies observers when changes occur in any of the included
  * tables, letting them know that the schema has changed.
+ *
+ * One loaded schema can be shared by many reading threads, such as the
+ * validation and export services, while it is edited. As with Table,
+ * lookups read optimistically without locking and only take the read lock
+ * if a table was added while they ran.
+ *
+ * The schema also keeps an index of the references into each table and
+ * field, updated as relations are set and removed, so finding what refers to
+ * a table or field does not search every table.
  */
 public class Schema extends Observable implements Observer {
 
+    private final StampedLock lock;
     private List<Table> tables;
+    private Map<Table, Integer> positions; // each table's index in tables
+    private SchemaSnapshot snapshot; // the last snapshot taken
+    private LinkedHashSet<Table> changedTables; // tables changed or added since then
+    private LinkedHashSet<Table> unresolvedTables; // tables referring to tables not yet added
+    private final ReferenceIndex references;
     
     /**
      * Construct a new schema with no tables.
      */
     public Schema() {
+        this.lock = new StampedLock();
         this.tables = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.snapshot = SchemaSnapshot.EMPTY;
+        this.changedTables = new LinkedHashSet<>();
+        this.unresolvedTables = new LinkedHashSet<>();
+        this.references = new ReferenceIndex();
     }
     
     /**
@@ -27,7 +52,13 @@ public class Schema extends Observable implements Observer {
      * @param tables The schema's new tables
      */
     public Schema(List<Table> tables) {
+        this.lock = new StampedLock();
         this.tables = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.snapshot = SchemaSnapshot.EMPTY;
+        this.changedTables = new LinkedHashSet<>();
+        this.unresolvedTables = new LinkedHashSet<>();
+        this.references = new ReferenceIndex();
         for(Table table : tables) {
             addTable(table);
         }
@@ -38,7 +69,23 @@ public class Schema extends Observable implements Observer {
      * @return The schema's tables
      */
     public List<Table> getTables() {
-        return new ArrayList<>(tables);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                List<Table> copy = new ArrayList<>(tables);
+                if (lock.validate(stamp)) {
+                    return copy;
+                }
+            } catch (RuntimeException e) {
+                // a table was added during the copy, so copy again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return new ArrayList<>(tables);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
     
     /**
@@ -46,9 +93,52 @@ public class Schema extends Observable implements Observer {
      * @param table The table to be added to the schema
      */
     public void addTable(Table table) {
-        if(table != null && !tables.contains(table)) {
+        if(table == null) {
+            return;
+        }
+        int position;
+        long stamp = lock.writeLock();
+        try {
+            if(positions.containsKey(table)) {
+                return;
+            }
+            position = tables.size();
+            positions.put(table, position);
             tables.add(table);
-            table.addObserver(this);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        tableChanged(table);
+        table.addObserver(this);
+        references.addTable(table);
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.TABLE_ADDED, table, null, position, -1));
+    }
+    
+    /**
+     * Get the position of the given table in the schema without searching
+     * the list of tables.
+     * @param table The table to find
+     * @return The table's index in getTables(), or -1 if it is not in the schema
+     */
+    public int getTableIndex(Table table) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Integer position = positions.get(table);
+                if (lock.validate(stamp)) {
+                    return (position != null) ? position : -1;
+                }
+            } catch (RuntimeException e) {
+                // a table was added during the lookup, so look again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            Integer position = positions.get(table);
+            return (position != null) ? position : -1;
+        } finally {
+            lock.unlockRead(stamp);
         }
     }
     
@@ -59,7 +149,34 @@ public class Schema extends Observable implements Observer {
      * @return The table with the given name or null
      */
     public Table getTableByName(String name) {
-        for(Table table : tables) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Table found = findTable(name);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // a table was added during the search, so search again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return findTable(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Search the schema's tables for one with the given name, without
+     * locking.
+     * @param name The name of the table to get
+     * @return The table with the given name or null
+     */
+    private Table findTable(String name) {
+        for(int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
             if(table.getName().equals(name)) {
                 return table;
             }
@@ -68,14 +185,111 @@ public class Schema extends Observable implements Observer {
     }
     
     /**
-     * Called whenever one of the tables in the schema is modified.
+     * Get the fields that refer to a field, through their table's related
+     * fields or their foreign key. Takes time in proportion to the number of
+     * references, not the size of the schema.
+     * @param field The field
+     * @return The fields in this schema referring to it, each once
+     */
+    public List<Field> getReferencingFields(Field field) {
+        return references.getReferencingFields(field);
+    }
+    
+    /**
+     * Get the other tables with a field that refers to a field of a table.
+     * Takes time in proportion to the table's fields and the references into
+     * them, not the size of the schema.
+     * @param table The table
+     * @return The tables in this schema referring to it, each once
+     */
+    public List<Table> getReferencingTables(Table table) {
+        return references.getReferencingTables(table);
+    }
+    
+    /**
+     * Determine whether any other table refers to a table, so it cannot be
+     * dropped without breaking their relations.
+     * @param table The table
+     * @return Whether or not another table refers to it
+     */
+    public boolean isReferenced(Table table) {
+        return !references.getReferencingTables(table).isEmpty();
+    }
+    
+    /**
+     * Determine whether any field refers to a field, so it cannot be dropped
+     * without breaking their relations.
+     * @param field The field
+     * @return Whether or not another field refers to it
+     */
+    public boolean isReferenced(Field field) {
+        return !references.getReferencingFields(field).isEmpty();
+    }
+    
+    /**
+     * Take an immutable snapshot of this schema, for reading on another
+     * thread while this schema continues to be edited. Only the tables
+     * changed or added since the last snapshot are copied, and the rest are
+     * shared with it, so a snapshot can be taken after every edit. Each
+     * table is copied under its read lock, so it is copied as it was between
+     * two edits.
+     * @return A snapshot of this schema
+     */
+    public synchronized SchemaSnapshot snapshot() {
+        if (!changedTables.isEmpty()) {
+            long stamp = lock.readLock(); // no table can be added while the tree is updated
+            try {
+                if (tables.size() > snapshot.getTableCount()) {
+                    changedTables.addAll(unresolvedTables); // they may refer to the added tables
+                }
+                snapshot = snapshot.update(this, tables, changedTables, unresolvedTables);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            changedTables.clear();
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Record that a table has changed since the last snapshot.
+     * @param table The table that changed
+     */
+    private synchronized void tableChanged(Table table) {
+        changedTables.add(table);
+    }
+    
+    /**
+     * Called whenever one of the tables in the schema is modified. Brings
+     * the reference index up to date, then passes the table's event on to
+     * the schema's observers.
      * @param o
-     * @param arg 
+     * @param arg The SchemaEvent describing the change
      */
     @Override
     public void update(Observable o, Object arg) {
+        Table table = (Table) o;
+        tableChanged(table);
+        SchemaEvent event = (SchemaEvent) arg;
+        switch (event.getType()) {
+            case FIELD_ADDED:
+            case FIELD_CHANGED: // the foreign key may have been set
+                references.setForeignField(event.getField(), event.getField().getForeignField());
+                break;
+            case RELATED_FIELD_SET:
+            case RELATED_FIELD_REMOVED:
+                references.setRelatedField(table, event.getField(), table.getRelatedField(event.getField()));
+                break;
+            case FIELDS_SWAPPED: // snapshots of the tables referring to it hold its fields' positions
+                for (Table referencing : references.getReferencingTables(table)) {
+                    tableChanged(referencing);
+                }
+                break;
+            default:
+                break;
+        }
         setChanged();
-        notifyObservers();
+        notifyObservers(arg);
     }
     
 }
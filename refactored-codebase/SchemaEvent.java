@@ -0,0 +1,98 @@
+package edgeconvert;
+
+/**
+ * Describes a single change to a schema, table or field. Passed as the
+ * argument to observers of Schema and Table so that they can react to just
+ * the part of the model that changed.
+ */
+public class SchemaEvent {
+
+    /**
+     * The kinds of change that can be described.
+     */
+    public enum Type {
+        TABLE_ADDED, FIELD_ADDED, FIELD_CHANGED, FIELDS_SWAPPED,
+        RELATED_TABLE_ADDED, RELATED_FIELD_SET, RELATED_FIELD_REMOVED, INDEX_SET;
+    }
+
+    // declarations
+    private final Type type;
+    private final Table table;
+    private final Field field;
+    private final int index, otherIndex;
+
+    /**
+     * Construct a new event.
+     *
+     * @param type The kind of change
+     * @param table The table that changed, or was added
+     * @param field The field that changed, or null if no field is involved
+     * @param index The position of the changed element in its list
+     * @param otherIndex The second position involved in a swap, otherwise -1
+     */
+    public SchemaEvent(Type type, Table table, Field field, int index, int otherIndex) {
+        this.type = type;
+        this.table = table;
+        this.field = field;
+        this.index = index;
+        this.otherIndex = otherIndex;
+    }
+
+    /**
+     * Get the kind of change.
+     *
+     * @return The event's type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the table that changed. For TABLE_ADDED, the table that was added.
+     *
+     * @return The table involved in the change
+     */
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * Get the field that changed. For RELATED_FIELD_SET and
+     * RELATED_FIELD_REMOVED, the native field of the relation.
+     *
+     * @return The field involved in the change, or null
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Get the position of the changed element: the table in the schema for
+     * TABLE_ADDED, the related table in the table's related tables for
+     * RELATED_TABLE_ADDED, otherwise the field in the table's fields.
+     *
+     * @return The position of the change
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the second position involved in a FIELDS_SWAPPED change.
+     *
+     * @return The other position of a swap, or -1
+     */
+    public int getOtherIndex() {
+        return otherIndex;
+    }
+
+    /**
+     * Get a string representation of this event.
+     *
+     * @return The type and subject of the event
+     */
+    @Override
+    public String toString() {
+        return type + " " + table + (field != null ? "." + field : "") + " @" + index;
+    }
+}
@@ -0,0 +1,372 @@
+package edgeconvert;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, consistent view of a schema at one moment, taken with
+ * Schema.snapshot(). Snapshots can be read from any thread without locking,
+ * so DDL generation, autosave and diffing can run in the background while
+ * the schema goes on being edited.
+ *
+ * Taking a snapshot only copies the tables that have changed since the
+ * previous one. Tables are held in a persistent 32-way tree, so the new
+ * snapshot shares every other TableSnapshot, and most of the tree, with the
+ * previous one. Two snapshots of the same schema hold the same TableSnapshot
+ * at a position exactly when that table has not changed in between.
+ */
+public final class SchemaSnapshot {
+
+    // private static/final attributes
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    // Each node has one extra slot naming the update that created it, so an
+    // update changing several tables copies each node at most once
+    private static final int OWNER = WIDTH;
+
+    static final SchemaSnapshot EMPTY = new SchemaSnapshot(new Object[WIDTH + 1], 0, 0, 0);
+
+    // declarations
+    private final Object[] root;
+    private final int size;
+    private final int shift; // BITS times the number of levels above the leaves
+    private final long version;
+
+    /**
+     * Construct a snapshot over a tree of tables.
+     *
+     * @param root The root node
+     * @param size The number of tables
+     * @param shift The depth of the tree
+     * @param version The number of snapshots taken before this one
+     */
+    private SchemaSnapshot(Object[] root, int size, int shift, long version) {
+        this.root = root;
+        this.size = size;
+        this.shift = shift;
+        this.version = version;
+    }
+
+    /**
+     * Take the snapshot following this one, copying the changed tables and
+     * any tables added since this one was taken.
+     *
+     * @param schema The schema this snapshot was taken of
+     * @param tables The schema's tables, in order
+     * @param changed The tables changed since this snapshot was taken
+     * @param unresolved The tables referring to tables that were not yet in
+     * the schema, kept up to date with the tables copied
+     * @return The new snapshot
+     */
+    SchemaSnapshot update(Schema schema, List<Table> tables, Collection<Table> changed,
+            Collection<Table> unresolved) {
+        Object owner = new Object();
+        Object[] newRoot = root;
+        int newShift = shift;
+        for (Table table : changed) {
+            int position = schema.getTableIndex(table);
+            if (position >= 0 && position < size) { // added tables are copied below
+                newRoot = set(newRoot, newShift, position, copy(table, schema, unresolved), owner);
+            }
+        }
+        for (int position = size; position < tables.size(); position++) {
+            if (position == 1L << (newShift + BITS)) { // the tree is full, so add a level
+                Object[] grown = new Object[WIDTH + 1];
+                grown[0] = newRoot;
+                grown[OWNER] = owner;
+                newRoot = grown;
+                newShift += BITS;
+            }
+            newRoot = set(newRoot, newShift, position, copy(tables.get(position), schema, unresolved), owner);
+        }
+        return new SchemaSnapshot(newRoot, tables.size(), newShift, version + 1);
+    }
+
+    /**
+     * Copy a table, noting whether it refers to a table not yet in the
+     * schema.
+     *
+     * @param table The table to copy
+     * @param schema The schema the table belongs to
+     * @param unresolved The tables referring to tables not yet in the schema
+     * @return The copy
+     */
+    private static TableSnapshot copy(Table table, Schema schema, Collection<Table> unresolved) {
+        TableSnapshot copy = table.snapshot(schema);
+        if (copy.isResolved()) {
+            unresolved.remove(table);
+        } else {
+            unresolved.add(table);
+        }
+        return copy;
+    }
+
+    /**
+     * Set one table in the tree, copying the nodes on its path unless the
+     * current update created them.
+     *
+     * @param node The node to set the table under, or null to create it
+     * @param level The node's depth, as a shift
+     * @param position The table's position
+     * @param table The table
+     * @param owner The current update
+     * @return The node, or its copy
+     */
+    private static Object[] set(Object[] node, int level, int position, TableSnapshot table, Object owner) {
+        Object[] copy;
+        if (node != null && node[OWNER] == owner) {
+            copy = node;
+        } else {
+            copy = node == null ? new Object[WIDTH + 1] : node.clone();
+            copy[OWNER] = owner;
+        }
+        int slot = (position >>> level) & MASK;
+        if (level == 0) {
+            copy[slot] = table;
+        } else {
+            copy[slot] = set((Object[]) copy[slot], level - BITS, position, table, owner);
+        }
+        return copy;
+    }
+
+    /**
+     * Get the number of snapshots that were taken of the schema before this
+     * one. A schema hands out the same snapshot until it changes, so two
+     * snapshots with the same version hold the same tables.
+     *
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of tables in this snapshot.
+     *
+     * @return The table count
+     */
+    public int getTableCount() {
+        return size;
+    }
+
+    /**
+     * Get a table by its position in the schema.
+     *
+     * @param position The table's position
+     * @return The table
+     * @throws IndexOutOfBoundsException If there is no table at the position
+     */
+    public TableSnapshot getTable(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Table " + position + " of " + size);
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(position >>> level) & MASK];
+        }
+        return (TableSnapshot) node[position & MASK];
+    }
+
+    /**
+     * Get all of the tables in this snapshot, in order.
+     *
+     * @return An unmodifiable list of the tables
+     */
+    public List<TableSnapshot> getTables() {
+        return new TableList();
+    }
+
+    /**
+     * Get the table from this snapshot with the given name.
+     *
+     * @param name The name of the table
+     * @return The first table with the given name, or null
+     */
+    public TableSnapshot getTableByName(String name) {
+        for (int position = 0; position < size; position++) {
+            TableSnapshot table = getTable(position);
+            if (table.getName().equals(name)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the tables related to a table in this snapshot.
+     *
+     * @param table The table
+     * @return The table's related tables
+     */
+    public List<TableSnapshot> getRelatedTables(TableSnapshot table) {
+        List<TableSnapshot> related = new ArrayList<>(table.getRelatedTableCount());
+        for (int i = 0; i < table.getRelatedTableCount(); i++) {
+            related.add(getTable(table.getRelatedTable(i)));
+        }
+        return related;
+    }
+
+    /**
+     * Get the fields of a table in this snapshot that are related to fields
+     * in other tables, with the fields they are related to. A related field
+     * whose foreign field was added after the foreign table was copied is
+     * left out.
+     *
+     * @param table The table
+     * @return The table's related fields, mapped to their foreign fields
+     */
+    public Map<FieldSnapshot, FieldSnapshot> getRelatedFields(TableSnapshot table) {
+        Map<FieldSnapshot, FieldSnapshot> related = new LinkedHashMap<>();
+        for (int i = 0; i < table.getRelatedFieldCount(); i++) {
+            FieldSnapshot foreign = fieldAt(getTable(table.getRelatedForeignTable(i)).getFields(),
+                    table.getRelatedForeignField(i));
+            if (foreign != null) {
+                related.put(table.getRelatedField(i), foreign);
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Get the field a field's foreign key references.
+     *
+     * @param field A field of a table in this snapshot
+     * @return The referenced field, or null if there is none
+     */
+    public FieldSnapshot getForeignField(FieldSnapshot field) {
+        if (field.getForeignTable() < 0) {
+            return null;
+        }
+        return fieldAt(getTable(field.getForeignTable()).getFields(), field.getForeignField());
+    }
+
+    /**
+     * Create a new, editable schema holding the tables in this snapshot, for
+     * code that works on Table and Field, such as the DDL builders.
+     *
+     * @return A new schema
+     */
+    public Schema toSchema() {
+        List<Table> tables = new ArrayList<>(size);
+        List<List<Field>> tableFields = new ArrayList<>(size);
+        for (int position = 0; position < size; position++) {
+            TableSnapshot snapshot = getTable(position);
+            Table table = new Table(snapshot.getName());
+            for (FieldSnapshot fieldSnapshot : snapshot.getFields()) {
+                Field field = new Field(fieldSnapshot.getName());
+                field.setDataType(fieldSnapshot.getDataType());
+                field.setCharLength(fieldSnapshot.getCharLength());
+                field.setDefaultValue(fieldSnapshot.getDefaultValue());
+                field.setAllowNull(fieldSnapshot.isAllowNull());
+                field.setIsPrimaryKey(fieldSnapshot.isPrimaryKey());
+                field.setAutoIncrement(fieldSnapshot.isAutoIncrement());
+                field.setTable(table);
+                table.addField(field);
+            }
+            tables.add(table);
+            tableFields.add(table.getFields());
+        }
+
+        // Relations can only be restored once every table and field has been
+        for (int position = 0; position < size; position++) {
+            TableSnapshot snapshot = getTable(position);
+            Table table = tables.get(position);
+            List<Field> fields = tableFields.get(position);
+            for (int i = 0; i < snapshot.getRelatedTableCount(); i++) {
+                table.addRelatedTable(tables.get(snapshot.getRelatedTable(i)));
+            }
+            for (int i = 0; i < snapshot.getRelatedFieldCount(); i++) {
+                Field foreign = fieldAt(tableFields.get(snapshot.getRelatedForeignTable(i)),
+                        snapshot.getRelatedForeignField(i));
+                if (foreign != null) {
+                    table.setRelatedField(fieldOf(snapshot, fields, snapshot.getRelatedField(i)), foreign);
+                }
+            }
+            for (Map.Entry<String, FieldSnapshot> index : snapshot.getIndexes().entrySet()) {
+                table.setIndex(index.getKey(), fieldOf(snapshot, fields, index.getValue()));
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                FieldSnapshot fieldSnapshot = snapshot.getFields().get(i);
+                if (fieldSnapshot.getForeignTable() >= 0) {
+                    fields.get(i).setForeignField(fieldAt(tableFields.get(fieldSnapshot.getForeignTable()),
+                            fieldSnapshot.getForeignField()));
+                }
+            }
+        }
+        return new Schema(tables);
+    }
+
+    /**
+     * Get the field at a position in a table's fields.
+     *
+     * @param <T> The type of field
+     * @param fields The table's fields
+     * @param position The field's position
+     * @return The field, or null if the table had no field there when it
+     * was copied
+     */
+    private static <T> T fieldAt(List<T> fields, int position) {
+        return position < fields.size() ? fields.get(position) : null;
+    }
+
+    /**
+     * Get the field created for one of a table snapshot's fields.
+     *
+     * @param snapshot The table snapshot
+     * @param fields The fields created for it, in order
+     * @param field One of the snapshot's fields
+     * @return The field created for it
+     */
+    private static Field fieldOf(TableSnapshot snapshot, List<Field> fields, FieldSnapshot field) {
+        List<FieldSnapshot> snapshotFields = snapshot.getFields();
+        for (int i = 0; i < snapshotFields.size(); i++) {
+            if (snapshotFields.get(i) == field) {
+                return fields.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get a string representation of this snapshot.
+     *
+     * @return The version and table count
+     */
+    @Override
+    public String toString() {
+        return "Schema snapshot " + version + " (" + size + " tables)";
+    }
+
+    /**
+     * The read-only list view returned by getTables.
+     */
+    private class TableList extends AbstractList<TableSnapshot> implements RandomAccess {
+
+        /**
+         * Get a table by position.
+         *
+         * @param index The table's position
+         * @return The table
+         */
+        @Override
+        public TableSnapshot get(int index) {
+            return getTable(index);
+        }
+
+        /**
+         * Get the number of tables.
+         *
+         * @return The table count
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -7,16 +7,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Class representing a generic database table. Notifies observers when changes
  * occur in any of the included fields, letting them know that the table has
  * changed.
+ *
+ * A table can be read by many threads while another edits it. Lookups and
+ * traversals first read optimistically without locking, and only take the
+ * read lock if an edit was made while they ran; edits take the write lock.
+ * Observers are notified once the lock has been released, so they can read
+ * the table.
  */
 public class Table extends Observable implements Observer {
 
-    private String name;
+    private final String name;
+    private final StampedLock lock;
     private List<Field> fields;
+    private Map<Field, Integer> positions; // each field's index in fields
     private List<Table> relatedTables;
     private Map<Field, Field> relatedFields;
     private Map<String, Field> indexes;
@@ -28,7 +37,9 @@ public class Table extends Observable implements Observer {
      */
     public Table(String name) {
         this.name = name;
+        lock = new StampedLock();
         fields = new ArrayList<>();
+        positions = new HashMap<>();
         relatedTables = new ArrayList<>();
         relatedFields = new HashMap<>();
         indexes = new HashMap<>();
@@ -49,12 +60,21 @@ public class Table extends Observable implements Observer {
      * @param field The field to be added to the table
      */
     public void addField(Field field) {
-        if (!fields.contains(field)) {
+        int position;
+        long stamp = lock.writeLock();
+        try {
+            if (positions.containsKey(field)) {
+                return;
+            }
+            position = fields.size();
+            positions.put(field, position);
             fields.add(field);
-            field.addObserver(this);
-            setChanged();
-            notifyObservers();
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        field.addObserver(this);
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.FIELD_ADDED, this, field, position, -1));
     }
 
     /**
@@ -63,11 +83,19 @@ public class Table extends Observable implements Observer {
      * @param table The table that is related to this table
      */
     public void addRelatedTable(Table table) {
-        if (!relatedTables.contains(table)) {
+        int position;
+        long stamp = lock.writeLock();
+        try {
+            if (relatedTables.contains(table)) {
+                return;
+            }
+            position = relatedTables.size();
             relatedTables.add(table);
-            setChanged();
-            notifyObservers();
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.RELATED_TABLE_ADDED, this, null, position, -1));
     }
 
     /**
@@ -78,11 +106,19 @@ public class Table extends Observable implements Observer {
      * @param foreignField Another table's field
      */
     public void setRelatedField(Field nativeField, Field foreignField) {
-        if (fields.contains(nativeField)) {
+        Integer position;
+        long stamp = lock.writeLock();
+        try {
+            position = positions.get(nativeField);
+            if (position == null) {
+                return;
+            }
             relatedFields.put(nativeField, foreignField);
-            setChanged();
-            notifyObservers();
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.RELATED_FIELD_SET, this, nativeField, position, -1));
     }
 
     /**
@@ -92,11 +128,19 @@ public class Table extends Observable implements Observer {
      * @param field The field to make an index on
      */
     public void setIndex(String index, Field field) {
-        if (fields.contains(field)) {
+        Integer position;
+        long stamp = lock.writeLock();
+        try {
+            position = positions.get(field);
+            if (position == null) {
+                return;
+            }
             indexes.put(index, field);
-            setChanged();
-            notifyObservers();
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.INDEX_SET, this, field, position, -1));
     }
 
     /**
@@ -105,9 +149,17 @@ public class Table extends Observable implements Observer {
      * @param nativeField The field to be "unrelated" from this table
      */
     public void removeRelatedField(Field nativeField) {
-        relatedFields.remove(nativeField);
+        Integer position;
+        long stamp = lock.writeLock();
+        try {
+            relatedFields.remove(nativeField);
+            position = positions.get(nativeField);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
         setChanged();
-        notifyObservers();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.RELATED_FIELD_REMOVED, this, nativeField,
+                position != null ? position : -1, -1));
     }
 
     /**
@@ -116,7 +168,51 @@ public class Table extends Observable implements Observer {
      * @return All of this table's fields
      */
     public List<Field> getFields() {
-        return new ArrayList<>(fields);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                List<Field> copy = new ArrayList<>(fields);
+                if (lock.validate(stamp)) {
+                    return copy;
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the copy, so copy again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return new ArrayList<>(fields);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the position of the given field in this table without searching
+     * the list of fields.
+     *
+     * @param field The field to find
+     * @return The field's index in getFields(), or -1 if it is not in this table
+     */
+    public int getFieldIndex(Field field) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Integer position = positions.get(field);
+                if (lock.validate(stamp)) {
+                    return (position != null) ? position : -1;
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the lookup, so look again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            Integer position = positions.get(field);
+            return (position != null) ? position : -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -126,7 +222,7 @@ public class Table extends Observable implements Observer {
      */
     public List<Field> getPrimaryKeyFields() {
         List<Field> pkFields = new ArrayList<>();
-        for (Field field : fields) {
+        for (Field field : getFields()) {
             if (field.isPrimaryKey()) {
                 pkFields.add(field);
             }
@@ -137,28 +233,122 @@ public class Table extends Observable implements Observer {
     /**
      * Get a list of tables that are related to this table.
      *
-     * @return This table's related tables
+     * @return A copy of this table's related tables
      */
     public List<Table> getRelatedTables() {
-        return Collections.unmodifiableList(relatedTables);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                List<Table> copy = new ArrayList<>(relatedTables);
+                if (lock.validate(stamp)) {
+                    return Collections.unmodifiableList(copy);
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the copy, so copy again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(relatedTables));
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
      * Get a list of fields that are related to this table.
      *
-     * @return This table's related fields
+     * @return A copy of this table's related fields
      */
     public Map<Field, Field> getRelatedFields() {
-        return Collections.unmodifiableMap(relatedFields);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Map<Field, Field> copy = new HashMap<>(relatedFields);
+                if (lock.validate(stamp)) {
+                    return Collections.unmodifiableMap(copy);
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the copy, so copy again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Collections.unmodifiableMap(new HashMap<>(relatedFields));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the field a field of this table is related to, without copying
+     * the related fields.
+     *
+     * @param nativeField This table's field
+     * @return The field it is related to, or null
+     */
+    public Field getRelatedField(Field nativeField) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Field foreignField = relatedFields.get(nativeField);
+                if (lock.validate(stamp)) {
+                    return foreignField;
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the lookup, so look again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return relatedFields.get(nativeField);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the number of this table's related fields without copying them.
+     *
+     * @return The related field count
+     */
+    public int getRelatedFieldCount() {
+        long stamp = lock.tryOptimisticRead();
+        int count = relatedFields.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = relatedFields.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
     }
 
     /**
      * Get all of the indexes on this table.
      *
-     * @return This table's indexes
+     * @return A copy of this table's indexes
      */
     public Map<String, Field> getIndexes() {
-        return Collections.unmodifiableMap(indexes);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Map<String, Field> copy = new HashMap<>(indexes);
+                if (lock.validate(stamp)) {
+                    return Collections.unmodifiableMap(copy);
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the copy, so copy again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return Collections.unmodifiableMap(new HashMap<>(indexes));
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -167,9 +357,7 @@ public class Table extends Observable implements Observer {
      * @param field The field to be moved up.
      */
     public void moveFieldUp(Field field) {
-        final int source = fields.indexOf(field);
-        final int dest = source - 1;
-        swapFields(source, dest);
+        moveField(field, -1);
     }
 
     /**
@@ -178,25 +366,37 @@ public class Table extends Observable implements Observer {
      * @param field The field to be moved down.
      */
     public void moveFieldDown(Field field) {
-        final int source = fields.indexOf(field);
-        final int dest = source + 1;
-        swapFields(source, dest);
+        moveField(field, 1);
     }
 
     /**
-     * Swap the positions of two fields in this table.
+     * Swap a field with one of its neighbours. The field is found and moved
+     * under one write lock, so a concurrent move cannot come in between.
      *
-     * @param source One of the fields to be swapped
-     * @param dest The other field to be swapped
+     * @param field The field to be moved
+     * @param offset -1 to move it up, 1 to move it down
      */
-    private void swapFields(int source, int dest) {
-        final boolean validSource = source >= 0 && source < fields.size();
-        final boolean validDest = dest >= 0 && dest < fields.size();
-        if (validSource && validDest) {
+    private void moveField(Field field, int offset) {
+        final int source;
+        final int dest;
+        long stamp = lock.writeLock();
+        try {
+            Integer position = positions.get(field);
+            source = (position != null) ? position : -1;
+            dest = source + offset;
+            final boolean validSource = source >= 0 && source < fields.size();
+            final boolean validDest = dest >= 0 && dest < fields.size();
+            if (!validSource || !validDest) {
+                return;
+            }
             Collections.swap(fields, source, dest);
-            setChanged();
-            notifyObservers();
+            positions.put(fields.get(source), source);
+            positions.put(fields.get(dest), dest);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        setChanged();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.FIELDS_SWAPPED, this, null, source, dest));
     }
 
     /**
@@ -207,7 +407,35 @@ public class Table extends Observable implements Observer {
      * @return The field with the given name or null
      */
     public Field getFieldByName(String name) {
-        for (Field field : fields) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Field found = findField(name);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // an edit was made during the search, so search again under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return findField(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Search this table's fields for one with the given name, without
+     * locking.
+     *
+     * @param name The name of the field
+     * @return The field with the given name or null
+     */
+    private Field findField(String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
             if (field.getName().equals(name)) {
                 return field;
             }
@@ -216,15 +444,33 @@ public class Table extends Observable implements Observer {
     }
 
     /**
-     * Called whenever a field in this table is modified.
+     * Called whenever a field in this table is modified. Passes a
+     * FIELD_CHANGED event on to this table's observers.
      *
-     * @param o
+     * @param o The field that was modified
      * @param arg
      */
     @Override
     public void update(Observable o, Object arg) {
+        Field field = (Field) o;
         setChanged();
-        notifyObservers();
+        notifyObservers(new SchemaEvent(SchemaEvent.Type.FIELD_CHANGED, this, field, getFieldIndex(field), -1));
+    }
+
+    /**
+     * Copy this table for a SchemaSnapshot. The table is read under its read
+     * lock, so the copy sees no edit half made.
+     *
+     * @param schema The schema this table belongs to
+     * @return The copy
+     */
+    TableSnapshot snapshot(Schema schema) {
+        long stamp = lock.readLock();
+        try {
+            return new TableSnapshot(this, schema);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -0,0 +1,224 @@
+package edgeconvert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of a table, its fields and its indexes. A table is only
+ * copied again once it has changed, so consecutive SchemaSnapshots share the
+ * TableSnapshot of every table that has not. Related tables and related
+ * fields are held by their positions in the schema and in their tables, so
+ * fields with the same name are told apart, and are followed through the
+ * SchemaSnapshot the table belongs to.
+ */
+public final class TableSnapshot {
+
+    // private static/final attributes
+    private static final int[] NO_TABLES = new int[0];
+
+    // declarations
+    private final String name;
+    private final List<FieldSnapshot> fields;
+    private final int[] relatedTables; // positions in the schema
+    private final FieldSnapshot[] relatedFields; // the native fields, in step with the two below
+    private final int[] relatedForeignTables;
+    private final int[] relatedForeignFields; // positions in the foreign tables
+    private final Map<String, FieldSnapshot> indexes;
+    private final boolean resolved; // every foreign table was in the schema
+
+    /**
+     * Copy a table.
+     *
+     * @param table The table to copy
+     * @param schema The schema the table belongs to
+     */
+    TableSnapshot(Table table, Schema schema) {
+        this.name = table.getName();
+        List<Field> tableFields = table.getFields();
+        FieldSnapshot[] fieldCopies = new FieldSnapshot[tableFields.size()];
+        for (int i = 0; i < fieldCopies.length; i++) {
+            fieldCopies[i] = new FieldSnapshot(tableFields.get(i), schema);
+        }
+        this.fields = Collections.unmodifiableList(Arrays.asList(fieldCopies));
+        boolean allFound = true;
+        for (int i = 0; i < fieldCopies.length; i++) {
+            if (fieldCopies[i].getForeignTable() < 0 && tableFields.get(i).getForeignField() != null) {
+                allFound = false;
+            }
+        }
+
+        List<Table> related = table.getRelatedTables();
+        int[] relatedPositions = related.isEmpty() ? NO_TABLES : new int[related.size()];
+        int relatedCount = 0;
+        for (Table relatedTable : related) {
+            int position = schema.getTableIndex(relatedTable);
+            if (position >= 0) {
+                relatedPositions[relatedCount++] = position;
+            } else {
+                allFound = false;
+            }
+        }
+        this.relatedTables = relatedCount == relatedPositions.length
+                ? relatedPositions : Arrays.copyOf(relatedPositions, relatedCount);
+
+        Map<Field, Field> tableRelatedFields = table.getRelatedFields();
+        int relatedFieldCount = 0;
+        FieldSnapshot[] natives = new FieldSnapshot[tableRelatedFields.size()];
+        int[] foreignTables = new int[natives.length];
+        int[] foreignFields = new int[natives.length];
+        for (Map.Entry<Field, Field> entry : tableRelatedFields.entrySet()) {
+            int nativePosition = table.getFieldIndex(entry.getKey());
+            Field foreign = entry.getValue();
+            Table foreignTableOf = foreign == null ? null : foreign.getTable();
+            int foreignPosition = foreignTableOf == null ? -1 : foreignTableOf.getFieldIndex(foreign);
+            int foreignTable = foreignPosition < 0 ? -1 : schema.getTableIndex(foreignTableOf);
+            if (nativePosition >= 0 && foreignTable >= 0) {
+                natives[relatedFieldCount] = fieldCopies[nativePosition];
+                foreignTables[relatedFieldCount] = foreignTable;
+                foreignFields[relatedFieldCount] = foreignPosition;
+                relatedFieldCount++;
+            } else if (nativePosition >= 0 && foreign != null) {
+                allFound = false;
+            }
+        }
+        this.relatedFields = Arrays.copyOf(natives, relatedFieldCount);
+        this.relatedForeignTables = Arrays.copyOf(foreignTables, relatedFieldCount);
+        this.relatedForeignFields = Arrays.copyOf(foreignFields, relatedFieldCount);
+
+        Map<String, FieldSnapshot> indexCopies = new LinkedHashMap<>();
+        for (Map.Entry<String, Field> index : table.getIndexes().entrySet()) {
+            int position = table.getFieldIndex(index.getValue());
+            if (position >= 0) {
+                indexCopies.put(index.getKey(), fieldCopies[position]);
+            }
+        }
+        this.indexes = indexCopies.isEmpty()
+                ? Collections.<String, FieldSnapshot>emptyMap() : Collections.unmodifiableMap(indexCopies);
+        this.resolved = allFound;
+    }
+
+    /**
+     * Get the name of this table.
+     *
+     * @return This table's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get all fields of this table, in order.
+     *
+     * @return An unmodifiable list of this table's fields
+     */
+    public List<FieldSnapshot> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the field with the given name from this table.
+     *
+     * @param name The name of the field
+     * @return The first field with the given name, or null
+     */
+    public FieldSnapshot getFieldByName(String name) {
+        for (FieldSnapshot field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get all of the indexes on this table.
+     *
+     * @return An unmodifiable map of index names to fields
+     */
+    public Map<String, FieldSnapshot> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Get the number of tables related to this table.
+     *
+     * @return The related table count
+     */
+    public int getRelatedTableCount() {
+        return relatedTables.length;
+    }
+
+    /**
+     * Get the position in the schema of one of this table's related tables.
+     *
+     * @param i The related table's position in this table's list
+     * @return The related table's position in the schema
+     */
+    int getRelatedTable(int i) {
+        return relatedTables[i];
+    }
+
+    /**
+     * Get the number of this table's fields related to a field in another
+     * table.
+     *
+     * @return The related field count
+     */
+    public int getRelatedFieldCount() {
+        return relatedFields.length;
+    }
+
+    /**
+     * Get one of this table's related fields.
+     *
+     * @param i The related field's position in this table's list
+     * @return The native field
+     */
+    FieldSnapshot getRelatedField(int i) {
+        return relatedFields[i];
+    }
+
+    /**
+     * Get the position in the schema of the table a related field refers to.
+     *
+     * @param i The related field's position in this table's list
+     * @return The foreign table's position in the schema
+     */
+    int getRelatedForeignTable(int i) {
+        return relatedForeignTables[i];
+    }
+
+    /**
+     * Get the position in its table of the field a related field refers to.
+     *
+     * @param i The related field's position in this table's list
+     * @return The foreign field's position in the foreign table
+     */
+    int getRelatedForeignField(int i) {
+        return relatedForeignFields[i];
+    }
+
+    /**
+     * Determine whether every table this table refers to was in the schema
+     * when it was copied. References to other tables are left out until
+     * then, so the table has to be copied again once more tables are added.
+     *
+     * @return Whether or not every reference was kept
+     */
+    boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * Get a string representation of this table (its name).
+     *
+     * @return The name of this table
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
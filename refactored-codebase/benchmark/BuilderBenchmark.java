@@ -0,0 +1,167 @@
+package edgeconvert.benchmark;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.Schema;
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.output.MySQLBuilder;
+import edgeconvert.output.SaveFileBuilder;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the DDLBuilder plugins turning a schema into DDL, and writing the
+ * DDL to disk the way FileSaver does, over schemas of varying table count,
+ * fields per table and relation density. The builders are measured reading
+ * both the Table and Field objects and the same schema packed into arrays,
+ * on and off the heap.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class BuilderBenchmark {
+
+    // private static/final attributes
+    private static final int CHUNK_SIZE = 8192; // as FileSaver writes
+
+    @Param({"100", "1000", "10000"})
+    public int tables;
+
+    @Param({"10", "40"})
+    public int fieldsPerTable;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double relationDensity;
+
+    private Schema schema;
+    private ColumnarSchema columnarSchema, offHeapSchema;
+    private DDLBuilder mySQLBuilder, saveFileBuilder;
+    private String ddl;
+    private File outputFile;
+
+    /**
+     * Build the schema, the builders and the DDL to be written.
+     *
+     * @throws IOException If the output file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        schema = new SyntheticDiagram(tables, fieldsPerTable)
+                .setRelationDensity(relationDensity).buildSchema();
+        columnarSchema = ColumnarSchema.of(schema);
+        offHeapSchema = columnarSchema.toOffHeap();
+        mySQLBuilder = new MySQLBuilder();
+        mySQLBuilder.setDatabaseName("benchmark");
+        saveFileBuilder = new SaveFileBuilder();
+        ddl = buildMySQL();
+        outputFile = File.createTempFile("edgeconvert-bench", ".sql");
+    }
+
+    /**
+     * Delete the output file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    /**
+     * Build MySQL DDL, including the builder's sort of the tables.
+     *
+     * @return The DDL, consumed by JMH
+     */
+    @Benchmark
+    public String buildMySQL() {
+        mySQLBuilder.setTables(schema.getTables());
+        return mySQLBuilder.buildDDL();
+    }
+
+    /**
+     * Build a save file, including the builder's numbering of the tables
+     * and fields.
+     *
+     * @return The save file, consumed by JMH
+     */
+    @Benchmark
+    public String buildSaveFile() {
+        saveFileBuilder.setTables(schema.getTables());
+        return saveFileBuilder.buildDDL();
+    }
+
+    /**
+     * Build MySQL DDL from the packed schema, including the builder's sort
+     * of the tables.
+     *
+     * @return The DDL, consumed by JMH
+     */
+    @Benchmark
+    public String buildMySQLColumnar() {
+        mySQLBuilder.setColumnarSchema(columnarSchema);
+        return mySQLBuilder.buildDDL();
+    }
+
+    /**
+     * Build MySQL DDL from the packed schema held off the heap, where names
+     * are decoded as they are read.
+     *
+     * @return The DDL, consumed by JMH
+     */
+    @Benchmark
+    public String buildMySQLOffHeap() {
+        mySQLBuilder.setColumnarSchema(offHeapSchema);
+        return mySQLBuilder.buildDDL();
+    }
+
+    /**
+     * Build a save file from the packed schema.
+     *
+     * @return The save file, consumed by JMH
+     */
+    @Benchmark
+    public String buildSaveFileColumnar() {
+        saveFileBuilder.setColumnarSchema(columnarSchema);
+        return saveFileBuilder.buildDDL();
+    }
+
+    /**
+     * Write the MySQL DDL as FileSaver does: in chunks to a temporary file
+     * beside the output, which then replaces it.
+     *
+     * @return The size of the written file, consumed by JMH
+     * @throws IOException If the file cannot be written
+     */
+    @Benchmark
+    public long writeDDL() throws IOException {
+        String output = ddl + System.lineSeparator();
+        File tempFile = File.createTempFile("." + outputFile.getName() + "-", ".tmp",
+                outputFile.getAbsoluteFile().getParentFile());
+        try (Writer writer = new BufferedWriter(new FileWriter(tempFile, false))) {
+            for (int start = 0; start < output.length(); start += CHUNK_SIZE) {
+                writer.write(output, start, Math.min(CHUNK_SIZE, output.length() - start));
+            }
+        }
+        Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return outputFile.length();
+    }
+}
@@ -0,0 +1,83 @@
+package edgeconvert.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes synthetic diagrams from the command line, for soak tests and for
+ * inputs too large to keep in the repository. The format of each file is
+ * taken from its extension, and every file is the same diagram.
+ *
+ * Usage: GenerateDiagram [-t tables] [-f minFields[-maxFields]]
+ * [-r relationDensity] [-k maxDepth] [-s seed] file...
+ */
+public class GenerateDiagram {
+
+    // private static/final attributes
+    private static final String USAGE = "Usage: GenerateDiagram [-t tables] [-f minFields[-maxFields]] "
+            + "[-r relationDensity] [-k maxDepth] [-s seed] file...";
+
+    public static void main(String[] args) throws IOException {
+        int tables = 1000;
+        int minFields = 5, maxFields = 20;
+        double relationDensity = 0.5;
+        int maxDepth = SyntheticDiagram.DEFAULT_MAX_DEPTH;
+        long seed = SyntheticDiagram.DEFAULT_SEED;
+        List<String> arguments = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                boolean hasValue = i + 1 < args.length;
+                if (args[i].equals("-t") && hasValue) {
+                    tables = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("-f") && hasValue) {
+                    String[] range = args[++i].split("-", 2);
+                    minFields = Integer.parseInt(range[0]);
+                    maxFields = range.length > 1 ? Integer.parseInt(range[1]) : minFields;
+                } else if (args[i].equals("-r") && hasValue) {
+                    relationDensity = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("-k") && hasValue) {
+                    maxDepth = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("-s") && hasValue) {
+                    seed = Long.parseLong(args[++i]);
+                } else {
+                    arguments.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException nfe) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (arguments.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        SyntheticDiagram diagram;
+        try {
+            diagram = new SyntheticDiagram(tables, minFields)
+                    .setFieldRange(minFields, maxFields)
+                    .setRelationDensity(relationDensity)
+                    .setMaxDepth(maxDepth)
+                    .setSeed(seed);
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            System.exit(2);
+            return;
+        }
+        for (String fileName : arguments) {
+            File file = new File(fileName);
+            String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+            if (!format.equals(SyntheticDiagram.EDGE) && !format.equals(SyntheticDiagram.XML)
+                    && !format.equals(SyntheticDiagram.SAVE)) {
+                System.err.println(fileName + ": the extension must be .edg, .xml or .sav");
+                System.exit(2);
+            }
+            long start = System.nanoTime();
+            diagram.write(file, format);
+            System.out.println(file + ": " + file.length() + " bytes in "
+                    + (System.nanoTime() - start) / 1000000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package edgeconvert.benchmark;
+
+import edgeconvert.Schema;
+import edgeconvert.input.EdgeParser;
+import edgeconvert.input.FileParser;
+import edgeconvert.input.SaveParser;
+import edgeconvert.input.XMLParser;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each FileParser plugin parsing a whole file into a Schema, on
+ * synthetic diagrams of several sizes and on the bundled Courses.edg.
+ * Throughput and sampled latency (with percentiles) are both reported; run
+ * through RunBenchmarks to add allocation rates from the GC profiler.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ParserBenchmark {
+
+    /**
+     * Create the parser for a format.
+     *
+     * @param format The file extension of the input
+     * @return A new parser for the format
+     */
+    static FileParser newParser(String format) {
+        switch (format) {
+            case SyntheticDiagram.EDGE:
+                return new EdgeParser();
+            case SyntheticDiagram.XML:
+                return new XMLParser();
+            case SyntheticDiagram.SAVE:
+                return new SaveParser();
+            default:
+                throw new IllegalArgumentException("Unknown format \"" + format + "\".");
+        }
+    }
+
+    /**
+     * Parse a file, failing the benchmark if the parser rejects it.
+     *
+     * @param parser The parser to use
+     * @param file The file to parse
+     * @return The parsed schema
+     */
+    static Schema parse(FileParser parser, File file) {
+        parser.setFile(file);
+        if (!parser.parseFile()) {
+            throw new IllegalStateException("Unable to parse " + file + ": " + parser.getErrorMessage());
+        }
+        return parser.getSchema();
+    }
+
+    /**
+     * A synthetic diagram written once per trial in each format and size.
+     */
+    @State(Scope.Benchmark)
+    public static class SyntheticInput {
+
+        @Param({SyntheticDiagram.EDGE, SyntheticDiagram.XML, SyntheticDiagram.SAVE})
+        public String format;
+
+        // tables x fields per table
+        @Param({"small", "medium", "huge"})
+        public String size;
+
+        File file;
+        FileParser parser;
+
+        /**
+         * Write the diagram to a temporary file.
+         *
+         * @throws IOException If the file cannot be written
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            SyntheticDiagram diagram;
+            switch (size) {
+                case "small":
+                    diagram = new SyntheticDiagram(10, 5);
+                    break;
+                case "medium":
+                    diagram = new SyntheticDiagram(200, 10);
+                    break;
+                case "huge":
+                    diagram = new SyntheticDiagram(2000, 20);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown size \"" + size + "\".");
+            }
+            file = File.createTempFile("edgeconvert-bench-" + size, "." + format);
+            diagram.write(file, format);
+            parser = newParser(format);
+        }
+
+        /**
+         * Delete the temporary file.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            file.delete();
+        }
+    }
+
+    /**
+     * The Courses diagram bundled with the original program.
+     */
+    @State(Scope.Benchmark)
+    public static class CoursesInput {
+
+        // relative to the repository root; override with -p coursesFile=...
+        @Param({"old-codebase/Courses.edg"})
+        public String coursesFile;
+
+        File file;
+        FileParser parser;
+
+        /**
+         * Check the file is there before measuring anything.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            file = new File(coursesFile);
+            if (!file.isFile()) {
+                throw new IllegalStateException(file.getAbsolutePath() + " not found. "
+                        + "Run from the repository root or pass -p coursesFile=<path>.");
+            }
+            parser = new EdgeParser();
+        }
+    }
+
+    /**
+     * Parse a synthetic diagram.
+     *
+     * @param input The diagram to parse
+     * @return The parsed schema, consumed by JMH
+     */
+    @Benchmark
+    public Schema parseSynthetic(SyntheticInput input) {
+        return parse(input.parser, input.file);
+    }
+
+    /**
+     * Parse Courses.edg.
+     *
+     * @param input The diagram to parse
+     * @return The parsed schema, consumed by JMH
+     */
+    @Benchmark
+    public Schema parseCourses(CoursesInput input) {
+        return parse(input.parser, input.file);
+    }
+}
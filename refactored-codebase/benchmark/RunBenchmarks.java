@@ -0,0 +1,44 @@
+package edgeconvert.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Runs the benchmarks with the settings used to compare commits: the GC
+ * profiler for allocation rates, and results written as JSON to
+ * jmh-result.json. Any standard JMH option can be given, and overrides these
+ * defaults, e.g. "ParserBenchmark -p size=small -rff parsers.json".
+ */
+public class RunBenchmarks {
+
+    // public static/final attributes
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args JMH command line options and benchmark name patterns
+     * @throws RunnerException If a benchmark fails
+     * @throws IOException If the results cannot be written
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        Main.main(options.toArray(new String[options.size()]));
+    }
+}
@@ -0,0 +1,128 @@
+package edgeconvert.benchmark;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.SchemaSnapshot;
+import edgeconvert.Table;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for the schema operations on the builders' hot paths:
+ * looking tables up by name, copying a table's fields, notifying observers
+ * when a field changes, and taking a snapshot after a change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SchemaBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tables;
+
+    @Param({"10", "40"})
+    public int fieldsPerTable;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double relationDensity;
+
+    // observers on the schema, as the list models and mediator are
+    @Param({"0", "4"})
+    public int schemaObservers;
+
+    private Schema schema;
+    private String[] tableNames;
+    private Table table;
+    private Field field;
+    private int next;
+
+    /**
+     * Build the schema and pick the table and field to work on.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        schema = new SyntheticDiagram(tables, fieldsPerTable)
+                .setRelationDensity(relationDensity).buildSchema();
+        List<Table> schemaTables = schema.getTables();
+        // Look names up in a scattered order, so lookups are not all for one table
+        tableNames = new String[schemaTables.size()];
+        for (int i = 0; i < tableNames.length; i++) {
+            tableNames[i] = schemaTables.get((int) ((i * 7919L) % tableNames.length)).getName();
+        }
+        table = schemaTables.get(schemaTables.size() / 2);
+        field = table.getFields().get(fieldsPerTable - 1);
+        for (int i = 0; i < schemaObservers; i++) {
+            schema.addObserver(new Observer() {
+                @Override
+                public void update(Observable o, Object arg) {
+                    // only the cost of being called is measured
+                }
+            });
+        }
+    }
+
+    /**
+     * Look a table up by name.
+     *
+     * @return The table, consumed by JMH
+     */
+    @Benchmark
+    public Table getTableByName() {
+        String name = tableNames[next];
+        next = (next + 1) % tableNames.length;
+        return schema.getTableByName(name);
+    }
+
+    /**
+     * Get the fields of a table.
+     *
+     * @return The fields, consumed by JMH
+     */
+    @Benchmark
+    public List<Field> getFields() {
+        return table.getFields();
+    }
+
+    /**
+     * Change a field, notifying its table, the schema and the schema's
+     * observers.
+     *
+     * @return The new length, consumed by JMH
+     */
+    @Benchmark
+    public int notifyFieldChanged() {
+        next = (next + 1) & 0xFF;
+        field.setCharLength(next + 1);
+        return next;
+    }
+
+    /**
+     * Change a field, then take a snapshot of the schema, as FileSaver does
+     * before each save. Only the changed table should be copied.
+     *
+     * @return The snapshot, consumed by JMH
+     */
+    @Benchmark
+    public SchemaSnapshot snapshotAfterFieldChange() {
+        next = (next + 1) & 0xFF;
+        field.setCharLength(next + 1);
+        return schema.snapshot();
+    }
+}
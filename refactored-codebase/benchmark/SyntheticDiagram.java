@@ -0,0 +1,569 @@
+package edgeconvert.benchmark;
+
+import edgeconvert.DataType;
+import edgeconvert.Field;
+import edgeconvert.NamePool;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generates synthetic diagrams in each of the input formats the parsers read:
+ * Edge Diagrammer (.edg), XML diagram (.xml) and EdgeConvert save (.sav)
+ * files, or directly as a Schema. Every table has an integer primary key
+ * followed by varchar, char and integer columns, and may have a foreign key
+ * to the primary key of an earlier table.
+ *
+ * Everything about a table (its name, field count, columns and parent) is
+ * computed from the seed and the table's index alone, so a diagram of any
+ * size is written table by table in constant memory, and the same settings
+ * always produce the same file. To find a table's children for the save
+ * format without remembering them, a table's parent is always one of the
+ * PARENT_WINDOW nearest earlier tables on the level above it. Tables are
+ * assigned levels 0 to the maximum depth in turn, and only tables above
+ * level 0 may have a parent, so no chain of foreign keys is longer than the
+ * maximum depth.
+ */
+public class SyntheticDiagram {
+
+    // public static/final attributes
+    public static final String EDGE = "edg";
+    public static final String XML = "xml";
+    public static final String SAVE = "sav";
+    public static final long DEFAULT_SEED = 20141208L;
+    public static final int DEFAULT_MAX_DEPTH = 8;
+    public static final int PARENT_WINDOW = 16;
+
+    // private static/final attributes
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int ENTITIES_PER_ROW = 32;
+    private static final int FIGURE_WIDTH = 256, FIGURE_HEIGHT = 64;
+    private static final String[] TABLE_WORDS = {"CUSTOMER", "ORDER", "PRODUCT", "INVOICE", "SUPPLIER",
+        "EMPLOYEE", "DEPARTMENT", "PROJECT", "COURSE", "STUDENT", "ACCOUNT", "PAYMENT", "SHIPMENT",
+        "WAREHOUSE", "CATEGORY", "REVIEW"};
+    private static final String[] COLUMN_WORDS = {"NAME", "CODE", "TITLE", "DESCRIPTION", "STATUS",
+        "CREATED", "UPDATED", "AMOUNT", "QUANTITY", "EMAIL", "PHONE", "ADDRESS", "CITY", "REGION",
+        "COUNTRY", "NOTES"};
+    private static final int[] VARCHAR_LENGTHS = {20, 40, 80, 255};
+
+    // declarations
+    private final int tableCount;
+    private int minFields, maxFields;
+    private double relationDensity;
+    private int maxDepth;
+    private long seed;
+
+    /**
+     * Construct a diagram in which every table has the same number of fields
+     * and every table that may have a parent has one.
+     *
+     * @param tableCount The number of tables
+     * @param fieldsPerTable The number of fields in each table, including the
+     * primary key and any foreign key
+     */
+    public SyntheticDiagram(int tableCount, int fieldsPerTable) {
+        if (tableCount < 1) {
+            throw new IllegalArgumentException("A diagram needs at least one table.");
+        }
+        this.tableCount = tableCount;
+        this.relationDensity = 1.0;
+        this.maxDepth = DEFAULT_MAX_DEPTH;
+        this.seed = DEFAULT_SEED;
+        setFieldRange(fieldsPerTable, fieldsPerTable);
+    }
+
+    /**
+     * Set the range the number of fields in each table is chosen from.
+     *
+     * @param minFields The fewest fields in a table, at least two
+     * @param maxFields The most fields in a table
+     * @return This diagram
+     */
+    public SyntheticDiagram setFieldRange(int minFields, int maxFields) {
+        if (minFields < 2 || maxFields < minFields) {
+            throw new IllegalArgumentException("Tables need at least two fields, and the range must not be empty.");
+        }
+        // Figure ids are given out in fixed slots per table, so must fit in an int
+        if ((long) tableCount * (maxFields + 1) * 2 >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The diagram is too large for the formats' figure ids.");
+        }
+        this.minFields = minFields;
+        this.maxFields = maxFields;
+        return this;
+    }
+
+    /**
+     * Set the chance that a table which may have a parent has one.
+     *
+     * @param relationDensity A fraction from 0 to 1
+     * @return This diagram
+     */
+    public SyntheticDiagram setRelationDensity(double relationDensity) {
+        if (relationDensity < 0 || relationDensity > 1) {
+            throw new IllegalArgumentException("The relation density must be from 0 to 1.");
+        }
+        this.relationDensity = relationDensity;
+        return this;
+    }
+
+    /**
+     * Set the longest chain of foreign keys. Zero means no relations.
+     *
+     * @param maxDepth The maximum depth
+     * @return This diagram
+     */
+    public SyntheticDiagram setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The maximum depth must not be negative.");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Set the seed all of the diagram's choices are made from.
+     *
+     * @param seed The seed
+     * @return This diagram
+     */
+    public SyntheticDiagram setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Get the number of tables.
+     *
+     * @return The number of tables
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Get a pseudo-random number for one choice about a table, by mixing the
+     * seed, table and choice with the SplitMix64 finalizer.
+     *
+     * @param table The index of the table
+     * @param choice Which of the table's choices
+     * @return A pseudo-random number
+     */
+    private long random(int table, int choice) {
+        long z = seed + table * 0x9E3779B97F4A7C15L + (choice + 1) * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get a pseudo-random number in a range for one choice about a table.
+     *
+     * @param table The index of the table
+     * @param choice Which of the table's choices
+     * @param bound The upper bound, exclusive
+     * @return A number from 0 to bound - 1
+     */
+    private int random(int table, int choice, int bound) {
+        return (int) ((random(table, choice) >>> 1) % bound);
+    }
+
+    /**
+     * Get the level of a table. Level 0 tables never have a parent.
+     *
+     * @param table The index of the table
+     * @return The level, from 0 to the maximum depth
+     */
+    private int levelOf(int table) {
+        return table % (maxDepth + 1);
+    }
+
+    /**
+     * Check whether a table has a parent.
+     *
+     * @param table The index of the table
+     * @return True if the table has a foreign key
+     */
+    boolean hasParent(int table) {
+        return levelOf(table) > 0
+                && (random(table, 0) >>> 11) * 0x1.0p-53 < relationDensity;
+    }
+
+    /**
+     * Get the parent of a table: one of the nearest earlier tables on the
+     * level above.
+     *
+     * @param table The index of a table with a parent
+     * @return The index of the parent table
+     */
+    int parentOf(int table) {
+        int step = maxDepth + 1;
+        int candidates = Math.min(PARENT_WINDOW, (table - 1) / step + 1);
+        return table - 1 - step * random(table, 1, candidates);
+    }
+
+    /**
+     * Get the number of fields in a table.
+     *
+     * @param table The index of the table
+     * @return The number of fields
+     */
+    int fieldCount(int table) {
+        return minFields + random(table, 2, maxFields - minFields + 1);
+    }
+
+    /**
+     * Get the name of a table.
+     *
+     * @param table The index of the table
+     * @return The table's name
+     */
+    String tableName(int table) {
+        return TABLE_WORDS[random(table, 3, TABLE_WORDS.length)] + "_" + table;
+    }
+
+    /**
+     * Get the name of a field. The first field is the primary key and, in a
+     * table with a parent, the second is the foreign key.
+     *
+     * @param table The index of the table
+     * @param field The index of the field in the table
+     * @return The field's name
+     */
+    String fieldName(int table, int field) {
+        if (field == 0) {
+            return "ID";
+        }
+        if (field == 1 && hasParent(table)) {
+            return tableName(parentOf(table)) + "_ID";
+        }
+        // Each table starts at a different word, so names repeat across tables but not within one
+        int word = (field + random(table, 4, COLUMN_WORDS.length)) % COLUMN_WORDS.length;
+        int round = field / COLUMN_WORDS.length;
+        return round == 0 ? COLUMN_WORDS[word] : COLUMN_WORDS[word] + "_" + round;
+    }
+
+    /**
+     * Check whether a field is the primary key or a foreign key, both of
+     * which are integers that may not be null.
+     *
+     * @param table The index of the table
+     * @param field The index of the field in the table
+     * @return True if the field is a key
+     */
+    private boolean isKey(int table, int field) {
+        return field == 0 || (field == 1 && hasParent(table));
+    }
+
+    /**
+     * Get the data type of a field.
+     *
+     * @param table The index of the table
+     * @param field The index of the field in the table
+     * @return VARCHAR, CHAR or INTEGER
+     */
+    DataType dataTypeOf(int table, int field) {
+        if (isKey(table, field)) {
+            return DataType.INTEGER;
+        }
+        switch (random(table, 100 + field, 4)) {
+            case 2:
+                return DataType.CHAR;
+            case 3:
+                return DataType.INTEGER;
+            default:
+                return DataType.VARCHAR;
+        }
+    }
+
+    /**
+     * Get the length of a char or varchar field.
+     *
+     * @param table The index of the table
+     * @param field The index of the field in the table
+     * @return The length
+     */
+    private int charLengthOf(int table, int field) {
+        return VARCHAR_LENGTHS[random(table, 100 + field, 4) == 2 ? 0
+                : random(table, 200 + field, VARCHAR_LENGTHS.length)];
+    }
+
+    /**
+     * Build the diagram as a schema, as the parsers would from its files.
+     *
+     * @return The new schema
+     */
+    public Schema buildSchema() {
+        Schema schema = new Schema();
+        Table[] tables = new Table[tableCount];
+        NamePool names = NamePool.getInstance();
+        for (int t = 0; t < tableCount; t++) {
+            Table table = new Table(names.intern(tableName(t)));
+            int fieldCount = fieldCount(t);
+            for (int f = 0; f < fieldCount; f++) {
+                Field field = new Field(names.intern(fieldName(t, f)));
+                DataType dataType = dataTypeOf(t, f);
+                field.setDataType(dataType);
+                if (dataType != DataType.INTEGER) {
+                    field.setCharLength(charLengthOf(t, f));
+                }
+                field.setIsPrimaryKey(f == 0);
+                field.setAutoIncrement(f == 0);
+                field.setAllowNull(!isKey(t, f));
+                field.setTable(table);
+                table.addField(field);
+            }
+            if (hasParent(t)) {
+                Table parent = tables[parentOf(t)];
+                Field foreignKey = table.getFields().get(1);
+                Field parentKey = parent.getFields().get(0);
+                foreignKey.setForeignField(parentKey);
+                table.addRelatedTable(parent);
+                parent.addRelatedTable(table);
+                table.setRelatedField(foreignKey, parentKey);
+            }
+            tables[t] = table;
+            schema.addTable(table);
+        }
+        return schema;
+    }
+
+    /**
+     * Write the diagram to a file in the given format.
+     *
+     * @param file The file to write
+     * @param format EDGE, XML or SAVE
+     * @throws IOException If the file cannot be written
+     */
+    public void write(File file, String format) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            write(writer, format);
+        }
+    }
+
+    /**
+     * Write the diagram in the given format.
+     *
+     * @param writer Where the diagram is written
+     * @param format EDGE, XML or SAVE
+     * @throws IOException If the diagram cannot be written
+     */
+    public void write(Writer writer, String format) throws IOException {
+        switch (format) {
+            case EDGE:
+                writeEdge(writer);
+                break;
+            case XML:
+                writeXML(writer);
+                break;
+            case SAVE:
+                writeSave(writer);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format \"" + format + "\".");
+        }
+    }
+
+    /**
+     * Write the diagram as an Edge Diagrammer file. Entities and attributes
+     * are figures, joined to each other by connectors. Each table's figures
+     * and connectors have ids in fixed slots, so they can be written a table
+     * at a time.
+     *
+     * @param writer Where the file is written
+     * @throws IOException If the file cannot be written
+     */
+    public void writeEdge(Writer writer) throws IOException {
+        writer.write("EDGE Diagram File\nVersion 6.14\n\n");
+        writer.write("## Figure Styles Section:\n\n");
+        writeFigureStyle(writer, "Entity", "ER entity");
+        writeFigureStyle(writer, "Attribute", "ER attribute");
+        writer.write("## Connector Styles Section:\n\n");
+        writer.write("ConnectorStyle \"Relation\"\n{\n  HasButton TRUE\n  End1 \"null\"\n  End2 \"null\"\n}\n\n");
+        writer.write("## Figures & Connectors Section:\n\n");
+        int slotsPerTable = maxFields + 1;
+        int connectorBase = tableCount * slotsPerTable;
+        for (int t = 0; t < tableCount; t++) {
+            int tableFigure = t * slotsPerTable + 1;
+            int x = (t % ENTITIES_PER_ROW) * FIGURE_WIDTH * 2;
+            int y = (t / ENTITIES_PER_ROW) * FIGURE_HEIGHT * (slotsPerTable + 1);
+            int fieldCount = fieldCount(t);
+            writeFigure(writer, tableFigure, "Entity", tableName(t), x, y, false);
+            for (int f = 0; f < fieldCount; f++) {
+                writeFigure(writer, tableFigure + f + 1, "Attribute", fieldName(t, f),
+                        x, y + (f + 1) * FIGURE_HEIGHT, f == 0);
+                writeConnector(writer, connectorBase + tableFigure + f, tableFigure, tableFigure + f + 1,
+                        "null", "null");
+            }
+            if (hasParent(t)) {
+                writeConnector(writer, connectorBase + tableFigure + maxFields,
+                        parentOf(t) * slotsPerTable + 1, tableFigure, "ER mand single", "ER opt many");
+            }
+        }
+    }
+
+    /**
+     * Write a figure style block.
+     *
+     * @param writer Where the file is written
+     * @param style The style's name
+     * @param symbol The symbol figures of the style are drawn with
+     * @throws IOException If the file cannot be written
+     */
+    private static void writeFigureStyle(Writer writer, String style, String symbol) throws IOException {
+        writer.write("FigureStyle \"" + style + "\"\n{\n");
+        writer.write("  Height " + FIGURE_HEIGHT + "\n  Width " + FIGURE_WIDTH + "\n");
+        writer.write("  Symbol \"" + symbol + "\"\n");
+        writer.write("  TypeFace \"Arial\"\n}\n\n");
+    }
+
+    /**
+     * Write a figure block.
+     *
+     * @param writer Where the file is written
+     * @param id The figure's id
+     * @param style Entity or Attribute
+     * @param text The figure's name
+     * @param x The figure's left edge
+     * @param y The figure's top edge
+     * @param underlined Whether the name is underlined, marking a primary key
+     * @throws IOException If the file cannot be written
+     */
+    private static void writeFigure(Writer writer, int id, String style, String text, int x, int y,
+            boolean underlined) throws IOException {
+        writer.write("Figure " + id + "\n{\n");
+        writer.write("  Style \"" + style + "\"\n");
+        writer.write("  Text \"" + text + "\"\n");
+        writer.write("  Bounds " + x + "," + y + "," + (x + FIGURE_WIDTH) + "," + (y + FIGURE_HEIGHT) + "\n");
+        writer.write("  TypeFace \"Arial\"\n");
+        if (underlined) {
+            writer.write("  TypeUnderl TRUE\n");
+        }
+        writer.write("}\n\n");
+    }
+
+    /**
+     * Write a connector block.
+     *
+     * @param writer Where the file is written
+     * @param id The connector's id
+     * @param figure1 The id of the first figure connected
+     * @param figure2 The id of the second figure connected
+     * @param end1 The style of the first end
+     * @param end2 The style of the second end
+     * @throws IOException If the file cannot be written
+     */
+    private static void writeConnector(Writer writer, int id, int figure1, int figure2, String end1, String end2)
+            throws IOException {
+        writer.write("Connector " + id + "\n{\n");
+        writer.write("  Style \"Relation\"\n");
+        writer.write("  Figure1 " + figure1 + "\n");
+        writer.write("  Figure2 " + figure2 + "\n");
+        writer.write("  EndPoint1 0,0\n  EndPoint2 0,0\n");
+        writer.write("  SuppressEnd1 FALSE\n  SuppressEnd2 FALSE\n");
+        writer.write("  End1 \"" + end1 + "\"\n");
+        writer.write("  End2 \"" + end2 + "\"\n");
+        writer.write("}\n\n");
+    }
+
+    /**
+     * Write the diagram as an XML diagram file.
+     *
+     * @param writer Where the file is written
+     * @throws IOException If the file cannot be written
+     */
+    public void writeXML(Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<diagram>\n<tables>\n");
+        for (int t = 0; t < tableCount; t++) {
+            writer.write("<table><name>" + tableName(t) + "</name><fields>\n");
+            int fieldCount = fieldCount(t);
+            for (int f = 0; f < fieldCount; f++) {
+                DataType dataType = dataTypeOf(t, f);
+                if (dataType == DataType.INTEGER) {
+                    writer.write("<field type=\"int\" pkey=\"" + (f == 0) + "\" null=\"" + !isKey(t, f)
+                            + "\" autoincrement=\"" + (f == 0) + "\">" + fieldName(t, f) + "</field>\n");
+                } else {
+                    writer.write("<field type=\"string\" size=\"" + charLengthOf(t, f) + "\" fixed=\""
+                            + (dataType == DataType.CHAR) + "\" null=\"true\">" + fieldName(t, f) + "</field>\n");
+                }
+            }
+            writer.write("</fields></table>\n");
+        }
+        writer.write("</tables>\n<relationships>\n");
+        for (int t = 0; t < tableCount; t++) {
+            if (!hasParent(t)) {
+                continue;
+            }
+            writer.write("<relation><name>FK" + t + "</name>");
+            writer.write("<parent cardinality=\"one\"><tablename>" + tableName(parentOf(t)) + "</tablename></parent>");
+            writer.write("<child cardinality=\"many\"><tablename>" + tableName(t) + "</tablename>");
+            writer.write("<foreignkey references=\"" + fieldName(parentOf(t), 0) + "\">" + fieldName(t, 1)
+                    + "</foreignkey></child></relation>\n");
+        }
+        writer.write("</relationships>\n</diagram>\n");
+    }
+
+    /**
+     * Write the diagram as an EdgeConvert save file.
+     *
+     * @param writer Where the file is written
+     * @throws IOException If the file cannot be written
+     */
+    public void writeSave(Writer writer) throws IOException {
+        writer.write("EdgeConvert Save File\n#Tables#\n");
+        // Ids: each table, followed by its fields, in fixed slots
+        int slotsPerTable = maxFields + 1;
+        int step = maxDepth + 1;
+        for (int t = 0; t < tableCount; t++) {
+            int tableId = t * slotsPerTable + 1;
+            int fieldCount = fieldCount(t);
+            writer.write("Table: " + tableId + "\n{\nTableName: " + tableName(t) + "\nNativeFields: ");
+            for (int f = 0; f < fieldCount; f++) {
+                writer.write((f > 0 ? "|" : "") + (tableId + f + 1));
+            }
+            writer.write("\nRelatedTables: ");
+            String separator = "";
+            if (hasParent(t)) {
+                writer.write(Integer.toString(parentOf(t) * slotsPerTable + 1));
+                separator = "|";
+            }
+            // Children are among the next PARENT_WINDOW tables on the level below
+            for (int k = 0; k < PARENT_WINDOW; k++) {
+                long child = t + 1 + (long) step * k;
+                if (child >= tableCount) {
+                    break;
+                }
+                if (hasParent((int) child) && parentOf((int) child) == t) {
+                    writer.write(separator + (child * slotsPerTable + 1));
+                    separator = "|";
+                }
+            }
+            writer.write("\nRelatedFields: ");
+            for (int f = 0; f < fieldCount; f++) {
+                int related = (f == 1 && hasParent(t)) ? parentOf(t) * slotsPerTable + 2 : 0; // the parent's key
+                writer.write((f > 0 ? "|" : "") + related);
+            }
+            writer.write("\n}\n");
+        }
+        writer.write("#Fields#\n");
+        for (int t = 0; t < tableCount; t++) {
+            int tableId = t * slotsPerTable + 1;
+            int fieldCount = fieldCount(t);
+            for (int f = 0; f < fieldCount; f++) {
+                DataType dataType = dataTypeOf(t, f);
+                String bounds = (f == 1 && hasParent(t)) // the parent's key and table
+                        ? (parentOf(t) * slotsPerTable + 2) + "|" + (parentOf(t) * slotsPerTable + 1)
+                        : "null|null";
+                writer.write((tableId + f + 1) + "|" + fieldName(t, f) + "|" + tableId + "|" + bounds + "|"
+                        + dataType.ordinal() + "|" + (dataType == DataType.INTEGER ? 1 : charLengthOf(t, f))
+                        + "|" + (f == 0) + "|" + isKey(t, f) + "|\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package edgeconvert.diagnostics;
+
+import edgeconvert.Table;
+import edgeconvert.output.DDLBuilder;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a DDLBuilder building DDL from tables it has been
+ * given. The build is also counted in ConversionMetrics, with the characters
+ * of DDL built as its bytes out.
+ */
+@Name("edgeconvert.BuildDDL")
+@Label("Build DDL")
+@Category({"EdgeConvert", "Conversion"})
+@Description("A DDLBuilder plugin building DDL")
+@StackTrace(false)
+public class BuildDDLEvent extends Event {
+
+    @Label("Builder")
+    @Description("Product name of the DDLBuilder plugin")
+    String builder;
+
+    @Label("Tables")
+    int tables;
+
+    @Label("Fields")
+    int fields;
+
+    @Label("DDL Length")
+    @Description("Characters of DDL built")
+    long length;
+
+    // when the event was created, just before it began; not recorded
+    private final transient long startNanos = System.nanoTime();
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param builder The builder that built the DDL
+     * @param tables The tables the DDL was built from
+     * @param ddl The DDL built, or null if the builder failed
+     */
+    public void finish(DDLBuilder builder, List<Table> tables, String ddl) {
+        end();
+        long built = ddl == null ? 0 : ddl.length();
+        ConversionMetrics.getInstance().record(ConversionMetrics.BUILD_DDL, builder.getProductName(),
+                System.nanoTime() - startNanos, ddl != null, 0, built);
+        if (shouldCommit()) {
+            this.builder = builder.getProductName();
+            this.tables = tables.size();
+            this.fields = GetSchemaEvent.countFields(tables);
+            this.length = built;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package edgeconvert.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the statistics of every operation performed by every plugin, and
+ * makes each available over JMX as
+ * edgeconvert:type=Operation,operation=...,plugin=... the first time it is
+ * recorded. The Flight Recorder events in this package record their
+ * operations here whether or not a recording is running. Singleton.
+ */
+public class ConversionMetrics {
+
+    // public static/final attributes
+    public static final String PARSE_FILE = "parseFile";
+    public static final String GET_SCHEMA = "getSchema";
+    public static final String SET_TABLES = "setTables";
+    public static final String BUILD_DDL = "buildDDL";
+    public static final String WRITE_DDL = "writeDDL";
+
+    // private static/final attributes
+    private static final ConversionMetrics INSTANCE = new ConversionMetrics();
+
+    // declarations
+    private final ConcurrentMap<String, OperationStats> stats;
+
+    /**
+     * Construct the metrics. This method is private because the metrics are
+     * accessed via the static getInstance() method.
+     */
+    private ConversionMetrics() {
+        this.stats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the singleton instance of the metrics.
+     *
+     * @return An instance of ConversionMetrics
+     */
+    public static ConversionMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the statistics of an operation, creating and registering them the
+     * first time.
+     *
+     * @param operation The name of the operation
+     * @param plugin The plugin performing it, or null if there is none
+     * @return The operation's statistics
+     */
+    public OperationStats getStats(String operation, String plugin) {
+        String pluginName = plugin == null ? "" : plugin;
+        String key = operation + "\n" + pluginName;
+        OperationStats operationStats = stats.get(key);
+        if (operationStats == null) {
+            OperationStats created = new OperationStats(operation, pluginName);
+            operationStats = stats.putIfAbsent(key, created);
+            if (operationStats == null) { // this thread created them, so registers them
+                operationStats = created;
+                MBeans.register("edgeconvert:type=Operation,operation=" + operation
+                        + (pluginName.isEmpty() ? "" : ",plugin=" + MBeans.quote(pluginName)), created);
+            }
+        }
+        return operationStats;
+    }
+
+    /**
+     * Record one run of an operation.
+     *
+     * @param operation The name of the operation
+     * @param plugin The plugin performing it, or null if there is none
+     * @param nanos How long it took
+     * @param success Whether or not it succeeded
+     * @param in The bytes it read
+     * @param out The bytes it produced
+     */
+    public void record(String operation, String plugin, long nanos, boolean success, long in, long out) {
+        getStats(operation, plugin).record(nanos, success, in, out);
+    }
+
+    /**
+     * Get the statistics of every operation recorded so far.
+     *
+     * @return The statistics
+     */
+    public List<OperationStats> getAllStats() {
+        return new ArrayList<>(stats.values());
+    }
+}
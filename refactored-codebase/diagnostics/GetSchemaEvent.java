@@ -0,0 +1,72 @@
+package edgeconvert.diagnostics;
+
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import edgeconvert.input.FileParser;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a FileParser turning what it read into a Schema.
+ * The call is also counted in ConversionMetrics.
+ */
+@Name("edgeconvert.GetSchema")
+@Label("Get Schema")
+@Category({"EdgeConvert", "Conversion"})
+@Description("A FileParser plugin building the schema of the file it read")
+@StackTrace(false)
+public class GetSchemaEvent extends Event {
+
+    @Label("Parser")
+    @Description("Class of the FileParser plugin")
+    String parser;
+
+    @Label("Tables")
+    int tables;
+
+    @Label("Fields")
+    int fields;
+
+    // when the event was created, just before it began; not recorded
+    private final transient long startNanos = System.nanoTime();
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param parser The parser that built the schema
+     * @param schema The schema built, or null if there is none
+     */
+    public void finish(FileParser parser, Schema schema) {
+        end();
+        ConversionMetrics.getInstance().record(ConversionMetrics.GET_SCHEMA, parser.getClass().getName(),
+                System.nanoTime() - startNanos, schema != null, 0, 0);
+        if (shouldCommit()) {
+            this.parser = parser.getClass().getName();
+            if (schema != null) {
+                List<Table> schemaTables = schema.getTables();
+                this.tables = schemaTables.size();
+                this.fields = countFields(schemaTables);
+            }
+            commit();
+        }
+    }
+
+    /**
+     * Count the fields of some tables.
+     *
+     * @param tables The tables
+     * @return The total number of fields
+     */
+    static int countFields(List<Table> tables) {
+        int count = 0;
+        for (Table table : tables) {
+            count += table.getFields().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+package edgeconvert.diagnostics;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the PluginManager loading the parser and builder
+ * plugins.
+ */
+@Name("edgeconvert.LoadPlugins")
+@Label("Load Plugins")
+@Category({"EdgeConvert", "Plugins"})
+@Description("Plugins being loaded from the classpath and the plugin directory")
+@StackTrace(false)
+public class LoadPluginsEvent extends Event {
+
+    @Label("Plugin Directory")
+    String pluginPath;
+
+    @Label("Parsers")
+    int parsers;
+
+    @Label("Builders")
+    int builders;
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param pluginPath The plugin directory
+     * @param parsers The number of FileParser plugins loaded
+     * @param builders The number of DDLBuilder plugins loaded
+     */
+    public void finish(File pluginPath, int parsers, int builders) {
+        end();
+        if (shouldCommit()) {
+            this.pluginPath = String.valueOf(pluginPath);
+            this.parsers = parsers;
+            this.builders = builders;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package edgeconvert.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registers EdgeConvert's MBeans with the platform MBean server, so they can
+ * be read by JConsole or any JMX-scraping monitor.
+ */
+public class MBeans {
+
+    private static final Logger LOGGER = Logger.getLogger(MBeans.class.getName());
+
+    /**
+     * Construct nothing. All methods are static.
+     */
+    private MBeans() {
+    }
+
+    /**
+     * Register an MBean, replacing any already registered under the same
+     * name. Monitoring is never worth failing for, so problems are logged.
+     *
+     * @param name The object name, such as edgeconvert:type=Mediator
+     * @param mbean The MBean or MXBean implementation
+     */
+    public static void register(String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            synchronized (MBeans.class) {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            LOGGER.log(Level.WARNING, "Unable to register MBean " + name, e);
+        }
+    }
+
+    /**
+     * Quote a value for an object name if it contains characters that
+     * object names do not allow unquoted.
+     *
+     * @param value The value
+     * @return The value, quoted if necessary
+     */
+    public static String quote(String value) {
+        for (char c : value.toCharArray()) {
+            if (c == ',' || c == '=' || c == ':' || c == '"' || c == '*' || c == '?' || c == '\n') {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,201 @@
+package edgeconvert.diagnostics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one operation of one plugin, safe to record from any thread.
+ */
+public class OperationStats implements OperationStatsMXBean {
+
+    // private static/final attributes
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500,
+        1000, 2000, 5000, 10000, 30000, Long.MAX_VALUE};
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // declarations
+    private final String operation;
+    private final String plugin;
+    private final LongAdder count, failureCount, totalNanos, bytesIn, bytesOut;
+    private final AtomicLong maxNanos;
+    private final AtomicLongArray buckets;
+
+    /**
+     * Construct statistics for an operation that has not yet run.
+     *
+     * @param operation The name of the operation
+     * @param plugin The plugin performing it, or an empty string
+     */
+    public OperationStats(String operation, String plugin) {
+        this.operation = operation;
+        this.plugin = plugin;
+        this.count = new LongAdder();
+        this.failureCount = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.bytesIn = new LongAdder();
+        this.bytesOut = new LongAdder();
+        this.maxNanos = new AtomicLong();
+        this.buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length);
+    }
+
+    /**
+     * Record one run of the operation.
+     *
+     * @param nanos How long it took
+     * @param success Whether or not it succeeded
+     * @param in The bytes it read
+     * @param out The bytes it produced
+     */
+    public void record(long nanos, boolean success, long in, long out) {
+        count.increment();
+        if (!success) {
+            failureCount.increment();
+        }
+        totalNanos.add(nanos);
+        bytesIn.add(in);
+        bytesOut.add(out);
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // another thread recorded a new maximum first, so compare again
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+    }
+
+    /**
+     * Get the name of the operation.
+     *
+     * @return The operation
+     */
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the plugin performing the operation.
+     *
+     * @return The plugin, or an empty string
+     */
+    @Override
+    public String getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Get the number of times the operation has run.
+     *
+     * @return The invocation count
+     */
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the number of times the operation has failed.
+     *
+     * @return The failure count
+     */
+    @Override
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Get the total time spent in the operation.
+     *
+     * @return The time in milliseconds
+     */
+    @Override
+    public double getTotalTimeMillis() {
+        return totalNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Get the mean time the operation took.
+     *
+     * @return The time in milliseconds
+     */
+    @Override
+    public double getMeanTimeMillis() {
+        long runs = count.sum();
+        return runs == 0 ? 0 : totalNanos.sum() / NANOS_PER_MILLI / runs;
+    }
+
+    /**
+     * Get the longest time the operation took.
+     *
+     * @return The time in milliseconds
+     */
+    @Override
+    public double getMaxTimeMillis() {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Get the upper bounds of the latency histogram's buckets.
+     *
+     * @return The bounds in milliseconds
+     */
+    @Override
+    public long[] getLatencyBucketBoundsMillis() {
+        return BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * Get the number of runs in each latency bucket.
+     *
+     * @return The count in each bucket
+     */
+    @Override
+    public long[] getLatencyBucketCounts() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the bytes read by the operation.
+     *
+     * @return The bytes read
+     */
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * Get the bytes produced by the operation.
+     *
+     * @return The bytes produced
+     */
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * Set every statistic back to zero.
+     */
+    @Override
+    public void reset() {
+        count.reset();
+        failureCount.reset();
+        totalNanos.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        maxNanos.set(0);
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package edgeconvert.diagnostics;
+
+/**
+ * Management interface for the statistics of one operation of one plugin,
+ * such as an EdgeParser parsing files or a MySQL builder building DDL.
+ */
+public interface OperationStatsMXBean {
+
+    /**
+     * Get the name of the operation, such as parseFile or buildDDL.
+     *
+     * @return The operation
+     */
+    public String getOperation();
+
+    /**
+     * Get the parser class or builder product name performing the operation.
+     *
+     * @return The plugin, or an empty string if there is none
+     */
+    public String getPlugin();
+
+    /**
+     * Get the number of times the operation has run.
+     *
+     * @return The invocation count
+     */
+    public long getCount();
+
+    /**
+     * Get the number of times the operation has failed.
+     *
+     * @return The failure count
+     */
+    public long getFailureCount();
+
+    /**
+     * Get the total time spent in the operation.
+     *
+     * @return The time in milliseconds
+     */
+    public double getTotalTimeMillis();
+
+    /**
+     * Get the mean time the operation took.
+     *
+     * @return The time in milliseconds, or 0 if it has not run
+     */
+    public double getMeanTimeMillis();
+
+    /**
+     * Get the longest time the operation took.
+     *
+     * @return The time in milliseconds
+     */
+    public double getMaxTimeMillis();
+
+    /**
+     * Get the upper bounds of the latency histogram's buckets. The last
+     * bucket has no upper bound and is given as Long.MAX_VALUE.
+     *
+     * @return The bounds in milliseconds
+     */
+    public long[] getLatencyBucketBoundsMillis();
+
+    /**
+     * Get the number of times the operation took up to each bucket's bound,
+     * and more than the previous bucket's.
+     *
+     * @return The count in each bucket
+     */
+    public long[] getLatencyBucketCounts();
+
+    /**
+     * Get the bytes read by the operation, such as the size of parsed files.
+     *
+     * @return The bytes read
+     */
+    public long getBytesIn();
+
+    /**
+     * Get the bytes produced by the operation, such as the characters of DDL
+     * built or the size of files written.
+     *
+     * @return The bytes produced
+     */
+    public long getBytesOut();
+
+    /**
+     * Set every statistic back to zero.
+     */
+    public void reset();
+}
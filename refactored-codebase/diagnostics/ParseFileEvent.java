@@ -0,0 +1,61 @@
+package edgeconvert.diagnostics;
+
+import edgeconvert.input.FileParser;
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a FileParser reading a file. The parse is also
+ * counted in ConversionMetrics.
+ */
+@Name("edgeconvert.ParseFile")
+@Label("Parse File")
+@Category({"EdgeConvert", "Conversion"})
+@Description("A FileParser plugin reading an input file")
+@StackTrace(false)
+public class ParseFileEvent extends Event {
+
+    @Label("Parser")
+    @Description("Class of the FileParser plugin")
+    String parser;
+
+    @Label("File")
+    String path;
+
+    @Label("File Size")
+    @DataAmount
+    long fileSize;
+
+    @Label("Success")
+    boolean success;
+
+    // when the event was created, just before it began; not recorded
+    private final transient long startNanos = System.nanoTime();
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param parser The parser that read the file
+     * @param file The file read
+     * @param success Whether or not the file was parsed
+     */
+    public void finish(FileParser parser, File file, boolean success) {
+        end();
+        long size = file == null ? 0 : file.length();
+        ConversionMetrics.getInstance().record(ConversionMetrics.PARSE_FILE, parser.getClass().getName(),
+                System.nanoTime() - startNanos, success, size, 0);
+        if (shouldCommit()) {
+            this.parser = parser.getClass().getName();
+            this.path = String.valueOf(file);
+            this.fileSize = size;
+            this.success = success;
+            commit();
+        }
+    }
+}
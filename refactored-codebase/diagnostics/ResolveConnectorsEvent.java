@@ -0,0 +1,51 @@
+package edgeconvert.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for EdgeParser joining the figures of an Edge
+ * Diagrammer file with its connectors.
+ */
+@Name("edgeconvert.ResolveConnectors")
+@Label("Resolve Connectors")
+@Category({"EdgeConvert", "Conversion"})
+@Description("EdgeParser matching connectors to the entity and attribute figures they join")
+@StackTrace(false)
+public class ResolveConnectorsEvent extends Event {
+
+    @Label("Tables")
+    int tables;
+
+    @Label("Fields")
+    int fields;
+
+    @Label("Connectors")
+    int connectors;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param tables The number of entity figures
+     * @param fields The number of attribute figures
+     * @param connectors The number of connectors
+     * @param success Whether or not every connector was resolved
+     */
+    public void finish(int tables, int fields, int connectors, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.tables = tables;
+            this.fields = fields;
+            this.connectors = connectors;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,646 @@
+package edgeconvert.diagnostics;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Vector;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Estimates the heap retained by a Schema, broken down by the part of the
+ * model holding it, so heaps can be sized for large catalogs and the cost of
+ * the observer lists every Table and Field carries can be seen.
+ *
+ * No agent is needed: object sizes are worked out from each class's instance
+ * fields and the layout HotSpot uses (object headers, compressed references
+ * if enabled, 8-byte alignment), and collection arrays from the capacities
+ * their growth policies give. Strings shared between fields are only counted
+ * once. Enum constants and the observers themselves are not counted.
+ */
+public class SchemaFootprint {
+
+    /**
+     * The parts of the model memory is attributed to.
+     */
+    public enum Part {
+
+        SCHEMA("Schema and its table list"),
+        TABLES("Table objects"),
+        TABLE_COLLECTIONS("Table field, relation and index collections"),
+        FIELDS("Field objects"),
+        STRINGS("Names and default values"),
+        OBSERVER_LISTS("Observer lists");
+
+        private final String label;
+
+        /**
+         * Construct a part.
+         *
+         * @param label A description of the part for reports
+         */
+        Part(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Get a description of the part for reports.
+         *
+         * @return The description
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * The memory retained by one table and its fields.
+     */
+    public static class TableFootprint {
+
+        private final String name;
+        private final int fieldCount;
+        private final long bytes;
+
+        /**
+         * Construct a table footprint.
+         *
+         * @param name The table's name
+         * @param fieldCount The number of fields in the table
+         * @param bytes The bytes retained by the table and its fields
+         */
+        TableFootprint(String name, int fieldCount, long bytes) {
+            this.name = name;
+            this.fieldCount = fieldCount;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Get the table's name.
+         *
+         * @return The name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the number of fields in the table.
+         *
+         * @return The field count
+         */
+        public int getFieldCount() {
+            return fieldCount;
+        }
+
+        /**
+         * Get the bytes retained by the table and its fields.
+         *
+         * @return The bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    // public static/final attributes
+    public static final long PROJECTED_FIELDS = 1000000;
+    public static final double COMPACT_RECOMMENDATION_SHARE = 0.2;
+
+    // private static/final attributes
+    private static final int OBSERVABLE_INITIAL_CAPACITY = 10; // new Vector()
+    private static final int ARRAY_LIST_INITIAL_CAPACITY = 10;
+    private static final int HASH_MAP_INITIAL_CAPACITY = 16;
+    private static final float HASH_MAP_LOAD_FACTOR = 0.75f;
+    private static final int INTEGER_CACHE_HIGH = 127;
+
+    // declarations
+    private final Layout layout;
+    private final Map<Part, Long> bytes;
+    private final List<TableFootprint> tableFootprints;
+    private final Map<String, Boolean> countedStrings; // identity, so equal copies are each counted
+    private final Map<String, Integer> stringCopies;
+    private int tableCount, fieldCount, observableCount, observerRegistrations;
+    private long lazyObserverBytes, duplicateStringBytes;
+
+    /**
+     * Construct an empty footprint.
+     *
+     * @param layout How objects are laid out
+     */
+    private SchemaFootprint(Layout layout) {
+        this.layout = layout;
+        this.bytes = new EnumMap<>(Part.class);
+        for (Part part : Part.values()) {
+            bytes.put(part, 0L);
+        }
+        this.tableFootprints = new ArrayList<>();
+        this.countedStrings = new IdentityHashMap<>();
+        this.stringCopies = new HashMap<>();
+    }
+
+    /**
+     * Estimate the memory retained by a schema, with the object layout of
+     * the running JVM. Schemas are only changed on the event dispatch thread,
+     * so an open schema should be measured there.
+     *
+     * @param schema The schema to measure
+     * @return The schema's footprint
+     */
+    public static SchemaFootprint measure(Schema schema) {
+        SchemaFootprint footprint = new SchemaFootprint(Layout.current());
+        footprint.walk(schema);
+        return footprint;
+    }
+
+    /**
+     * Walk the schema, adding up each part.
+     *
+     * @param schema The schema to measure
+     */
+    private void walk(Schema schema) {
+        List<Table> tables = schema.getTables();
+        add(Part.SCHEMA, layout.sizeOf(Schema.class) + layout.sizeOf(StampedLock.class)
+                + arrayListSize(tables.size())
+                + hashMapSize(tables.size()) + boxedIndexesSize(tables.size()));
+        addObservable(schema);
+        for (Table table : tables) {
+            long before = getTotalBytes();
+            walk(table);
+            tableFootprints.add(new TableFootprint(table.getName(), table.getFields().size(),
+                    getTotalBytes() - before));
+        }
+        tableCount = tables.size();
+    }
+
+    /**
+     * Walk a table and its fields.
+     *
+     * @param table The table to measure
+     */
+    private void walk(Table table) {
+        List<Field> fields = table.getFields();
+        int relatedFields = table.getRelatedFields().size();
+        int indexes = table.getIndexes().size();
+        add(Part.TABLES, layout.sizeOf(Table.class) + layout.sizeOf(StampedLock.class));
+        add(Part.TABLE_COLLECTIONS, arrayListSize(fields.size())
+                + hashMapSize(fields.size()) + boxedIndexesSize(fields.size())
+                + arrayListSize(table.getRelatedTables().size())
+                + hashMapSize(relatedFields) + hashMapSize(indexes));
+        addString(table.getName());
+        for (String indexName : table.getIndexes().keySet()) {
+            addString(indexName);
+        }
+        addObservable(table);
+        for (Field field : fields) {
+            add(Part.FIELDS, layout.sizeOf(Field.class));
+            addString(field.getName());
+            addString(field.getDefaultValue());
+            addObservable(field);
+            fieldCount++;
+        }
+    }
+
+    /**
+     * Add the observer list of an Observable. Every Observable creates a
+     * Vector of ten slots, whether or not anything observes it.
+     *
+     * @param observable The schema, table or field
+     */
+    private void addObservable(Observable observable) {
+        addObserverList(observable.countObservers());
+    }
+
+    /**
+     * Add the Vector of an Observable's observers.
+     *
+     * @param observers The number of observers registered
+     */
+    private void addObserverList(int observers) {
+        int capacity = OBSERVABLE_INITIAL_CAPACITY;
+        while (capacity < observers) {
+            capacity *= 2; // Vector doubles
+        }
+        long listBytes = layout.sizeOf(Vector.class) + layout.referenceArraySize(capacity);
+        add(Part.OBSERVER_LISTS, listBytes);
+        observableCount++;
+        observerRegistrations += observers;
+        // Stored lazily, an unobserved object would need nothing and an
+        // observed one an exactly sized array
+        lazyObserverBytes += observers == 0 ? 0 : layout.referenceArraySize(observers);
+    }
+
+    /**
+     * Add a string, unless this same string object has been counted already.
+     *
+     * @param string The string, or null
+     */
+    private void addString(String string) {
+        if (string == null || countedStrings.put(string, Boolean.TRUE) != null) {
+            return;
+        }
+        long size = layout.stringSize(string);
+        add(Part.STRINGS, size);
+        Integer copies = stringCopies.get(string);
+        if (copies == null) {
+            stringCopies.put(string, 1);
+        } else { // an equal string is already held, so interning would save this one
+            stringCopies.put(string, copies + 1);
+            duplicateStringBytes += size;
+        }
+    }
+
+    /**
+     * Add bytes to a part.
+     *
+     * @param part The part
+     * @param size The bytes
+     */
+    private void add(Part part, long size) {
+        bytes.put(part, bytes.get(part) + size);
+    }
+
+    /**
+     * Get the size of an ArrayList filled by adding elements one at a time.
+     *
+     * @param size The number of elements
+     * @return The bytes of the list and its array
+     */
+    private long arrayListSize(int size) {
+        if (size == 0) {
+            return layout.sizeOf(ArrayList.class); // shares an empty array
+        }
+        int capacity = ARRAY_LIST_INITIAL_CAPACITY;
+        while (capacity < size) {
+            capacity += capacity >> 1; // ArrayList grows by half
+        }
+        return layout.sizeOf(ArrayList.class) + layout.referenceArraySize(capacity);
+    }
+
+    /**
+     * Get the size of a HashMap filled by putting entries one at a time.
+     *
+     * @param size The number of entries
+     * @return The bytes of the map, its table and its nodes
+     */
+    private long hashMapSize(int size) {
+        if (size == 0) {
+            return layout.sizeOf(HashMap.class); // the table is created on the first put
+        }
+        int capacity = HASH_MAP_INITIAL_CAPACITY;
+        while (size > capacity * HASH_MAP_LOAD_FACTOR) {
+            capacity *= 2;
+        }
+        return layout.sizeOf(HashMap.class) + layout.referenceArraySize(capacity)
+                + (long) size * layout.sizeOf(Layout.HASH_MAP_NODE);
+    }
+
+    /**
+     * Get the size of the Integers boxing the indexes 0 to size - 1. Small
+     * values come from the Integer cache and cost nothing.
+     *
+     * @param size The number of indexes
+     * @return The bytes of the uncached Integers
+     */
+    private long boxedIndexesSize(int size) {
+        return Math.max(0, size - INTEGER_CACHE_HIGH - 1) * (long) layout.sizeOf(Integer.class);
+    }
+
+    /**
+     * Get the estimated bytes retained by the schema.
+     *
+     * @return The total bytes
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (long partBytes : bytes.values()) {
+            total += partBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Get the estimated bytes retained by one part of the model.
+     *
+     * @param part The part
+     * @return The part's bytes
+     */
+    public long getBytes(Part part) {
+        return bytes.get(part);
+    }
+
+    /**
+     * Get the number of tables measured.
+     *
+     * @return The table count
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Get the number of fields measured.
+     *
+     * @return The field count
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Get the number of observers registered with the schema, its tables and
+     * its fields.
+     *
+     * @return The registration count
+     */
+    public int getObserverRegistrations() {
+        return observerRegistrations;
+    }
+
+    /**
+     * Get the footprint of each table, in schema order.
+     *
+     * @return The table footprints
+     */
+    public List<TableFootprint> getTableFootprints() {
+        return Collections.unmodifiableList(tableFootprints);
+    }
+
+    /**
+     * Get the bytes that storing observers only once there are some, in
+     * exactly sized arrays, would save.
+     *
+     * @return The bytes saved
+     */
+    public long getLazyObserverSavings() {
+        return getBytes(Part.OBSERVER_LISTS) - lazyObserverBytes;
+    }
+
+    /**
+     * Get the bytes taken by strings equal to another string already held,
+     * which interning names would save.
+     *
+     * @return The bytes saved
+     */
+    public long getDuplicateStringBytes() {
+        return duplicateStringBytes;
+    }
+
+    /**
+     * Determine whether a compact representation, with lazily stored
+     * observers and interned names, would save enough to be worth using.
+     *
+     * @return Whether or not compact mode is recommended
+     */
+    public boolean isCompactModeRecommended() {
+        long total = getTotalBytes();
+        return total > 0
+                && getLazyObserverSavings() + getDuplicateStringBytes() >= total * COMPACT_RECOMMENDATION_SHARE;
+    }
+
+    /**
+     * Write a readable report of the footprint.
+     *
+     * @param largestTables How many of the largest tables to list
+     * @return The report
+     */
+    public String toReport(int largestTables) {
+        StringBuilder sb = new StringBuilder();
+        long total = getTotalBytes();
+        sb.append(String.format("Estimated schema footprint (%s)%n", layout));
+        sb.append(String.format("%,d tables, %,d fields, %,d observer registrations on %,d objects%n%n",
+                tableCount, fieldCount, observerRegistrations, observableCount));
+        for (Part part : Part.values()) {
+            sb.append(String.format("  %-45s %,15d  %5.1f%%%n", part.getLabel(), getBytes(part),
+                    share(getBytes(part), total)));
+        }
+        sb.append(String.format("  %-45s %,15d%n%n", "Total", total));
+
+        long fieldBytes = getBytes(Part.FIELDS);
+        if (tableCount > 0) {
+            sb.append(String.format("Per table, without its fields: %,d bytes%n",
+                    (getBytes(Part.TABLES) + getBytes(Part.TABLE_COLLECTIONS)) / tableCount));
+        }
+        if (fieldCount > 0) {
+            sb.append(String.format("Per field, with its share of everything else: %,d bytes (a Field object is %,d)%n",
+                    total / fieldCount, fieldBytes / fieldCount));
+            sb.append(String.format("Projected for %,d fields: %,d MB%n",
+                    PROJECTED_FIELDS, total * PROJECTED_FIELDS / fieldCount / (1024 * 1024)));
+        }
+        if (observableCount > 0) {
+            sb.append(String.format("Per observer list: %,d bytes, each registration adds %d bytes once its %d slots are full%n",
+                    getBytes(Part.OBSERVER_LISTS) / observableCount, layout.referenceSize,
+                    OBSERVABLE_INITIAL_CAPACITY));
+        }
+
+        if (largestTables > 0 && !tableFootprints.isEmpty()) {
+            List<TableFootprint> largest = new ArrayList<>(tableFootprints);
+            Collections.sort(largest, new Comparator<TableFootprint>() {
+                @Override
+                public int compare(TableFootprint t1, TableFootprint t2) {
+                    return Long.compare(t2.getBytes(), t1.getBytes());
+                }
+            });
+            sb.append(String.format("%nLargest tables:%n"));
+            for (TableFootprint table : largest.subList(0, Math.min(largestTables, largest.size()))) {
+                sb.append(String.format("  %-45s %,7d fields %,15d%n", table.getName(), table.getFieldCount(),
+                        table.getBytes()));
+            }
+        }
+
+        sb.append(String.format("%nStoring observers lazily would save %,d bytes (%.1f%%); interning names %,d bytes (%.1f%%).%n",
+                getLazyObserverSavings(), share(getLazyObserverSavings(), total),
+                getDuplicateStringBytes(), share(getDuplicateStringBytes(), total)));
+        sb.append(isCompactModeRecommended()
+                ? "Compact mode is recommended for schemas like this one."
+                : "Compact mode would save little for schemas like this one.");
+        return sb.append(String.format("%n")).toString();
+    }
+
+    /**
+     * Get a share of a total as a percentage.
+     *
+     * @param part The share
+     * @param total The total
+     * @return The percentage
+     */
+    private static double share(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    /**
+     * How the running JVM lays objects out.
+     */
+    static class Layout {
+
+        static final Class<?> HASH_MAP_NODE = nodeClass();
+        private static final int ALIGNMENT = 8;
+
+        private final boolean compressed;
+        private final int headerSize, arrayHeaderSize, referenceSize;
+        private final boolean compactStrings;
+        private final Map<Class<?>, Integer> sizes;
+
+        /**
+         * Construct a layout.
+         *
+         * @param compressed Whether references and class pointers are
+         * compressed
+         * @param compactStrings Whether strings of Latin-1 characters take a
+         * byte a character
+         */
+        Layout(boolean compressed, boolean compactStrings) {
+            this.compressed = compressed;
+            this.headerSize = compressed ? 12 : 16;
+            this.arrayHeaderSize = compressed ? 16 : 24; // header and length, aligned for the elements
+            this.referenceSize = compressed ? 4 : 8;
+            this.compactStrings = compactStrings;
+            this.sizes = new HashMap<>();
+        }
+
+        /**
+         * Work out the layout of the running JVM.
+         *
+         * @return The layout
+         */
+        static Layout current() {
+            boolean compressed;
+            try {
+                com.sun.management.HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(
+                        com.sun.management.HotSpotDiagnosticMXBean.class);
+                compressed = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+            } catch (RuntimeException | LinkageError e) { // not HotSpot; compressed below 32GB heaps
+                compressed = !"64".equals(System.getProperty("sun.arch.data.model"))
+                        || Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+            }
+            boolean compactStrings;
+            try {
+                String.class.getDeclaredField("coder"); // only present where strings may be one byte a char
+                compactStrings = true;
+            } catch (NoSuchFieldException nsfe) {
+                compactStrings = false;
+            }
+            return new Layout(compressed, compactStrings);
+        }
+
+        /**
+         * Find HashMap's entry class.
+         *
+         * @return The class, or Object if it cannot be found
+         */
+        private static Class<?> nodeClass() {
+            try {
+                return Class.forName("java.util.HashMap$Node");
+            } catch (ClassNotFoundException cnfe) {
+                return Object.class;
+            }
+        }
+
+        /**
+         * Get the size of an instance of a class, from its own and its
+         * superclasses' instance fields.
+         *
+         * @param type The class
+         * @return The bytes of one instance
+         */
+        synchronized int sizeOf(Class<?> type) {
+            Integer size = sizes.get(type);
+            if (size == null) {
+                long fieldBytes = 0;
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    for (java.lang.reflect.Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            fieldBytes += fieldSize(field.getType());
+                        }
+                    }
+                }
+                size = (int) align(headerSize + fieldBytes);
+                sizes.put(type, size);
+            }
+            return size;
+        }
+
+        /**
+         * Get the size of a field of a given type.
+         *
+         * @param type The field's type
+         * @return The bytes the field takes
+         */
+        private int fieldSize(Class<?> type) {
+            if (!type.isPrimitive()) {
+                return referenceSize;
+            }
+            if (type == long.class || type == double.class) {
+                return 8;
+            }
+            if (type == int.class || type == float.class) {
+                return 4;
+            }
+            if (type == short.class || type == char.class) {
+                return 2;
+            }
+            return 1; // byte, boolean
+        }
+
+        /**
+         * Get the size of an array of references.
+         *
+         * @param length The array's length
+         * @return The bytes of the array
+         */
+        long referenceArraySize(int length) {
+            return align(arrayHeaderSize + (long) length * referenceSize);
+        }
+
+        /**
+         * Get the size of a string and its character array.
+         *
+         * @param string The string
+         * @return The bytes of the string
+         */
+        long stringSize(String string) {
+            int bytesPerChar = 2;
+            if (compactStrings) {
+                bytesPerChar = 1;
+                for (int i = 0; i < string.length(); i++) {
+                    if (string.charAt(i) > 0xFF) {
+                        bytesPerChar = 2;
+                        break;
+                    }
+                }
+            }
+            return sizeOf(String.class) + align(arrayHeaderSize + (long) string.length() * bytesPerChar);
+        }
+
+        /**
+         * Round a size up to the object alignment.
+         *
+         * @param size The size
+         * @return The aligned size
+         */
+        private static long align(long size) {
+            return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        }
+
+        /**
+         * Describe the layout for reports.
+         *
+         * @return The description
+         */
+        @Override
+        public String toString() {
+            return (compressed ? "compressed" : "uncompressed") + " references, "
+                    + (compactStrings ? "compact" : "two-byte") + " strings";
+        }
+    }
+}
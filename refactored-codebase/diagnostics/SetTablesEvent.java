@@ -0,0 +1,61 @@
+package edgeconvert.diagnostics;
+
+import edgeconvert.Table;
+import edgeconvert.output.DDLBuilder;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a DDLBuilder being given the tables to build DDL
+ * from, which builders use to sort and number them. The call is also counted
+ * in ConversionMetrics.
+ */
+@Name("edgeconvert.SetTables")
+@Label("Set Tables")
+@Category({"EdgeConvert", "Conversion"})
+@Description("A DDLBuilder plugin preparing the tables to build DDL from")
+@StackTrace(false)
+public class SetTablesEvent extends Event {
+
+    @Label("Builder")
+    @Description("Product name of the DDLBuilder plugin")
+    String builder;
+
+    @Label("Tables")
+    int tables;
+
+    @Label("Fields")
+    int fields;
+
+    @Label("Success")
+    boolean success;
+
+    // when the event was created, just before it began; not recorded
+    private final transient long startNanos = System.nanoTime();
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param builder The builder given the tables
+     * @param tables The tables given
+     * @param success Whether or not the builder took the tables without
+     * throwing
+     */
+    public void finish(DDLBuilder builder, List<Table> tables, boolean success) {
+        end();
+        ConversionMetrics.getInstance().record(ConversionMetrics.SET_TABLES, builder.getProductName(),
+                System.nanoTime() - startNanos, success, 0, 0);
+        if (shouldCommit()) {
+            this.builder = builder.getProductName();
+            this.tables = tables.size();
+            this.fields = GetSchemaEvent.countFields(tables);
+            this.success = success;
+            commit();
+        }
+    }
+}
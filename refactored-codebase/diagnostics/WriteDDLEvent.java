@@ -0,0 +1,54 @@
+package edgeconvert.diagnostics;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for DDL being written to its output file. The write
+ * is also counted in ConversionMetrics.
+ */
+@Name("edgeconvert.WriteDDL")
+@Label("Write DDL")
+@Category({"EdgeConvert", "Conversion"})
+@Description("DDL being written to a temporary file and moved over the output file")
+@StackTrace(false)
+public class WriteDDLEvent extends Event {
+
+    @Label("File")
+    String path;
+
+    @Label("File Size")
+    @DataAmount
+    long fileSize;
+
+    @Label("Success")
+    boolean success;
+
+    // when the event was created, just before it began; not recorded
+    private final transient long startNanos = System.nanoTime();
+
+    /**
+     * End the event and, if it is being recorded, commit it.
+     *
+     * @param file The output file
+     * @param success Whether or not the file was written
+     */
+    public void finish(File file, boolean success) {
+        end();
+        long size = success ? file.length() : 0;
+        ConversionMetrics.getInstance().record(ConversionMetrics.WRITE_DDL, null,
+                System.nanoTime() - startNanos, success, 0, size);
+        if (shouldCommit()) {
+            this.path = String.valueOf(file);
+            this.fileSize = size;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package edgeconvert.input;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.DataType;
 import edgeconvert.EdgeConnector;
 import edgeconvert.EdgeField;
 import edgeconvert.EdgeTable;
 import edgeconvert.Field;
+import edgeconvert.NamePool;
 import edgeconvert.Schema;
 import edgeconvert.Table;
+import edgeconvert.diagnostics.ResolveConnectorsEvent;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +35,7 @@ public class EdgeParser implements FileParser {
     private List<EdgeField> fields;
     private List<EdgeConnector> connectors;
     private String currentLine, errorMessage;
+    private ParseProgressListener progressListener;
 
     // static/final attributes
     public static final String PRODUCT_NAME = "EDGE Diagram File"; //first line of .edg files should be this
@@ -75,6 +81,15 @@ public class EdgeParser implements FileParser {
         this.inputFile = inputFile;
     }
 
+    /**
+     * Sets the listener told how much of the file has been read
+     * @param listener the listener
+     */
+    @Override
+    public void setProgressListener(ParseProgressListener listener) {
+        this.progressListener = listener;
+    }
+
     /**
      * Checks to ensure that the proper file type is being used.
      *
@@ -87,11 +102,16 @@ public class EdgeParser implements FileParser {
 
         try {
             // Instantiate BufferedReader
-            br = new BufferedReader(new FileReader(inputFile));
+            br = new BufferedReader(new InputStreamReader(new ProgressInputStream(
+                    new FileInputStream(inputFile), inputFile.length(), progressListener)));
             // Ensure we have the correct file type, and parse
             if (br.readLine().trim().startsWith(PRODUCT_NAME)) {
                 return true;
             }
+        } catch (InterruptedIOException iioe) { // parsing was cancelled
+            this.errorMessage = "Parsing was cancelled.";
+            closeReader();
+            return false;
         } catch (IOException ioe) {
             return false;
         }
@@ -131,7 +151,15 @@ public class EdgeParser implements FileParser {
                 }
             }
             br.close();
-            return this.resolveConnectors(); // once read resolve connectors and return success
+            ResolveConnectorsEvent event = new ResolveConnectorsEvent();
+            event.begin();
+            boolean resolved = this.resolveConnectors(); // once read resolve connectors and return success
+            event.finish(tables.size(), fields.size(), connectors.size(), resolved);
+            return resolved;
+        } catch (InterruptedIOException iioe) { // parsing was cancelled
+            this.errorMessage = "Parsing was cancelled.";
+            closeReader();
+            return false;
         } catch (IOException ioe) {
             return false;
         }
@@ -147,6 +175,18 @@ public class EdgeParser implements FileParser {
         return new Schema(getTables());
     }
 
+    /**
+     * Gets the schema packed into arrays, straight from the parsed tables
+     * and fields without creating Table and Field objects, with the
+     * tables in the same order as getSchema
+     * 
+     * @return the packed schema
+     */
+    @Override
+    public ColumnarSchema getColumnarSchema() {
+        return ColumnarSchema.of(tables, fields);
+    }
+
     /**
      * Get a list of parsed tables.
      *
@@ -250,6 +290,7 @@ public class EdgeParser implements FileParser {
 
             // Trim off everything after the escape character
             name = (name.indexOf("\\") > 0) ? name.substring(0, name.indexOf("\\")) : name;
+            name = NamePool.getInstance().intern(name); // names repeat across tables, so keep one copy
 
             boolean isUnderlined = checkUnderline();
 
@@ -378,6 +419,17 @@ public class EdgeParser implements FileParser {
         return currentLine.substring(currentLine.indexOf("\"") + 1, currentLine.lastIndexOf("\""));
     }
 
+    /**
+     * Closes the reader, ignoring any errors
+     */
+    private void closeReader() {
+        try {
+            br.close();
+        } catch (IOException ioe) {
+            // nothing more can be done
+        }
+    }
+
     /**
      * Reads a certain number of lines forward
      *
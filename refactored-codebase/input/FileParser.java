@@ -1,5 +1,6 @@
 package edgeconvert.input;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.Schema;
 import java.io.File;
 import net.xeoh.plugins.base.Plugin;
@@ -40,11 +41,29 @@ public interface FileParser extends Plugin {
      * @return The schema from the file.
      */
     public Schema getSchema();
+
+    /**
+     * Get the schema parsed from the file packed into arrays, for analysing
+     * very large catalogs. Parsers that cannot pack it directly pack the
+     * schema from getSchema.
+     * @return The schema from the file, packed into arrays
+     */
+    public default ColumnarSchema getColumnarSchema() {
+        return ColumnarSchema.of(getSchema());
+    }
     
     /**
      * If a problem occurred while parsing, return the cause of the problem.
      * @return An explanation of why parsing failed
      */
     public String getErrorMessage();
+
+    /**
+     * Set the listener told about progress while the file is parsed. Parsers
+     * that cannot report progress may ignore the listener.
+     * @param listener The listener to be notified, or null
+     */
+    public default void setProgressListener(ParseProgressListener listener) {
+    }
         
 }
@@ -0,0 +1,15 @@
+package edgeconvert.input;
+
+/**
+ * Listener notified by a FileParser as it works through its file.
+ */
+public interface ParseProgressListener {
+
+    /**
+     * Called as the parser reads its file.
+     *
+     * @param processed The number of bytes read so far
+     * @param total The size of the file in bytes
+     */
+    public void progressMade(long processed, long total);
+}
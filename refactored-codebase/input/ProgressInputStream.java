@@ -0,0 +1,114 @@
+package edgeconvert.input;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Input stream used by parsers to report how much of their file has been
+ * read. Also lets a parse be cancelled: once the reading thread is
+ * interrupted, the next read fails with an InterruptedIOException.
+ */
+public class ProgressInputStream extends FilterInputStream {
+
+    // private static/final attributes
+    private static final long MIN_REPORT_INTERVAL = 8192;
+
+    // declarations
+    private final long total;
+    private final long reportInterval;
+    private final ParseProgressListener listener;
+    private long processed, nextReport;
+
+    /**
+     * Wrap the given stream.
+     *
+     * @param in The stream being read
+     * @param total The number of bytes in the stream
+     * @param listener The listener told about progress, or null
+     */
+    public ProgressInputStream(InputStream in, long total, ParseProgressListener listener) {
+        super(in);
+        this.total = total;
+        this.reportInterval = Math.max(total / 100, MIN_REPORT_INTERVAL); // about once per percent
+        this.listener = listener;
+        this.processed = 0;
+        this.nextReport = reportInterval;
+    }
+
+    /**
+     * Read a single byte.
+     *
+     * @return The byte read, or -1 at the end of the stream
+     * @throws IOException If reading fails or the thread was interrupted
+     */
+    @Override
+    public int read() throws IOException {
+        checkInterrupted();
+        int b = super.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    /**
+     * Read bytes into part of the given array.
+     *
+     * @param b The buffer to read into
+     * @param off Where in the buffer to start
+     * @param len The most bytes to read
+     * @return The number of bytes read, or -1 at the end of the stream
+     * @throws IOException If reading fails or the thread was interrupted
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkInterrupted();
+        int count = super.read(b, off, len);
+        if (count > 0) {
+            advance(count);
+        }
+        return count;
+    }
+
+    /**
+     * Skip over bytes in the stream.
+     *
+     * @param n The number of bytes to skip
+     * @return The number of bytes skipped
+     * @throws IOException If skipping fails or the thread was interrupted
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        checkInterrupted();
+        long count = super.skip(n);
+        advance(count);
+        return count;
+    }
+
+    /**
+     * Record that bytes were read, notifying the listener when enough have
+     * been read since it was last notified.
+     *
+     * @param count The number of bytes read
+     */
+    private void advance(long count) {
+        processed += count;
+        if (listener != null && processed >= nextReport) {
+            nextReport = processed + reportInterval;
+            listener.progressMade(processed, total);
+        }
+    }
+
+    /**
+     * Fail if the reading thread has been interrupted.
+     *
+     * @throws InterruptedIOException If the thread was interrupted
+     */
+    private void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Parsing was cancelled.");
+        }
+    }
+}
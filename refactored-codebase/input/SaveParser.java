@@ -5,16 +5,20 @@
  */
 package edgeconvert.input;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.DataType;
 import edgeconvert.EdgeField;
 import edgeconvert.EdgeTable;
 import edgeconvert.Field;
+import edgeconvert.NamePool;
 import edgeconvert.Schema;
 import edgeconvert.Table;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -34,6 +38,7 @@ public class SaveParser implements FileParser {
     private List<EdgeTable> tables;
     private List<EdgeField> fields;
     private String currentLine, errorMessage;
+    private ParseProgressListener progressListener;
 
     // static/final attributes
     public static final String PARSE_TYPE = "EdgeConvert Save File"; // first line of save files should be this
@@ -79,6 +84,15 @@ public class SaveParser implements FileParser {
         this.inputFile = inputFile;
     }
 
+    /**
+     * Sets the listener told how much of the file has been read
+     * @param listener the listener
+     */
+    @Override
+    public void setProgressListener(ParseProgressListener listener) {
+        this.progressListener = listener;
+    }
+
     /**
      * Checks to ensure that the proper file type is being used.
      *
@@ -92,11 +106,16 @@ public class SaveParser implements FileParser {
 
         try {
             // Instantiate BufferedReader
-            br = new BufferedReader(new FileReader(inputFile));
+            br = new BufferedReader(new InputStreamReader(new ProgressInputStream(
+                    new FileInputStream(inputFile), inputFile.length(), progressListener)));
             // Ensure we have the correct file type, and parse
             if (br.readLine().trim().startsWith(PARSE_TYPE)) {
                 this.readLines(1); // save file has two lines after the parse type
             }
+        } catch (InterruptedIOException iioe) { // parsing was cancelled
+            this.errorMessage = "Parsing was cancelled.";
+            closeReader();
+            return false;
         } catch (IOException ioe) {
             return false;
         }
@@ -125,6 +144,10 @@ public class SaveParser implements FileParser {
             while ((currentLine = br.readLine()) != null) { // then make fields
                 this.makeField();
             }
+        } catch (InterruptedIOException iioe) { // parsing was cancelled
+            this.errorMessage = "Parsing was cancelled.";
+            closeReader();
+            return false;
         } catch (IOException ioe) {
             return false;
         }
@@ -140,6 +163,17 @@ public class SaveParser implements FileParser {
         return new Schema(getTables());
     }
 
+    /**
+     * Gets the schema packed into arrays, straight from the parsed tables
+     * and fields without creating Table and Field objects, with the
+     * tables in the same order as getSchema
+     * @return the packed schema
+     */
+    @Override
+    public ColumnarSchema getColumnarSchema() {
+        return ColumnarSchema.of(tables, fields);
+    }
+
     /**
      * Get a list of parsed tables.
      *
@@ -225,7 +259,7 @@ public class SaveParser implements FileParser {
 
         numFigure = Integer.parseInt(currentLine.substring(currentLine.indexOf(" ") + 1)); // get the number of figures
         this.readLines(2); // skip two lines
-        tableName = currentLine.substring(currentLine.indexOf(" ") + 1); // get the table name
+        tableName = NamePool.getInstance().intern(currentLine.substring(currentLine.indexOf(" ") + 1)); // get the table name
         tempTable = new EdgeTable(tableName, numFigure); // create the table
 
         stNatFields = this.splitRow(br.readLine()); // native fields
@@ -265,7 +299,7 @@ public class SaveParser implements FileParser {
         if(stField.countTokens() == 0) return; // check to see if tokens generated, return if false
         
         numFigure = Integer.parseInt(stField.nextToken());
-        fieldName = stField.nextToken();
+        fieldName = NamePool.getInstance().intern(stField.nextToken()); // names repeat across tables, so keep one copy
         tempField = new EdgeField(fieldName, numFigure);
         tempField.setTableID(Integer.parseInt(stField.nextToken()));
         
@@ -283,11 +317,22 @@ public class SaveParser implements FileParser {
         tempField.setDisallowNull(Boolean.valueOf(stField.nextToken()));
         
         if (stField.hasMoreTokens()) { //Default Value may not be defined
-            tempField.setDefaultValue(stField.nextToken());
+            tempField.setDefaultValue(NamePool.getInstance().intern(stField.nextToken()));
         }
         fields.add(tempField);
     }
 
+    /**
+     * Closes the reader, ignoring any errors
+     */
+    private void closeReader() {
+        try {
+            br.close();
+        } catch (IOException ioe) {
+            // nothing more can be done
+        }
+    }
+
     /**
      * Reads line to a certain point
      *
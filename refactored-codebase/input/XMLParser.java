@@ -2,9 +2,13 @@ package edgeconvert.input;
 
 import edgeconvert.DataType;
 import edgeconvert.Field;
+import edgeconvert.NamePool;
 import edgeconvert.Schema;
 import edgeconvert.Table;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
@@ -35,6 +39,7 @@ public class XMLParser implements FileParser {
     private File inputFile;
     private String errorMessage;
     private Schema schema;
+    private ParseProgressListener progressListener;
 
     /**
      * Construct a new XMLParser.
@@ -71,6 +76,15 @@ public class XMLParser implements FileParser {
         this.inputFile = inputFile;
     }
 
+    /**
+     * Sets the listener told how much of the file has been read
+     * @param listener the listener
+     */
+    @Override
+    public void setProgressListener(ParseProgressListener listener) {
+        this.progressListener = listener;
+    }
+
     /**
      * Parses the file into a readable format for the GUI
      * @return success/failure
@@ -85,7 +99,11 @@ public class XMLParser implements FileParser {
             // Parse the XML into a DOM document
             DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
             DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(inputFile);
+            Document doc;
+            try (InputStream in = new ProgressInputStream(new FileInputStream(inputFile),
+                    inputFile.length(), progressListener)) {
+                doc = builder.parse(in, inputFile.toURI().toString());
+            }
             
             Element root = doc.getDocumentElement(); // get the root element
             if (!root.getTagName().equals(ROOT_ELEMENT)) { // check
@@ -128,6 +146,9 @@ public class XMLParser implements FileParser {
                 }
             }
 
+        } catch (InterruptedIOException iioe) { // parsing was cancelled
+            errorMessage = "Parsing was cancelled.";
+            return false;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -149,7 +170,7 @@ public class XMLParser implements FileParser {
                 return false;
             }
 
-            String tableName = nameElements.get(0).getTextContent().trim(); // get the table name
+            String tableName = NamePool.getInstance().intern(nameElements.get(0).getTextContent().trim()); // get the table name
             if (isTableNameDuplicate(tableName)) { // check for duplicates
                 errorMessage = "Each table must have a unique name.";
                 return false;
@@ -195,7 +216,7 @@ public class XMLParser implements FileParser {
      */
     private boolean parseField(Table table, Element fieldElement) {
         try {
-            String fieldName = fieldElement.getTextContent().trim(); // get the field name
+            String fieldName = NamePool.getInstance().intern(fieldElement.getTextContent().trim()); // get the field name
             for (Field field : table.getFields()) { // ensure the field name doesnt already exist in the table
                 if (field.getName().equalsIgnoreCase(fieldName)) {
                     errorMessage = "No two fields in the same table may have the same name";
@@ -0,0 +1,18 @@
+package edgeconvert.output;
+
+/**
+ * Listener notified by a DDLBuilder as it works through its tables.
+ */
+public interface BuildProgressListener {
+
+    /**
+     * Called as the builder creates the DDL. A listener can stop the build
+     * by throwing an unchecked exception, such as a CancellationException,
+     * which buildDDL passes on to its caller.
+     *
+     * @param built How much has been built so far, in the builder's own
+     * units, such as tables
+     * @param total How much there is to build, in the same units
+     */
+    public void progressMade(int built, int total);
+}
@@ -1,5 +1,6 @@
 package edgeconvert.output;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.Table;
 import java.util.List;
 import net.xeoh.plugins.base.Plugin;
@@ -30,6 +31,17 @@ public interface DDLBuilder extends Plugin {
      */
     public void setTables(List<Table> tables);
 
+    /**
+     * Provide the tables to be created by the generated DDL packed into
+     * arrays, in place of setTables. Builders that cannot read the arrays
+     * directly are given the schema's tables unpacked.
+     *
+     * @param schema The schema holding the tables to be created by the DDL
+     */
+    public default void setColumnarSchema(ColumnarSchema schema) {
+        setTables(schema.toSchema().getTables());
+    }
+
     /**
      * Set the name of the database created by the generated DDL
      *
@@ -44,6 +56,15 @@ public interface DDLBuilder extends Plugin {
      */
     public String buildDDL();
 
+    /**
+     * Set the listener told about progress while the DDL is built. Builders
+     * that cannot report progress may ignore the listener.
+     *
+     * @param listener The listener to be notified, or null
+     */
+    public default void setProgressListener(BuildProgressListener listener) {
+    }
+
     /**
      * Determine whether the DDLBuilder requires a database name.
      *
@@ -1,14 +1,14 @@
 package edgeconvert.output;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.DataType;
+import edgeconvert.DependencyAnalysis;
 import edgeconvert.EdgeConvertMediator;
 import edgeconvert.Field;
 import edgeconvert.Schema;
 import edgeconvert.Table;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import net.xeoh.plugins.base.annotations.PluginImplementation;
 
 /**
@@ -25,7 +25,11 @@ public class MySQLBuilder implements DDLBuilder {
     private Schema schema;
     private EdgeConvertMediator edgeConvert;
     private List<Table> tables;
+    private ColumnarSchema columnarSchema;
+    private int[] columnarOrder;
+    private boolean cyclic; // some tables refer to each other
     private String databaseName;
+    private BuildProgressListener progressListener;
 
     /**
      * Gets the product name
@@ -52,9 +56,23 @@ public class MySQLBuilder implements DDLBuilder {
     @Override
     public void setTables(List<Table> tables) {
         this.tables = tables;
+        this.columnarSchema = null;
         sortTables();
     }
 
+    /**
+     * Sets the tables to be built, packed into arrays
+     * @param schema the schema holding the tables to be built
+     */
+    @Override
+    public void setColumnarSchema(ColumnarSchema schema) {
+        this.columnarSchema = schema;
+        this.tables = null;
+        DependencyAnalysis dependencies = DependencyAnalysis.of(schema);
+        this.columnarOrder = dependencies.getLoadOrder();
+        this.cyclic = dependencies.getCyclicComponentCount() > 0;
+    }
+
     /**
      * Sets the database name
      * @param dbName the database name
@@ -75,36 +93,64 @@ public class MySQLBuilder implements DDLBuilder {
         // Create database and switch to database, file headers
         sb.append("CREATE DATABASE " + databaseName + ";\r\n");
         sb.append("USE " + databaseName + ";\r\n");
+        if (cyclic) { // no order creates every referenced table first
+            sb.append("SET FOREIGN_KEY_CHECKS = 0;\r\n");
+        }
 
-        //process tables in order from least dependent (least number of foreign keys) to most dependent
-        for (Table table : tables) {
-            sb.append(buildTable(table));
+        //process tables in order, each after the tables it refers to
+        int built = 0;
+        if (columnarSchema != null) {
+            for (int table : columnarOrder) {
+                buildTable(sb, table);
+                reportProgress(++built, columnarOrder.length);
+            }
+        } else {
+            for (Table table : tables) {
+                sb.append(buildTable(table));
+                reportProgress(++built, tables.size());
+            }
+        }
+        if (cyclic) {
+            sb.append("SET FOREIGN_KEY_CHECKS = 1;\r\n");
         }
         return sb.toString();
     }
 
     /**
-     * Sort the tables by number of related fields, ascending. This alleviates
-     * problems with dependencies.
+     * Sets the listener told about progress while the ddl is built
+     * @param listener the listener to be notified, or null
+     */
+    @Override
+    public void setProgressListener(BuildProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Tell the progress listener, if there is one, how many tables are built.
+     *
+     * @param built The number of tables built so far
+     * @param total The number of tables to be built
+     */
+    private void reportProgress(int built, int total) {
+        if (progressListener != null) {
+            progressListener.progressMade(built, total);
+        }
+    }
+
+    /**
+     * Order the tables by dependency level, so each table is created after
+     * the tables its foreign keys refer to. Tables of one level keep their
+     * order. Tables that refer to each other cannot all come first, so
+     * foreign key checks are turned off while they are created.
      */
     private void sortTables() {
-        Collections.sort(tables, new Comparator<Table>() {
-
-            @Override
-            public int compare(Table table1, Table table2) { // compare the two tables
-                final int t1RelatedFields = table1.getRelatedFields().size();
-                final int t2RelatedFields = table2.getRelatedFields().size();
-                // The first table has fewer related fields than the second.
-                if (t1RelatedFields < t2RelatedFields) {
-                    return -1;
-                } // The first table has more related fields than the second.
-                else if (t1RelatedFields > t2RelatedFields) {
-                    return 1;
-                }
-                // Both tables have the same number of related fields.
-                return 0;
-            }
-        });
+        DependencyAnalysis dependencies = DependencyAnalysis.of(tables);
+        List<Table> sorted = new ArrayList<>(tables.size());
+        for (int table : dependencies.getLoadOrder()) {
+            sorted.add(tables.get(table));
+        }
+        tables = sorted;
+        cyclic = dependencies.getCyclicComponentCount() > 0;
     }
 
     /**
@@ -135,7 +181,12 @@ public class MySQLBuilder implements DDLBuilder {
         // get native and related fields
         List<Field> fields = table.getFields();
         List<Field> pkFields = table.getPrimaryKeyFields();
-        Map<Field, Field> relatedFields = table.getRelatedFields();
+        List<Field> fkFields = new ArrayList<>(); // in field order, as the packed tables give them
+        for (Field field : fields) {
+            if (table.getRelatedField(field) != null) {
+                fkFields.add(field);
+            }
+        }
 
         // print out the fields
         for (Field field : fields) {
@@ -164,7 +215,7 @@ public class MySQLBuilder implements DDLBuilder {
         }
         
         // Add a comma if there are foreign keys
-        if (!relatedFields.isEmpty()) {
+        if (!fkFields.isEmpty()) {
             sb.append(",\r\n");
         }
         else {
@@ -172,12 +223,12 @@ public class MySQLBuilder implements DDLBuilder {
         }
 
         //table has foreign keys
-        if (!relatedFields.isEmpty()) {
+        if (!fkFields.isEmpty()) {
             int currentFK = 1;
-            int numForeignKey = relatedFields.size(); // get the number of foreign keys
+            int numForeignKey = fkFields.size(); // get the number of foreign keys
             
-            for (Field nativeField : relatedFields.keySet()) { // iterate and add
-                Field relatedField = relatedFields.get(nativeField);
+            for (Field nativeField : fkFields) { // iterate and add
+                Field relatedField = table.getRelatedField(nativeField);
                 Table relatedTable = relatedField.getTable();
                 if (relatedField != null) {
                     sb.append("\tCONSTRAINT "); 
@@ -202,6 +253,74 @@ public class MySQLBuilder implements DDLBuilder {
         return sb.toString();
     }
 
+    /**
+     * Create the DDL for a single packed table, appending it to the DDL
+     * being built. The table's fields are read in one pass over the arrays.
+     *
+     * @param sb The DDL being built
+     * @param table The number of the table to create the DDL for
+     */
+    private void buildTable(StringBuilder sb, int table) {
+        ColumnarSchema schema = columnarSchema;
+        String tableName = schema.getTableName(table);
+        int firstField = schema.getFirstField(table);
+        int fieldEnd = schema.getFieldEnd(table);
+
+        // create table
+        sb.append("CREATE TABLE ").append(tableName).append(" (\r\n");
+
+        // print out the fields
+        for (int field = firstField; field < fieldEnd; field++) {
+            buildField(sb, schema.getFieldName(field), schema.getDataType(field), schema.getCharLength(field),
+                    schema.isAllowNull(field), schema.getDefaultValue(field), schema.isAutoIncrement(field));
+            if (field != fieldEnd - 1) {
+                sb.append(",\r\n");
+            }
+        }
+        //table has primary key(s)
+        boolean hasPrimaryKey = false;
+        for (int field = firstField; field < fieldEnd; field++) {
+            if (schema.isPrimaryKey(field)) {
+                sb.append(hasPrimaryKey ? ", " : ",\r\n\tCONSTRAINT " + tableName + "_PK PRIMARY KEY (");
+                sb.append(schema.getFieldName(field));
+                hasPrimaryKey = true;
+            }
+        }
+        if (hasPrimaryKey) {
+            sb.append(")");
+        }
+
+        int numForeignKey = schema.getRelatedFieldCount(table);
+        if (numForeignKey == 0) {
+            sb.append("\r\n);\r\n\r\n");
+            return;
+        }
+        // Add a comma as there are foreign keys
+        sb.append(",\r\n");
+        int currentFK = 1;
+        for (int field = firstField; field < fieldEnd; field++) {
+            int relatedField = schema.getRelatedField(field);
+            if (relatedField != ColumnarSchema.NONE) {
+                sb.append("\tCONSTRAINT ");
+                sb.append(tableName); // table name
+                sb.append("_FK");
+                sb.append(currentFK); // current foreign key
+                sb.append(" FOREIGN KEY(");
+                sb.append(schema.getFieldName(field)); // native field name
+                sb.append(") REFERENCES ");
+                sb.append(schema.getTableName(schema.getTable(relatedField))); // related table name
+                sb.append("(");
+                sb.append(schema.getFieldName(relatedField)); // related field name
+                sb.append(")");
+                if (currentFK < numForeignKey) {
+                    sb.append(",\r\n");
+                }
+                currentFK++;
+            }
+        }
+        sb.append("\r\n);\r\n\r\n");
+    }
+
     /**
      * Create the DDL for a single field.
      *
@@ -210,38 +329,55 @@ public class MySQLBuilder implements DDLBuilder {
      */
     private String buildField(Field field) {
         StringBuilder sb = new StringBuilder();
+        buildField(sb, field.getName(), field.getDataType(), field.getCharLength(), field.isAllowNull(),
+                field.getDefaultValue(), field.isAutoIncrement());
+        return sb.toString();
+    }
 
+    /**
+     * Create the DDL for a single field from its attributes, appending it to
+     * the DDL being built.
+     *
+     * @param sb The DDL being built
+     * @param name The field's name
+     * @param dataType The field's data type
+     * @param charLength The maximum length of the field's values
+     * @param allowNull Whether or not the field can be null
+     * @param defaultValue The field's default value
+     * @param autoIncrement Whether or not the field increments automatically
+     */
+    private void buildField(StringBuilder sb, String name, DataType dataType, int charLength,
+            boolean allowNull, String defaultValue, boolean autoIncrement) {
         // get the field, append to string builder
         sb.append("\t");
-        sb.append(field.getName());
+        sb.append(name);
         sb.append(" ");
-        sb.append(field.getDataType().toString());
+        sb.append(dataType.toString());
 
-        if (field.getDataType() == DataType.VARCHAR || field.getDataType() == DataType.CHAR) {
+        if (dataType == DataType.VARCHAR || dataType == DataType.CHAR) {
             //append char length in () if data type is varchar or char
             sb.append("(");
-            sb.append(field.getCharLength());
+            sb.append(charLength);
             sb.append(")");
         }
         // not null
-        if (!field.isAllowNull()) {
+        if (!allowNull) {
             sb.append(" NOT NULL");
         }
         // get default value
-        if (!field.getDefaultValue().equals("")) {
-            if (field.getDataType() == DataType.BOOLEAN) { //boolean data type
+        if (!defaultValue.equals("")) {
+            if (dataType == DataType.BOOLEAN) { //boolean data type
                 sb.append(" DEFAULT ");
-                sb.append(convertStrBooleanToInt(field.getDefaultValue()));
+                sb.append(convertStrBooleanToInt(defaultValue));
             } else { //any other data type
                 sb.append(" DEFAULT ");
-                sb.append(field.getDefaultValue());
+                sb.append(defaultValue);
             }
         }
         // auto increment
-        if(field.isAutoIncrement()) {
+        if(autoIncrement) {
             sb.append(" AUTO_INCREMENT");
         }
-        return sb.toString();
     }
 
     @Override
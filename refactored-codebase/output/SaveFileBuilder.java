@@ -1,9 +1,10 @@
 package edgeconvert.output;
 
+import edgeconvert.ColumnarSchema;
 import edgeconvert.Field;
 import edgeconvert.Table;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import net.xeoh.plugins.base.annotations.PluginImplementation;
@@ -21,6 +22,8 @@ public class SaveFileBuilder implements DDLBuilder {
     // declarations
     private Map<Table, Integer> tableIds;
     private Map<Field, Integer> fieldIds;
+    private ColumnarSchema columnarSchema;
+    private BuildProgressListener progressListener;
 
     /**
      * Gets the product name
@@ -46,8 +49,9 @@ public class SaveFileBuilder implements DDLBuilder {
      */
     @Override
     public void setTables(List<Table> tables) {
-        tableIds = new HashMap<>();
-        fieldIds = new HashMap<>();
+        columnarSchema = null;
+        tableIds = new LinkedHashMap<>(); // in table order, so blocks are written in id order
+        fieldIds = new LinkedHashMap<>();
         int idIncrement = 1;
         
         for (Table table : tables) { // iterate through the tables
@@ -62,6 +66,18 @@ public class SaveFileBuilder implements DDLBuilder {
         }
     }
 
+    /**
+     * Sets the data to be built, packed into arrays. Ids are worked out from
+     * table and field numbers, as each table is followed by its fields.
+     * @param schema the schema holding the tables to be built
+     */
+    @Override
+    public void setColumnarSchema(ColumnarSchema schema) {
+        columnarSchema = schema;
+        tableIds = null;
+        fieldIds = null;
+    }
+
     /**
      * Sets the database name
      * No functionality in this class
@@ -83,11 +99,18 @@ public class SaveFileBuilder implements DDLBuilder {
         StringBuilder sb = new StringBuilder(); // create a stringbuilder
         sb.append("EdgeConvert Save File\n"); // append the header
         sb.append("#Tables#\n"); // append tables header
+        if (columnarSchema != null) {
+            buildColumnar(sb);
+            return sb.toString();
+        }
         
         List<Table> tables = new ArrayList<>(tableIds.keySet()); // get the tables
+        int total = tableIds.size() + fieldIds.size();
+        int built = 0;
         for (Table table : tables) { // iterate through the tables
             sb.append(buildTable(table)); // build table string
             sb.append("\n");
+            reportProgress(++built, total);
         }
         sb.append("#Fields#\n"); // append field 
         
@@ -95,6 +118,7 @@ public class SaveFileBuilder implements DDLBuilder {
         for (Field field : fields) { // iterate through the fields
             sb.append(buildField(field)); // build field string
             sb.append("\n");
+            reportProgress(++built, total);
         }
         return sb.toString();
     }
@@ -172,9 +196,9 @@ public class SaveFileBuilder implements DDLBuilder {
         if ((forField = field.getForeignField()) == null) { // check to see if the foreign field is null
             sb.append("null|null");
         } else { // if not null
-            sb.append(tableIds.get(field.getForeignField().getTable()).toString()); // foreign field id
+            sb.append(fieldIds.get(forField)); // foreign field id
             sb.append("|");
-            sb.append(forField.getTable().toString()); // table id for foreign field
+            sb.append(tableIds.get(forField.getTable())); // table id for foreign field
         }
         sb.append("|");
         sb.append(field.getDataType().ordinal()); // the data type
@@ -189,6 +213,116 @@ public class SaveFileBuilder implements DDLBuilder {
         return sb.toString();
     }
 
+    /**
+     * Build the tables and fields of the packed schema, each in one pass
+     * over the arrays.
+     * @param sb The DDL being built
+     */
+    private void buildColumnar(StringBuilder sb) {
+        ColumnarSchema schema = columnarSchema;
+        int total = schema.getTableCount() + schema.getFieldCount();
+        for (int table = 0; table < schema.getTableCount(); table++) {
+            int firstField = schema.getFirstField(table);
+            int fieldEnd = schema.getFieldEnd(table);
+            sb.append("Table: ").append(tableId(table)).append("\n{\n"); // add table header and id
+            sb.append("TableName: ").append(schema.getTableName(table)); // add table name
+            sb.append("\nNativeFields: "); // add native fields header
+            for (int field = firstField; field < fieldEnd; field++) {
+                sb.append(fieldId(field));
+                if (field != fieldEnd - 1) {
+                    sb.append("|"); // delimiter
+                }
+            }
+            sb.append("\nRelatedTables: "); // add related tables header
+            int numRelatedTables = schema.getRelatedTableCount(table);
+            for (int i = 0; i < numRelatedTables; i++) {
+                sb.append(tableId(schema.getRelatedTable(table, i)));
+                if (i != numRelatedTables - 1) {
+                    sb.append("|"); // delimiter
+                }
+            }
+            sb.append("\nRelatedFields: "); // add related fields to the header
+            for (int field = firstField; field < fieldEnd; field++) {
+                int relatedField = schema.getRelatedField(field);
+                sb.append(relatedField == ColumnarSchema.NONE ? 0 : fieldId(relatedField)); // 0 for a "null" value
+                if (field != fieldEnd - 1) {
+                    sb.append("|"); // delimiter
+                }
+            }
+            sb.append("\n}\n");
+            reportProgress(table + 1, total);
+        }
+        sb.append("#Fields#\n"); // append field
+
+        for (int field = 0; field < schema.getFieldCount(); field++) {
+            sb.append(fieldId(field)); // the field id
+            sb.append("|");
+            sb.append(schema.getFieldName(field)); // the field name
+            sb.append("|");
+            sb.append(tableId(schema.getTable(field))); // the table id
+            sb.append("|");
+            int foreignField = schema.getForeignField(field);
+            if (foreignField == ColumnarSchema.NONE) {
+                sb.append("null|null");
+            } else {
+                sb.append(fieldId(foreignField)); // foreign field id
+                sb.append("|");
+                sb.append(tableId(schema.getTable(foreignField))); // table id for foreign field
+            }
+            sb.append("|");
+            sb.append(schema.getDataTypeCode(field)); // the data type
+            sb.append("|");
+            sb.append(schema.getCharLength(field)); // the length
+            sb.append("|");
+            sb.append(schema.isPrimaryKey(field)); // primary key
+            sb.append("|");
+            sb.append(!schema.isAllowNull(field)); // allows null
+            sb.append("|");
+            sb.append(schema.getDefaultValue(field)); // default value
+            sb.append("\n");
+            reportProgress(schema.getTableCount() + field + 1, total);
+        }
+    }
+
+    /**
+     * Sets the listener told about progress while the ddl is built
+     * @param listener the listener to be notified, or null
+     */
+    @Override
+    public void setProgressListener(BuildProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Tell the progress listener, if there is one, how many tables and
+     * fields are built.
+     * @param built the number of tables and fields built so far
+     * @param total the number of tables and fields to be built
+     */
+    private void reportProgress(int built, int total) {
+        if (progressListener != null) {
+            progressListener.progressMade(built, total);
+        }
+    }
+
+    /**
+     * Get the save file id of a packed table.
+     * @param table The table's number
+     * @return The table's id
+     */
+    private int tableId(int table) {
+        return columnarSchema.getFirstField(table) + table + 1; // after the earlier tables and their fields
+    }
+
+    /**
+     * Get the save file id of a packed field.
+     * @param field The field's number
+     * @return The field's id
+     */
+    private int fieldId(int field) {
+        return field + columnarSchema.getTable(field) + 2; // after its table and the earlier tables
+    }
+
     /**
      * Check to see if a database name is required for this build type
      * @return 
@@ -0,0 +1,148 @@
+package edgeconvert.pipeline;
+
+import edgeconvert.Schema;
+import java.io.File;
+
+/**
+ * A single file conversion. Carries the products of each conversion step
+ * (the parsed schema and the generated DDL) from one step to the next, along
+ * with the reason the conversion failed, if it did.
+ */
+public class ConversionJob {
+
+    // declarations
+    private final File inputFile;
+    private final File outputFile;
+    private Schema schema;
+    private String ddl;
+    private String errorMessage;
+    private boolean written;
+
+    /**
+     * Construct a new job converting the given input file into the given
+     * output file.
+     *
+     * @param inputFile The file to be parsed
+     * @param outputFile The file the DDL is written to
+     */
+    public ConversionJob(File inputFile, File outputFile) {
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+        this.schema = null;
+        this.ddl = null;
+        this.errorMessage = null;
+        this.written = false;
+    }
+
+    /**
+     * Get the file being converted.
+     *
+     * @return The input file
+     */
+    public File getInputFile() {
+        return inputFile;
+    }
+
+    /**
+     * Get the file the generated DDL is written to.
+     *
+     * @return The output file
+     */
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Get the schema parsed from the input file.
+     *
+     * @return The parsed schema, or null if the file has not been parsed
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Set the schema parsed from the input file.
+     *
+     * @param schema The parsed schema
+     */
+    public void setSchema(Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Get the DDL generated from the schema.
+     *
+     * @return The generated DDL, or null if it has not been built
+     */
+    public String getDDL() {
+        return ddl;
+    }
+
+    /**
+     * Set the DDL generated from the schema.
+     *
+     * @param ddl The generated DDL
+     */
+    public void setDDL(String ddl) {
+        this.ddl = ddl;
+    }
+
+    /**
+     * Mark the job as written to its output file. The schema and DDL are no
+     * longer needed at this point, so they are released.
+     */
+    public void setWritten() {
+        this.written = true;
+        this.schema = null;
+        this.ddl = null;
+    }
+
+    /**
+     * Mark the job as failed. The schema and DDL are released.
+     *
+     * @param errorMessage An explanation of why the conversion failed
+     */
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.schema = null;
+        this.ddl = null;
+    }
+
+    /**
+     * Determine whether or not the conversion has failed.
+     *
+     * @return Whether or not the job failed
+     */
+    public boolean isFailed() {
+        return errorMessage != null;
+    }
+
+    /**
+     * Determine whether or not the DDL was written to the output file.
+     *
+     * @return Whether or not the job completed successfully
+     */
+    public boolean isWritten() {
+        return written;
+    }
+
+    /**
+     * If the conversion failed, return the cause of the failure.
+     *
+     * @return An explanation of why the conversion failed, or null
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Get a string representation of this job (its input file).
+     *
+     * @return The path of the input file
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(inputFile);
+    }
+}
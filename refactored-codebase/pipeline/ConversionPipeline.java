@@ -0,0 +1,251 @@
+package edgeconvert.pipeline;
+
+import edgeconvert.PluginManager;
+import edgeconvert.output.DDLBuilder;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Converts a batch of files into DDL with the parse, validate, render and
+ * write steps running as separate stages, each on its own thread. Stages are
+ * connected by bounded queues, so a stage that falls behind blocks the stages
+ * feeding it instead of letting work pile up in memory. While one file is
+ * being written, the next ones can already be rendered and parsed.
+ */
+public class ConversionPipeline {
+
+    // public static/final attributes
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    // private static/final attributes
+    private static final ConversionJob END = new ConversionJob(null, null); // signals the end of the batch
+
+    // declarations
+    private final PluginManager pluginManager;
+    private final DDLBuilder builder;
+    private final String databaseName;
+    private final SchemaValidator validator;
+    private final BlockingQueue<ConversionJob> parseQueue, validateQueue, renderQueue, writeQueue;
+    private final List<ConversionJob> finished;
+    private final List<Thread> stages;
+    private boolean started, ended;
+
+    /**
+     * Construct a pipeline that converts files with the given plugins.
+     *
+     * @param pluginManager The plugin manager supplying a parser for each file
+     * @param builder The builder creating the DDL
+     * @param databaseName The database name for builders that require one
+     * @param queueCapacity The number of jobs each queue holds before blocking
+     */
+    public ConversionPipeline(PluginManager pluginManager, DDLBuilder builder,
+            String databaseName, int queueCapacity) {
+        this.pluginManager = pluginManager;
+        this.builder = builder;
+        this.databaseName = databaseName;
+        this.validator = new SchemaValidator();
+        this.parseQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.validateQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.renderQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.finished = Collections.synchronizedList(new ArrayList<ConversionJob>());
+        this.stages = new ArrayList<>();
+        this.started = false;
+        this.ended = false;
+    }
+
+    /**
+     * Get the file that DDL generated from the given input file is written to:
+     * a file with the same base name and the builder's file extension in the
+     * given directory.
+     *
+     * @param inputFile The file to be converted
+     * @param outputDir The directory the output is written to
+     * @param builder The builder creating the DDL
+     * @return The output file for the input file
+     */
+    public static File getOutputFile(File inputFile, File outputDir, DDLBuilder builder) {
+        String name = inputFile.getName();
+        int extensionStart = name.lastIndexOf(".");
+        String baseName = (extensionStart > 0) ? name.substring(0, extensionStart) : name;
+        return new File(outputDir, baseName + "." + builder.getFileExtension());
+    }
+
+    /**
+     * Start a thread for each stage of the pipeline.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        startStage("parse", new Stage(parseQueue, validateQueue) {
+            @Override
+            boolean process(ConversionJob job) {
+                return ConversionSteps.parse(job, pluginManager.getParserForFile(job.getInputFile()));
+            }
+        });
+        startStage("validate", new Stage(validateQueue, renderQueue) {
+            @Override
+            boolean process(ConversionJob job) {
+                return ConversionSteps.validate(job, validator);
+            }
+        });
+        startStage("render", new Stage(renderQueue, writeQueue) {
+            @Override
+            boolean process(ConversionJob job) {
+                return ConversionSteps.render(job, builder, databaseName);
+            }
+        });
+        startStage("write", new Stage(writeQueue, null) {
+            @Override
+            boolean process(ConversionJob job) {
+                return ConversionSteps.write(job);
+            }
+        });
+    }
+
+    /**
+     * Add a file to be converted. Blocks while the pipeline is full.
+     *
+     * @param inputFile The file to be converted
+     * @param outputFile The file the DDL is written to
+     * @return The job tracking the conversion
+     * @throws InterruptedException If interrupted while waiting for room
+     */
+    public ConversionJob submit(File inputFile, File outputFile) throws InterruptedException {
+        synchronized (this) {
+            if (!started || ended) {
+                throw new IllegalStateException("The pipeline is not running.");
+            }
+        }
+        ConversionJob job = new ConversionJob(inputFile, outputFile);
+        parseQueue.put(job);
+        return job;
+    }
+
+    /**
+     * Signal that no more files will be submitted and wait for every submitted
+     * file to be converted.
+     *
+     * @return Every job submitted, in the order they finished
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public List<ConversionJob> finish() throws InterruptedException {
+        synchronized (this) {
+            if (!started) {
+                return new ArrayList<>();
+            }
+            if (!ended) {
+                ended = true;
+                parseQueue.put(END);
+            }
+        }
+        for (Thread stage : stages) {
+            stage.join();
+        }
+        synchronized (finished) {
+            return new ArrayList<>(finished);
+        }
+    }
+
+    /**
+     * Run the given stage on a new thread.
+     *
+     * @param name The name of the stage
+     * @param stage The stage to be run
+     */
+    private void startStage(String name, Stage stage) {
+        Thread thread = new Thread(stage, "edgeconvert-" + name);
+        stages.add(thread);
+        thread.start();
+    }
+
+    /**
+     * One step of the pipeline. Takes jobs from its input queue, processes
+     * them and hands them to the next stage. Failed jobs are passed along
+     * without being processed so that every job reaches the end.
+     */
+    private abstract class Stage implements Runnable {
+
+        // declarations
+        private final BlockingQueue<ConversionJob> in, out;
+
+        /**
+         * Construct a stage between the given queues.
+         *
+         * @param in The queue jobs are taken from
+         * @param out The queue jobs are handed to, or null for the last stage
+         */
+        Stage(BlockingQueue<ConversionJob> in, BlockingQueue<ConversionJob> out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        /**
+         * Process a single job.
+         *
+         * @param job The job to be processed
+         * @return Whether or not the job was processed successfully
+         */
+        abstract boolean process(ConversionJob job);
+
+        /**
+         * Process jobs until the end of the batch is reached. However this
+         * stage stops, the end of the batch is passed on so the stages after
+         * it stop too.
+         */
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    ConversionJob job = in.take();
+                    if (job == END) {
+                        return;
+                    }
+                    if (!job.isFailed()) {
+                        try {
+                            process(job);
+                        } catch (Throwable t) { // a plugin failed unexpectedly, possibly with an Error
+                            job.fail(job.getInputFile().getName() + ": " + t);
+                        }
+                    }
+                    if (out != null) {
+                        out.put(job);
+                    } else {
+                        finished.add(job);
+                    }
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (out != null) {
+                    endNextStage();
+                }
+            }
+        }
+
+        /**
+         * Pass the end of the batch to the next stage, waiting for room even
+         * if this thread is interrupted.
+         */
+        private void endNextStage() {
+            boolean interrupted = Thread.interrupted();
+            while (true) {
+                try {
+                    out.put(END);
+                    break;
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package edgeconvert.pipeline;
+
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import edgeconvert.diagnostics.BuildDDLEvent;
+import edgeconvert.diagnostics.GetSchemaEvent;
+import edgeconvert.diagnostics.ParseFileEvent;
+import edgeconvert.diagnostics.SetTablesEvent;
+import edgeconvert.diagnostics.WriteDDLEvent;
+import edgeconvert.input.FileParser;
+import edgeconvert.output.DDLBuilder;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * The individual steps of converting a file into DDL. Each step works on a
+ * ConversionJob, and on failure marks the job as failed and returns false.
+ * The steps can be run one after another or as the stages of a
+ * ConversionPipeline.
+ */
+public class ConversionSteps {
+
+    /**
+     * Construct nothing. All steps are static.
+     */
+    private ConversionSteps() {
+    }
+
+    /**
+     * Parse the job's input file with the given parser.
+     *
+     * @param job The job to parse the input file of
+     * @param parser The parser for the input file, or null if there is none
+     * @return Whether or not the file was parsed successfully
+     */
+    public static boolean parse(ConversionJob job, FileParser parser) {
+        if (parser == null) {
+            job.fail("No parser is available for " + job.getInputFile().getName() + ".");
+            return false;
+        }
+        parser.setFile(job.getInputFile());
+        ParseFileEvent parseEvent = new ParseFileEvent();
+        parseEvent.begin();
+        boolean parsed = false;
+        try {
+            parsed = parser.parseFile();
+        } finally { // a parser that throws is counted as failing
+            parseEvent.finish(parser, job.getInputFile(), parsed);
+        }
+        if (!parsed) {
+            String message = parser.getErrorMessage();
+            job.fail(message == null || message.isEmpty()
+                    ? "Unable to parse " + job.getInputFile().getName() + "." : message);
+            return false;
+        }
+        GetSchemaEvent schemaEvent = new GetSchemaEvent();
+        schemaEvent.begin();
+        Schema schema = null;
+        try {
+            schema = parser.getSchema();
+        } finally {
+            schemaEvent.finish(parser, schema);
+        }
+        job.setSchema(schema);
+        return true;
+    }
+
+    /**
+     * Check the job's schema for problems with the given validator.
+     *
+     * @param job The job to validate the schema of
+     * @param validator The validator to check the schema with
+     * @return Whether or not the schema is valid
+     */
+    public static boolean validate(ConversionJob job, SchemaValidator validator) {
+        List<String> problems = validator.validate(job.getSchema());
+        if (!problems.isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            for (String problem : problems) {
+                if (sb.length() > 0) {
+                    sb.append("\n");
+                }
+                sb.append(problem);
+            }
+            job.fail(sb.toString());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Build DDL from the job's schema with the given builder.
+     *
+     * @param job The job to build the DDL of
+     * @param builder The builder creating the DDL
+     * @param databaseName The database name for builders that require one
+     * @return Whether or not the DDL was built successfully
+     */
+    public static boolean render(ConversionJob job, DDLBuilder builder, String databaseName) {
+        Schema schema = job.getSchema();
+        if (builder.requiresDatabaseName()) {
+            if (databaseName == null || databaseName.trim().isEmpty()) {
+                job.fail(builder.getProductName() + " requires a database name.");
+                return false;
+            }
+            builder.setDatabaseName(databaseName.trim());
+        }
+        List<Table> tables = schema.getTables();
+        SetTablesEvent setTablesEvent = new SetTablesEvent();
+        setTablesEvent.begin();
+        boolean set = false;
+        try {
+            builder.setTables(tables);
+            set = true;
+        } finally { // a builder that throws is counted as failing
+            setTablesEvent.finish(builder, tables, set);
+        }
+        BuildDDLEvent buildEvent = new BuildDDLEvent();
+        buildEvent.begin();
+        String ddl = null;
+        try {
+            ddl = builder.buildDDL();
+        } finally {
+            buildEvent.finish(builder, tables, ddl);
+        }
+        job.setDDL(ddl);
+        return true;
+    }
+
+    /**
+     * Write the job's DDL to its output file. The DDL is written to a
+     * temporary file in the same directory, which then replaces the output
+     * file, so readers never see a partially written file.
+     *
+     * @param job The job to write the DDL of
+     * @return Whether or not the DDL was written successfully
+     */
+    public static boolean write(ConversionJob job) {
+        File outputFile = job.getOutputFile().getAbsoluteFile();
+        File tempFile = null;
+        WriteDDLEvent event = new WriteDDLEvent();
+        event.begin();
+        try {
+            tempFile = File.createTempFile("." + outputFile.getName() + "-", ".tmp", outputFile.getParentFile());
+            try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(tempFile, false)))) {
+                pw.println(job.getDDL());
+                if (pw.checkError()) {
+                    throw new IOException("write failed");
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), outputFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException amnse) {
+                Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ioe) {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            event.finish(outputFile, false);
+            job.fail("Unable to write " + outputFile + ": " + ioe.getMessage());
+            return false;
+        }
+        event.finish(outputFile, true);
+        job.setWritten();
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package edgeconvert.pipeline;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a parsed schema for problems that would keep a DDLBuilder from
+ * producing usable DDL.
+ */
+public class SchemaValidator {
+
+    /**
+     * Check the given schema for problems.
+     *
+     * @param schema The schema to be checked
+     * @return A description of each problem found, empty if the schema is valid
+     */
+    public List<String> validate(Schema schema) {
+        List<String> problems = new ArrayList<>();
+        List<Table> tables = schema.getTables();
+        if (tables.isEmpty()) {
+            problems.add("The schema contains no tables.");
+            return problems;
+        }
+
+        Set<String> tableNames = new HashSet<>();
+        Set<Table> schemaTables = new HashSet<>(tables);
+        for (Table table : tables) {
+            String tableName = table.getName();
+            if (tableName == null || tableName.isEmpty()) {
+                problems.add("There are tables with blank names in this schema.");
+                continue;
+            }
+            if (!tableNames.add(tableName)) { // names must be unique
+                problems.add("There are multiple tables called " + tableName + " in this schema.");
+            }
+            List<Field> fields = table.getFields();
+            if (fields.isEmpty()) {
+                problems.add("The table " + tableName + " has no fields.");
+            }
+            for (Field field : fields) {
+                if (field.getName() == null || field.getName().isEmpty()) {
+                    problems.add("The table " + tableName + " has fields with blank names.");
+                }
+            }
+
+            // Every foreign key must reference a field in this schema
+            for (Map.Entry<Field, Field> related : table.getRelatedFields().entrySet()) {
+                Field foreignField = related.getValue();
+                if (foreignField == null || !schemaTables.contains(foreignField.getTable())) {
+                    problems.add("The field " + tableName + "." + related.getKey().getName()
+                            + " references a field outside of this schema.");
+                }
+            }
+        }
+        return problems;
+    }
+}
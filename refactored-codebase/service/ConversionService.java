@@ -0,0 +1,312 @@
+package edgeconvert.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import edgeconvert.PluginManager;
+import edgeconvert.input.FileParser;
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.pipeline.ConversionJob;
+import edgeconvert.pipeline.ConversionSteps;
+import edgeconvert.pipeline.SchemaValidator;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived local HTTP service converting diagrams to DDL, so that build
+ * tooling only pays JVM and plugin start-up once.
+ *
+ * POST /convert?format=edg&amp;product=MySQL&amp;database=name with the diagram as the
+ * request body streams back the generated DDL. GET /products lists the
+ * available formats and products. Each request runs on its own thread
+ * (a virtual thread where the runtime supports them), and the number of
+ * conversions running at once is limited.
+ */
+public class ConversionService {
+
+    // public static/final attributes
+    public static final int DEFAULT_MAX_CONCURRENT = 8;
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5000;
+
+    // private static/final attributes
+    private static final int CHUNK_SIZE = 8192;
+
+    // declarations
+    private final PluginManager pluginManager;
+    private final InetSocketAddress address;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final SchemaValidator validator;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Construct a service on an ephemeral localhost port with default limits.
+     *
+     * @param pluginManager The plugin manager supplying parsers and builders
+     */
+    public ConversionService(PluginManager pluginManager) {
+        this(pluginManager, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                DEFAULT_MAX_CONCURRENT, DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Construct a service.
+     *
+     * @param pluginManager The plugin manager supplying parsers and builders
+     * @param address The address to listen on; port 0 picks a free port
+     * @param maxConcurrent The most conversions allowed to run at once
+     * @param acquireTimeoutMillis How long a request waits for a free slot
+     * before it is turned away
+     */
+    public ConversionService(PluginManager pluginManager, InetSocketAddress address,
+            int maxConcurrent, long acquireTimeoutMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.pluginManager = pluginManager;
+        this.address = address;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validator = new SchemaValidator();
+    }
+
+    /**
+     * Start accepting requests.
+     *
+     * @throws IOException If the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = newRequestExecutor();
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/convert", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                handleConvert(exchange);
+            }
+        });
+        server.createContext("/products", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                handleProducts(exchange);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Stop accepting requests, giving running conversions the given number of
+     * seconds to finish.
+     *
+     * @param delaySeconds How long to wait for running requests
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Get the port the service is listening on.
+     *
+     * @return The bound port
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The service is not running.");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Create the executor requests run on: one virtual thread per request on
+     * runtimes that have them, otherwise a cached pool of platform threads.
+     * The semaphore, not the executor, limits how many conversions run.
+     *
+     * @return The request executor
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException roe) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Convert the diagram in the request body and stream back the DDL.
+     *
+     * @param exchange The request being handled
+     * @throws IOException If the response cannot be sent
+     */
+    private void handleConvert(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendText(exchange, 405, "Use POST to convert a diagram.");
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            FileParser parser = pluginManager.getParserForFile(new File("diagram." + query.get("format")));
+            if (parser == null) {
+                sendText(exchange, 404, "Unknown format \"" + query.get("format") + "\".");
+                return;
+            }
+            DDLBuilder builder = pluginManager.getBuilder(query.get("product"));
+            if (builder == null) {
+                sendText(exchange, 404, "Unknown product \"" + query.get("product") + "\".");
+                return;
+            }
+
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 503, "Too many conversions in progress.");
+                return;
+            }
+            try {
+                convert(exchange, pluginManager.newParser(parser), pluginManager.newBuilder(builder),
+                        query.get("database"));
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            if (exchange.getResponseCode() == -1) { // nothing has been sent yet
+                sendText(exchange, 503, "The service is shutting down.");
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (exchange.getResponseCode() == -1) {
+                sendText(exchange, 500, e.toString());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Run a conversion for the given request with plugins owned by this
+     * request.
+     *
+     * @param exchange The request being handled
+     * @param parser The parser for the request body
+     * @param builder The builder creating the DDL
+     * @param databaseName The database name for builders that require one
+     * @throws IOException If the body cannot be read or the response sent
+     */
+    private void convert(HttpExchange exchange, FileParser parser, DDLBuilder builder,
+            String databaseName) throws IOException {
+        // Parsers read from files, so the body is spooled to a temporary one
+        File inputFile = File.createTempFile("edgeconvert", "." + parser.getFileExtension());
+        try {
+            try (InputStream body = exchange.getRequestBody()) {
+                Files.copy(body, inputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            ConversionJob job = new ConversionJob(inputFile, null);
+            boolean success = ConversionSteps.parse(job, parser)
+                    && ConversionSteps.validate(job, validator)
+                    && ConversionSteps.render(job, builder, databaseName);
+            if (!success) {
+                sendText(exchange, 422, job.getErrorMessage());
+                return;
+            }
+            String ddl = job.getDDL();
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+                for (int start = 0; start < ddl.length(); start += CHUNK_SIZE) {
+                    writer.write(ddl, start, Math.min(CHUNK_SIZE, ddl.length() - start));
+                }
+            }
+        } finally {
+            inputFile.delete();
+        }
+    }
+
+    /**
+     * List the available input formats and DDL products, one per line.
+     *
+     * @param exchange The request being handled
+     * @throws IOException If the response cannot be sent
+     */
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (FileParser parser : pluginManager.getParsers()) {
+                sb.append("format\t").append(parser.getFileExtension())
+                        .append("\t").append(parser.getProductName()).append("\n");
+            }
+            for (DDLBuilder builder : pluginManager.getBuilders()) {
+                sb.append("product\t").append(builder.getProductName())
+                        .append("\t").append(builder.getFileExtension()).append("\n");
+            }
+            sendText(exchange, 200, sb.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Send a complete plain text response.
+     *
+     * @param exchange The request being handled
+     * @param status The HTTP status code
+     * @param text The response body
+     * @throws IOException If the response cannot be sent
+     */
+    private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * Split a raw query string into its decoded parameters.
+     *
+     * @param rawQuery The query string, or null
+     * @return The query parameters by name
+     * @throws UnsupportedEncodingException Never; UTF-8 is always supported
+     */
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf("=");
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                        URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,257 @@
+package edgeconvert.service;
+
+import edgeconvert.PluginManager;
+import edgeconvert.input.FileParser;
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.pipeline.ConversionJob;
+import edgeconvert.pipeline.ConversionPipeline;
+import edgeconvert.pipeline.ConversionSteps;
+import edgeconvert.pipeline.SchemaValidator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches input directories and converts diagrams whenever they change. The
+ * DDL is written atomically next to each source file. Bursts of writes to the
+ * same file are debounced into a single conversion, and a file is only
+ * converted again once its size or modification time has changed.
+ *
+ * The watch thread blocks on the file system's change notifications, so the
+ * daemon uses no CPU while nothing changes.
+ */
+public class WatchFolderDaemon {
+
+    // public static/final attributes
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    // private static/final attributes
+    private static final Logger LOGGER = Logger.getLogger(WatchFolderDaemon.class.getName());
+
+    // declarations
+    private final PluginManager pluginManager;
+    private final DDLBuilder builder;
+    private final String databaseName;
+    private final List<File> directories;
+    private final long debounceMillis;
+    private final SchemaValidator validator;
+    private final Map<Path, ScheduledFuture<?>> pending;
+    private final Map<Path, String> converted; // the version of each file last converted
+    private final Set<Path> outputs;
+    private WatchService watchService;
+    private ScheduledExecutorService converter;
+    private Thread watchThread;
+
+    /**
+     * Construct a daemon watching the given directories.
+     *
+     * @param pluginManager The plugin manager supplying a parser for each file
+     * @param builder The builder creating the DDL
+     * @param databaseName The database name for builders that require one
+     * @param directories The directories to watch
+     * @param debounceMillis How long a file must go unchanged before it is converted
+     */
+    public WatchFolderDaemon(PluginManager pluginManager, DDLBuilder builder, String databaseName,
+            List<File> directories, long debounceMillis) {
+        this.pluginManager = pluginManager;
+        this.builder = builder;
+        this.databaseName = databaseName;
+        this.directories = new ArrayList<>(directories);
+        this.debounceMillis = debounceMillis;
+        this.validator = new SchemaValidator();
+        this.pending = new HashMap<>();
+        this.converted = new HashMap<>();
+        this.outputs = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Start watching. Files that are newer than their output are converted
+     * right away.
+     *
+     * @throws IOException If a directory cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (File directory : directories) {
+            directory.toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        // All conversions run on one thread, since plugins are not thread-safe
+        converter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "edgeconvert-watch-convert");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (File directory : directories) {
+            scanDirectory(directory.toPath());
+        }
+        watchThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "edgeconvert-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stop watching. Conversions already running are allowed to finish.
+     */
+    public synchronized void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close(); // wakes the watch thread
+        } catch (IOException ioe) {
+            LOGGER.log(Level.WARNING, "Unable to close the watch service", ioe);
+        }
+        converter.shutdown();
+        watchService = null;
+        converter = null;
+        watchThread = null;
+    }
+
+    /**
+     * Wait for change notifications and schedule conversions until stopped.
+     */
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) { // events were lost
+                        scanDirectory(directory);
+                    } else {
+                        schedule(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException cwse) {
+            // stopped
+        }
+    }
+
+    /**
+     * Schedule every convertible file in the given directory.
+     *
+     * @param directory The directory to scan
+     */
+    private void scanDirectory(Path directory) {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                schedule(file.toPath());
+            }
+        }
+    }
+
+    /**
+     * Schedule the given file to be converted once it stops changing.
+     * Restarts the wait if the file is already scheduled.
+     *
+     * @param path The file that changed
+     */
+    private synchronized void schedule(final Path path) {
+        if (converter == null || outputs.contains(path) || !isConvertible(path.toFile())) {
+            return;
+        }
+        ScheduledFuture<?> previous = pending.get(path);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        pending.put(path, converter.schedule(new Runnable() {
+            @Override
+            public void run() {
+                convert(path);
+            }
+        }, debounceMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Determine whether the given file is a diagram that can be converted.
+     *
+     * @param file The file to check
+     * @return Whether or not a parser handles the file
+     */
+    private boolean isConvertible(File file) {
+        String name = file.getName();
+        return !name.startsWith(".") && pluginManager.getParserForFile(file) != null;
+    }
+
+    /**
+     * Convert the given file if it changed since it was last converted.
+     *
+     * @param path The file to convert
+     */
+    private void convert(Path path) {
+        synchronized (this) {
+            pending.remove(path);
+        }
+        File inputFile = path.toFile();
+        String version = inputFile.length() + ":" + inputFile.lastModified();
+        if (!inputFile.isFile() || version.equals(converted.get(path))) {
+            return;
+        }
+        File outputFile = ConversionPipeline.getOutputFile(inputFile, inputFile.getParentFile(), builder);
+        if (outputFile.equals(inputFile)) { // would overwrite its own source
+            return;
+        }
+        outputs.add(outputFile.toPath());
+        if (!converted.containsKey(path) && outputFile.lastModified() >= inputFile.lastModified()) {
+            converted.put(path, version); // output is already up to date
+            return;
+        }
+
+        FileParser parser = pluginManager.getParserForFile(inputFile);
+        ConversionJob job = new ConversionJob(inputFile, outputFile);
+        boolean success;
+        try {
+            success = ConversionSteps.parse(job, parser)
+                    && ConversionSteps.validate(job, validator)
+                    && ConversionSteps.render(job, builder, databaseName)
+                    && ConversionSteps.write(job);
+        } catch (Throwable t) { // a plugin failed; the scheduled task would swallow it
+            LOGGER.log(Level.WARNING, "Unable to convert " + inputFile, t);
+            converted.put(path, version); // not retried until the file changes again
+            return;
+        }
+        converted.put(path, version);
+        if (success) {
+            LOGGER.log(Level.INFO, "Converted {0} to {1}", new Object[]{inputFile, outputFile});
+        } else {
+            LOGGER.log(Level.WARNING, "Unable to convert {0}: {1}", new Object[]{inputFile, job.getErrorMessage()});
+        }
+    }
+}
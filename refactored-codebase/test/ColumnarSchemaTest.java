@@ -0,0 +1,148 @@
+package edgeconvert.test;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests for packing schemas into a ColumnarSchema, on and off the heap.
+ */
+public class ColumnarSchemaTest {
+
+    /**
+     * Create the orders schema with an index, a default value and names
+     * that are not ASCII, so every column holds something.
+     *
+     * @return The new schema
+     */
+    private static Schema schema() {
+        Schema schema = TestSchemas.orders();
+        Table order = schema.getTables().get(0);
+        order.setIndex("ORDERS_NOTE_IDX", order.getFieldByName("NOTE"));
+        order.getFieldByName("NOTE").setDefaultValue("n\u00e9e");
+        schema.addTable(TestSchemas.table("KUNDE_\u00c4NDERUNG", "ID", "GR\u00dcND"));
+        return schema;
+    }
+
+    /**
+     * A schema copied off the heap reads the same as the one on it.
+     */
+    @Test
+    public void offHeapMatchesHeap() {
+        ColumnarSchema heap = ColumnarSchema.of(schema());
+        ColumnarSchema offHeap = heap.toOffHeap();
+        assertFalse(heap.isOffHeap());
+        assertTrue(offHeap.isOffHeap());
+        assertSameSchema(heap, offHeap);
+        assertEquals(MySQLBuilderTest.buildColumnar(heap), MySQLBuilderTest.buildColumnar(offHeap));
+    }
+
+    /**
+     * A schema written to a file and mapped back in reads the same as the
+     * one written, and can itself be written again.
+     *
+     * @throws IOException If the temporary file cannot be used
+     */
+    @Test
+    public void writeAndMapRoundTrip() throws IOException {
+        ColumnarSchema heap = ColumnarSchema.of(schema());
+        File file = File.createTempFile("edgeconvert", ".cols");
+        File copy = File.createTempFile("edgeconvert", ".cols");
+        try {
+            heap.write(file);
+            ColumnarSchema mapped = ColumnarSchema.map(file);
+            assertTrue(mapped.isOffHeap());
+            assertSameSchema(heap, mapped);
+            assertEquals(SaveFileBuilderTest.buildColumnar(heap), SaveFileBuilderTest.buildColumnar(mapped));
+
+            mapped.write(copy);
+            assertSameSchema(heap, ColumnarSchema.map(copy));
+        } finally {
+            file.delete();
+            copy.delete();
+        }
+    }
+
+    /**
+     * A truncated file is rejected rather than read past its end.
+     *
+     * @throws IOException If the temporary file cannot be used
+     */
+    @Test
+    public void mapRejectsTruncatedFile() throws IOException {
+        File file = File.createTempFile("edgeconvert", ".cols");
+        try {
+            ColumnarSchema.of(schema()).write(file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(raf.length() / 2);
+            }
+            try {
+                ColumnarSchema.map(file);
+                fail("A truncated schema was mapped.");
+            } catch (IOException ioe) {
+                // expected
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Unpacking a packed schema gives the tables it was packed from.
+     */
+    @Test
+    public void unpackMatchesSchema() {
+        Schema schema = schema();
+        ColumnarSchema packed = ColumnarSchema.of(schema).toOffHeap();
+        Schema unpacked = packed.toSchema();
+        assertEquals(MySQLBuilderTest.buildObjects(schema), MySQLBuilderTest.buildObjects(unpacked));
+        assertEquals(SaveFileBuilderTest.buildObjects(schema), SaveFileBuilderTest.buildObjects(unpacked));
+        assertEquals(5, packed.getTableByName("KUNDE_\u00c4NDERUNG"));
+        assertEquals(ColumnarSchema.NONE, packed.getTableByName("KUNDE"));
+    }
+
+    /**
+     * Check that two packed schemas hold the same tables, fields, relations
+     * and indexes.
+     *
+     * @param expected The schema to match
+     * @param actual The schema to check
+     */
+    private static void assertSameSchema(ColumnarSchema expected, ColumnarSchema actual) {
+        assertEquals(expected.getTableCount(), actual.getTableCount());
+        assertEquals(expected.getFieldCount(), actual.getFieldCount());
+        for (int table = 0; table < expected.getTableCount(); table++) {
+            assertEquals(expected.getTableName(table), actual.getTableName(table));
+            assertEquals(expected.getFirstField(table), actual.getFirstField(table));
+            assertEquals(expected.getFieldEnd(table), actual.getFieldEnd(table));
+            assertEquals(expected.getRelatedFieldCount(table), actual.getRelatedFieldCount(table));
+            assertEquals(expected.getRelatedTableCount(table), actual.getRelatedTableCount(table));
+            for (int i = 0; i < expected.getRelatedTableCount(table); i++) {
+                assertEquals(expected.getRelatedTable(table, i), actual.getRelatedTable(table, i));
+            }
+            assertEquals(expected.getIndexCount(table), actual.getIndexCount(table));
+            for (int i = 0; i < expected.getIndexCount(table); i++) {
+                assertEquals(expected.getIndexName(table, i), actual.getIndexName(table, i));
+                assertEquals(expected.getIndexField(table, i), actual.getIndexField(table, i));
+            }
+        }
+        for (int field = 0; field < expected.getFieldCount(); field++) {
+            assertEquals(expected.getTable(field), actual.getTable(field));
+            assertEquals(expected.getFieldName(field), actual.getFieldName(field));
+            assertEquals(expected.getDataType(field), actual.getDataType(field));
+            assertEquals(expected.getCharLength(field), actual.getCharLength(field));
+            assertEquals(expected.getFlags(field), actual.getFlags(field));
+            assertEquals(expected.getDefaultValue(field), actual.getDefaultValue(field));
+            assertEquals(expected.getRelatedField(field), actual.getRelatedField(field));
+            assertEquals(expected.getForeignField(field), actual.getForeignField(field));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package edgeconvert.test;
+
+import edgeconvert.PluginManager;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import edgeconvert.diagnostics.ConversionMetrics;
+import edgeconvert.diagnostics.OperationStats;
+import edgeconvert.input.FileParser;
+import edgeconvert.output.DDLBuilder;
+import edgeconvert.pipeline.ConversionJob;
+import edgeconvert.pipeline.ConversionPipeline;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests that a ConversionPipeline finishes every job it is given, even when
+ * a plugin fails.
+ */
+public class ConversionPipelineTest {
+
+    // private static/final attributes
+    private static final int JOBS = 20; // several times the queue capacity
+
+    /**
+     * Every job gets through the pipeline and fails when the parser throws
+     * an Error, and neither submit nor finish blocks.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    @Test(timeout = 10000)
+    public void parserErrorFailsEachJob() throws InterruptedException {
+        List<ConversionJob> finished = convert(new FailingParser(new StackOverflowError()));
+        assertEquals(JOBS, finished.size());
+        for (ConversionJob job : finished) {
+            assertTrue(job.isFailed());
+            assertTrue(job.getErrorMessage().contains("StackOverflowError"));
+        }
+    }
+
+    /**
+     * A RuntimeException from the parser fails the job it was thrown for,
+     * and is counted as a failed parse.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    @Test(timeout = 10000)
+    public void parserExceptionFailsEachJob() throws InterruptedException {
+        OperationStats parses = ConversionMetrics.getInstance().getStats(ConversionMetrics.PARSE_FILE,
+                FailingParser.class.getName());
+        long failures = parses.getFailureCount();
+        List<ConversionJob> finished = convert(new FailingParser(new IllegalStateException("broken")));
+        assertEquals(JOBS, finished.size());
+        for (ConversionJob job : finished) {
+            assertTrue(job.getErrorMessage().contains("broken"));
+        }
+        assertEquals(failures + JOBS, parses.getFailureCount());
+    }
+
+    /**
+     * Finishing a pipeline no files were submitted to stops every stage.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    @Test(timeout = 10000)
+    public void finishWithoutJobs() throws InterruptedException {
+        ConversionPipeline pipeline = new ConversionPipeline(new TestPluginManager(null),
+                new NullBuilder(), null, 1);
+        pipeline.start();
+        assertTrue(pipeline.finish().isEmpty());
+    }
+
+    /**
+     * Convert JOBS files with the given parser through a pipeline with small
+     * queues.
+     *
+     * @param parser The parser to give the pipeline
+     * @return The finished jobs
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private static List<ConversionJob> convert(FileParser parser) throws InterruptedException {
+        ConversionPipeline pipeline = new ConversionPipeline(new TestPluginManager(parser),
+                new NullBuilder(), null, 2);
+        pipeline.start();
+        for (int i = 0; i < JOBS; i++) {
+            pipeline.submit(new File("diagram" + i + ".edg"), new File("diagram" + i + ".sql"));
+        }
+        return pipeline.finish();
+    }
+
+    /**
+     * A plugin manager that gives the same parser for every file.
+     */
+    private static class TestPluginManager extends PluginManager {
+
+        // declarations
+        private final FileParser parser;
+
+        /**
+         * Construct a plugin manager with one parser.
+         *
+         * @param parser The parser for every file
+         */
+        TestPluginManager(FileParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public FileParser getParserForFile(File file) {
+            return parser;
+        }
+    }
+
+    /**
+     * A parser that throws when it parses.
+     */
+    private static class FailingParser implements FileParser {
+
+        // declarations
+        private final Throwable failure;
+
+        /**
+         * Construct a parser that fails with the given exception or error.
+         *
+         * @param failure What parseFile throws
+         */
+        FailingParser(Throwable failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public String getProductName() {
+            return "Failing";
+        }
+
+        @Override
+        public String getFileExtension() {
+            return "edg";
+        }
+
+        @Override
+        public void setFile(File inputFile) {
+        }
+
+        @Override
+        public boolean parseFile() {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return new Schema(new ArrayList<Table>());
+        }
+
+        @Override
+        public String getErrorMessage() {
+            return null;
+        }
+    }
+
+    /**
+     * A builder that creates no DDL.
+     */
+    private static class NullBuilder implements DDLBuilder {
+
+        @Override
+        public String getProductName() {
+            return "Null";
+        }
+
+        @Override
+        public String getFileExtension() {
+            return "sql";
+        }
+
+        @Override
+        public void setTables(List<Table> tables) {
+        }
+
+        @Override
+        public void setDatabaseName(String dbName) {
+        }
+
+        @Override
+        public String buildDDL() {
+            return "";
+        }
+
+        @Override
+        public boolean requiresDatabaseName() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package edgeconvert.test;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.DependencyAnalysis;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for the analysis of the foreign key graph into groups, levels and
+ * chains.
+ */
+public class DependencyAnalysisTest {
+
+    // private static/final attributes
+    private static final int ORDERS = 0, CUSTOMER = 1, PRODUCT = 2, SHIPPER = 3, REGION = 4;
+
+    /**
+     * Tables referring to each other form one cyclic group, and every other
+     * table is a group of its own.
+     */
+    @Test
+    public void groupsMutuallyDependentTables() {
+        DependencyAnalysis analysis = DependencyAnalysis.of(TestSchemas.orders().getTables());
+        assertEquals(5, analysis.getTableCount());
+        assertEquals(6, analysis.getReferenceCount()); // a related field and foreign key to one field count once
+        assertEquals(4, analysis.getComponentCount());
+        assertEquals(analysis.getComponent(ORDERS), analysis.getComponent(CUSTOMER));
+        assertTrue(analysis.isCyclic(analysis.getComponent(ORDERS)));
+        assertFalse(analysis.isCyclic(analysis.getComponent(REGION)));
+        assertEquals(1, analysis.getCyclicComponentCount());
+        assertArrayEquals(new int[]{analysis.getComponent(ORDERS)}, analysis.getCyclicComponents());
+        int[] group = analysis.getComponentTables(analysis.getComponent(CUSTOMER));
+        Arrays.sort(group);
+        assertArrayEquals(new int[]{ORDERS, CUSTOMER}, group);
+    }
+
+    /**
+     * Each table's level is one more than the highest level it depends on,
+     * and groups are numbered in dependency order.
+     */
+    @Test
+    public void levelsAndLoadOrder() {
+        DependencyAnalysis analysis = DependencyAnalysis.of(TestSchemas.orders().getTables());
+        assertEquals(0, analysis.getLevel(PRODUCT));
+        assertEquals(0, analysis.getLevel(REGION));
+        assertEquals(1, analysis.getLevel(SHIPPER));
+        assertEquals(2, analysis.getLevel(ORDERS));
+        assertEquals(2, analysis.getLevel(CUSTOMER));
+        assertEquals(3, analysis.getLevelCount());
+        assertTrue(analysis.getComponent(REGION) < analysis.getComponent(SHIPPER));
+        assertTrue(analysis.getComponent(SHIPPER) < analysis.getComponent(ORDERS));
+        assertArrayEquals(new int[]{PRODUCT, REGION, SHIPPER, ORDERS, CUSTOMER}, analysis.getLoadOrder());
+        assertArrayEquals(new int[]{analysis.getComponent(ORDERS), analysis.getComponent(SHIPPER),
+            analysis.getComponent(REGION)}, analysis.getLongestChain());
+    }
+
+    /**
+     * Analyzing a packed schema gives the same groups and levels as
+     * analyzing its tables.
+     */
+    @Test
+    public void columnarMatchesTables() {
+        Schema schema = TestSchemas.orders();
+        DependencyAnalysis tables = DependencyAnalysis.of(schema.getTables());
+        DependencyAnalysis columnar = DependencyAnalysis.of(ColumnarSchema.of(schema));
+        assertEquals(tables.getReferenceCount(), columnar.getReferenceCount());
+        assertEquals(tables.getComponentCount(), columnar.getComponentCount());
+        for (int table = 0; table < tables.getTableCount(); table++) {
+            assertEquals(tables.getTableName(table), columnar.getTableName(table));
+            assertEquals(tables.getComponent(table), columnar.getComponent(table));
+            assertEquals(tables.getLevel(table), columnar.getLevel(table));
+        }
+        assertArrayEquals(tables.getLoadOrder(), columnar.getLoadOrder());
+        assertArrayEquals(tables.getLongestChain(), columnar.getLongestChain());
+    }
+
+    /**
+     * A table referring to itself is a cyclic group of one.
+     */
+    @Test
+    public void selfReferenceIsCyclic() {
+        Table employee = TestSchemas.table("EMPLOYEE", "ID", "MANAGER_ID");
+        TestSchemas.relate(employee, "MANAGER_ID", employee, "ID");
+        DependencyAnalysis analysis = DependencyAnalysis.of(Collections.singletonList(employee));
+        assertEquals(1, analysis.getComponentCount());
+        assertTrue(analysis.isCyclic(0));
+        assertEquals(1, analysis.getLevelCount());
+    }
+
+    /**
+     * A chain far deeper than the thread's stack could recurse through is
+     * analyzed, each table on a level of its own.
+     */
+    @Test(timeout = 30000)
+    public void deepChainDoesNotOverflow() {
+        int depth = 200000;
+        List<Table> tables = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            Table table = TestSchemas.table("T" + i, "ID", "PARENT_ID");
+            if (i > 0) {
+                TestSchemas.relate(table, "PARENT_ID", tables.get(i - 1), "ID");
+            }
+            tables.add(table);
+        }
+        Collections.reverse(tables); // the deepest table first, so the search starts at the top
+        DependencyAnalysis analysis = DependencyAnalysis.of(tables);
+        assertEquals(depth, analysis.getComponentCount());
+        assertEquals(0, analysis.getCyclicComponentCount());
+        assertEquals(depth, analysis.getLevelCount());
+        assertEquals(depth - 1, analysis.getLevel(0));
+        assertEquals(depth, analysis.getLongestChain().length);
+        assertEquals(depth - 1, analysis.getLoadOrder()[0]);
+    }
+
+    /**
+     * An empty list of tables has no groups or levels.
+     */
+    @Test
+    public void emptySchema() {
+        DependencyAnalysis analysis = DependencyAnalysis.of(Collections.<Table>emptyList());
+        assertEquals(0, analysis.getComponentCount());
+        assertEquals(0, analysis.getLevelCount());
+        assertEquals(0, analysis.getLoadOrder().length);
+        assertEquals(0, analysis.getLongestChain().length);
+    }
+}
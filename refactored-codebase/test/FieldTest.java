@@ -0,0 +1,109 @@
+package edgeconvert.test;
+
+import edgeconvert.Field;
+import edgeconvert.Table;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for the observers of a Field.
+ */
+public class FieldTest {
+
+    /**
+     * Records the Observables it is told have changed.
+     */
+    private static class RecordingObserver implements Observer {
+
+        private final List<Observable> changed = new ArrayList<>();
+
+        @Override
+        public void update(Observable o, Object arg) {
+            changed.add(o);
+        }
+    }
+
+    /**
+     * A field is an Observable and passes itself to each of its observers.
+     */
+    @Test
+    public void observersReceiveTheField() {
+        Field field = new Field("NAME");
+        RecordingObserver first = new RecordingObserver();
+        RecordingObserver second = new RecordingObserver();
+        assertTrue(field instanceof Observable);
+        field.addObserver(first);
+        field.addObserver(second);
+
+        field.setCharLength(30);
+
+        assertEquals(1, first.changed.size());
+        assertSame(field, first.changed.get(0));
+        assertSame(field, second.changed.get(0));
+        assertEquals(30, ((Field) first.changed.get(0)).getCharLength());
+    }
+
+    /**
+     * A table is told when one of its fields is edited while other views
+     * observe the field too.
+     */
+    @Test
+    public void tableSeesFieldChangesWithOtherObservers() {
+        Table table = new Table("CUSTOMER");
+        Field field = new Field("NAME");
+        table.addField(field);
+        RecordingObserver tableObserver = new RecordingObserver();
+        RecordingObserver fieldObserver = new RecordingObserver();
+        table.addObserver(tableObserver);
+        field.addObserver(fieldObserver);
+
+        field.setDefaultValue("none");
+
+        assertEquals(1, fieldObserver.changed.size());
+        assertEquals(1, tableObserver.changed.size());
+        assertSame(table, tableObserver.changed.get(0));
+    }
+
+    /**
+     * Observers are counted once however often they are added, and stop
+     * being told about changes once deleted.
+     */
+    @Test
+    public void addAndDeleteObservers() {
+        Field field = new Field("NAME");
+        RecordingObserver first = new RecordingObserver();
+        RecordingObserver second = new RecordingObserver();
+        RecordingObserver third = new RecordingObserver();
+        field.addObserver(first);
+        field.addObserver(first);
+        assertEquals(1, field.countObservers());
+        field.addObserver(second);
+        field.addObserver(third);
+        field.addObserver(second);
+        assertEquals(3, field.countObservers());
+
+        field.deleteObserver(second);
+        assertEquals(2, field.countObservers());
+        field.setCharLength(10);
+        assertEquals(1, first.changed.size());
+        assertEquals(0, second.changed.size());
+        assertEquals(1, third.changed.size());
+
+        field.deleteObserver(first);
+        assertEquals(1, field.countObservers());
+        field.setCharLength(11);
+        assertEquals(1, first.changed.size());
+        assertEquals(2, third.changed.size());
+
+        field.deleteObservers();
+        assertEquals(0, field.countObservers());
+        field.setCharLength(12);
+        assertEquals(2, third.changed.size());
+    }
+}
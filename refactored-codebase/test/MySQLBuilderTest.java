@@ -0,0 +1,106 @@
+package edgeconvert.test;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.Schema;
+import edgeconvert.output.BuildProgressListener;
+import edgeconvert.output.MySQLBuilder;
+import java.util.concurrent.CancellationException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests for the DDL created by MySQLBuilder.
+ */
+public class MySQLBuilderTest {
+
+    /**
+     * The progress listener is told about each table as it is built.
+     */
+    @Test
+    public void reportsEachTable() {
+        Schema schema = TestSchemas.orders();
+        MySQLBuilder builder = new MySQLBuilder();
+        builder.setDatabaseName("SHOP");
+        builder.setTables(schema.getTables());
+        final int[] reports = new int[2];
+        builder.setProgressListener(new BuildProgressListener() {
+            @Override
+            public void progressMade(int built, int total) {
+                reports[0]++;
+                reports[1] = built;
+                assertEquals(5, total);
+            }
+        });
+        builder.buildDDL();
+        assertEquals(5, reports[0]);
+        assertEquals(5, reports[1]);
+    }
+
+    /**
+     * Building from tables and from the same schema packed into arrays
+     * gives the same DDL, foreign keys included, in field order.
+     */
+    @Test
+    public void columnarMatchesObjects() {
+        for (Schema schema : new Schema[]{TestSchemas.orders(), TestSchemas.star(24)}) {
+            assertEquals(buildObjects(schema), buildColumnar(ColumnarSchema.of(schema)));
+        }
+        String ddl = buildObjects(TestSchemas.star(24));
+        for (int i = 1; i < 24; i++) {
+            assertTrue(ddl.indexOf("FOREIGN KEY(REF" + i + "_ID)") < ddl.indexOf("FOREIGN KEY(REF" + (i + 1) + "_ID)"));
+        }
+    }
+
+    /**
+     * Build MySQL DDL from a schema's tables.
+     *
+     * @param schema The schema
+     * @return The DDL
+     */
+    static String buildObjects(Schema schema) {
+        MySQLBuilder builder = new MySQLBuilder();
+        builder.setDatabaseName("SHOP");
+        builder.setTables(schema.getTables());
+        return builder.buildDDL();
+    }
+
+    /**
+     * Build MySQL DDL from a packed schema.
+     *
+     * @param schema The packed schema
+     * @return The DDL
+     */
+    static String buildColumnar(ColumnarSchema schema) {
+        MySQLBuilder builder = new MySQLBuilder();
+        builder.setDatabaseName("SHOP");
+        builder.setColumnarSchema(schema);
+        return builder.buildDDL();
+    }
+
+    /**
+     * A listener that throws stops the build after the table it was told
+     * about.
+     */
+    @Test
+    public void listenerCancelsBuild() {
+        MySQLBuilder builder = new MySQLBuilder();
+        builder.setDatabaseName("SHOP");
+        builder.setTables(TestSchemas.orders().getTables());
+        final int[] reports = new int[1];
+        builder.setProgressListener(new BuildProgressListener() {
+            @Override
+            public void progressMade(int built, int total) {
+                reports[0]++;
+                throw new CancellationException();
+            }
+        });
+        try {
+            builder.buildDDL();
+            fail("The build was not cancelled.");
+        } catch (CancellationException ce) {
+            assertEquals(1, reports[0]);
+        }
+    }
+}
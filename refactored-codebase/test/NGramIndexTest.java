@@ -0,0 +1,89 @@
+package edgeconvert.test;
+
+import edgeconvert.view.NGramIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests that NGramIndex finds the same items as checking every name.
+ */
+public class NGramIndexTest {
+
+    /**
+     * Random names and queries of every length give the same items, in the
+     * same order, as a scan.
+     */
+    @Test
+    public void matchesScan() {
+        Random random = new Random(33);
+        NGramIndex<Integer> index = new NGramIndex<>();
+        List<List<String>> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            List<String> itemNames = new ArrayList<>();
+            itemNames.add(randomName(random));
+            index.add(i, itemNames.get(0));
+            names.add(itemNames);
+        }
+        for (int i = 0; i < 300; i++) { // names added to earlier items
+            int id = random.nextInt(names.size());
+            String name = randomName(random);
+            index.addName(id, name);
+            names.get(id).add(name);
+        }
+        for (int i = 0; i < 400; i++) {
+            String query = randomName(random);
+            query = query.substring(0, 1 + random.nextInt(Math.min(5, query.length())));
+            for (boolean prefix : new boolean[]{false, true}) {
+                List<Integer> expected = new ArrayList<>();
+                for (int id = 0; id < names.size(); id++) {
+                    for (String name : names.get(id)) {
+                        if (NGramIndex.matches(name, query, prefix)) {
+                            expected.add(id);
+                            break;
+                        }
+                    }
+                }
+                assertEquals(query, expected, index.search(query, prefix));
+                int limit = 1 + random.nextInt(10);
+                assertEquals(query, expected.subList(0, Math.min(limit, expected.size())),
+                        index.search(query, prefix, limit));
+            }
+        }
+    }
+
+    /**
+     * Case is ignored, and an empty query finds everything up to the limit.
+     */
+    @Test
+    public void ignoresCaseAndEmptyQuery() {
+        NGramIndex<String> index = new NGramIndex<>();
+        index.add("a", "Customer");
+        index.add("b", "ORDER_LINE");
+        index.add("c", "line_item");
+        assertEquals(Arrays.asList("b", "c"), index.search("LiNe", false));
+        assertEquals(Arrays.asList("c"), index.search("LINE", true));
+        assertEquals(Arrays.asList("a", "b"), index.search("", false, 2));
+        assertEquals(Arrays.asList("a", "b", "c"), index.search(null, true));
+    }
+
+    /**
+     * Create a short name from a small alphabet, so that queries often
+     * match.
+     *
+     * @param random The source of the name
+     * @return The name
+     */
+    private static String randomName(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            char c = "abcdE_".charAt(random.nextInt(6));
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
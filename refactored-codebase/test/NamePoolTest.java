@@ -0,0 +1,115 @@
+package edgeconvert.test;
+
+import edgeconvert.NamePool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for the bounded pool of names shared by the parsers.
+ */
+public class NamePoolTest {
+
+    /**
+     * An equal name is returned as the copy already pooled, and counted as
+     * a hit.
+     */
+    @Test
+    public void returnsPooledCopy() {
+        NamePool pool = new NamePool(16);
+        String id = new String("id");
+        assertSame(id, pool.intern(id));
+        assertSame(id, pool.intern(new String("id")));
+        assertEquals(2, pool.getLookups());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0.5, pool.getHitRate(), 0);
+        assertNull(pool.intern(null));
+    }
+
+    /**
+     * A third name with the same slots pushes out the oldest of the two
+     * held, and the pool never holds more than its capacity.
+     */
+    @Test
+    public void evictsOldestName() {
+        NamePool pool = new NamePool(2); // one pair of slots, shared by every name
+        String first = new String("first");
+        String second = new String("second");
+        String third = new String("third");
+        pool.intern(first);
+        pool.intern(second);
+        assertEquals(0, pool.getEvictions());
+        assertEquals(2, pool.getSize());
+
+        pool.intern(third);
+        assertEquals(1, pool.getEvictions());
+        assertEquals(2, pool.getSize());
+        assertSame(second, pool.intern(new String("second")));
+        assertSame(third, pool.intern(new String("third")));
+        assertNotSame(first, pool.intern(new String("first")));
+        assertEquals(2, pool.getEvictions());
+    }
+
+    /**
+     * However many names are added, the pool stays within its capacity,
+     * and every miss either fills a slot or evicts a name.
+     */
+    @Test
+    public void staysWithinCapacity() {
+        NamePool pool = new NamePool(64);
+        for (int i = 0; i < 1000; i++) {
+            pool.intern("FIELD_" + i);
+        }
+        assertEquals(64, pool.getCapacity());
+        assertTrue(pool.getSize() <= pool.getCapacity());
+        assertEquals(1000, pool.getMisses());
+        assertEquals(pool.getMisses() - pool.getSize(), pool.getEvictions());
+        assertTrue(pool.getEvictions() >= 1000 - 64);
+    }
+
+    /**
+     * Names too long to be worth pooling are returned without a lookup.
+     */
+    @Test
+    public void skipsLongNames() {
+        NamePool pool = new NamePool(16);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= NamePool.MAX_NAME_LENGTH; i++) {
+            sb.append('x');
+        }
+        String longName = sb.toString();
+        assertSame(longName, pool.intern(longName));
+        assertNotSame(longName, pool.intern(new String(longName)));
+        assertEquals(0, pool.getLookups());
+        assertEquals(0, pool.getSize());
+    }
+
+    /**
+     * The capacity is rounded up to a power of two, and resetting the
+     * statistics keeps the names held.
+     */
+    @Test
+    public void capacityAndReset() {
+        assertEquals(4, new NamePool(3).getCapacity());
+        assertEquals(2, new NamePool(2).getCapacity());
+        NamePool pool = new NamePool(16);
+        String id = new String("id");
+        pool.intern(id);
+        pool.resetStatistics();
+        assertEquals(0, pool.getLookups());
+        assertSame(id, pool.intern(new String("id")));
+        assertEquals(1, pool.getHits());
+    }
+
+    /**
+     * A capacity of less than two is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTinyCapacity() {
+        new NamePool(1);
+    }
+}
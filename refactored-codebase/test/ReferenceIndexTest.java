@@ -0,0 +1,85 @@
+package edgeconvert.test;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for the index of references Schema keeps, through its
+ * getReferencingFields, getReferencingTables and isReferenced methods.
+ */
+public class ReferenceIndexTest {
+
+    /**
+     * The index finds every table and field referring to a table, through
+     * related fields and foreign keys, each once.
+     */
+    @Test
+    public void findsReferences() {
+        Schema schema = TestSchemas.orders();
+        Table orders = schema.getTableByName("ORDERS");
+        Table shipper = schema.getTableByName("SHIPPER");
+        Table region = schema.getTableByName("REGION");
+        assertEquals(Arrays.asList(orders, shipper), schema.getReferencingTables(region));
+        assertEquals(Arrays.asList(orders.getFieldByName("REGION_ID"), shipper.getFieldByName("REGION_ID")),
+                schema.getReferencingFields(region.getFieldByName("ID")));
+        assertTrue(schema.isReferenced(orders));
+        assertFalse(schema.isReferenced(region.getFieldByName("NAME")));
+
+        Table unrelated = TestSchemas.table("AUDIT", "ID");
+        schema.addTable(unrelated);
+        assertFalse(schema.isReferenced(unrelated));
+    }
+
+    /**
+     * A reference stops being found once both its related field and its
+     * foreign key are removed.
+     */
+    @Test
+    public void forgetsRemovedReferences() {
+        Schema schema = TestSchemas.orders();
+        Table orders = schema.getTableByName("ORDERS");
+        Table product = schema.getTableByName("PRODUCT");
+        Field productId = orders.getFieldByName("PRODUCT_ID");
+
+        orders.removeRelatedField(productId);
+        assertTrue(schema.isReferenced(product)); // the foreign key still refers to it
+        productId.setForeignField(null);
+        assertFalse(schema.isReferenced(product));
+        assertEquals(Collections.emptyList(), schema.getReferencingFields(product.getFieldByName("ID")));
+    }
+
+    /**
+     * A field referred to before it was added to a table is found through
+     * the table it is in when the index is asked.
+     */
+    @Test
+    public void followsFieldsIntoLaterTables() {
+        Field code = new Field("CODE");
+        Table item = TestSchemas.table("ITEM", "ID", "CODE_ID");
+        Field codeId = item.getFieldByName("CODE_ID");
+        codeId.setForeignField(code);
+        item.setRelatedField(codeId, code);
+        Schema schema = new Schema();
+        schema.addTable(item);
+
+        Table codes = TestSchemas.table("CODES", "ID");
+        code.setTable(codes);
+        codes.addField(code);
+        schema.addTable(codes);
+        assertEquals(Collections.singletonList(item), schema.getReferencingTables(codes));
+        assertTrue(schema.isReferenced(codes));
+
+        Table newCodes = TestSchemas.table("NEW_CODES", "ID");
+        code.setTable(newCodes);
+        newCodes.addField(code);
+        schema.addTable(newCodes);
+        assertEquals(Collections.singletonList(item), schema.getReferencingTables(newCodes));
+    }
+}
@@ -0,0 +1,52 @@
+package edgeconvert.test;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.Schema;
+import edgeconvert.output.SaveFileBuilder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for the save files created by SaveFileBuilder.
+ */
+public class SaveFileBuilderTest {
+
+    /**
+     * Building from tables and from the same schema packed into arrays
+     * gives the same file, with tables and fields in id order.
+     */
+    @Test
+    public void columnarMatchesObjects() {
+        for (Schema schema : new Schema[]{TestSchemas.orders(), TestSchemas.star(24)}) {
+            assertEquals(buildObjects(schema), buildColumnar(ColumnarSchema.of(schema)));
+        }
+        String save = buildObjects(TestSchemas.orders());
+        assertTrue(save.indexOf("Table: 1\n") < save.indexOf("Table: 8\n"));
+        assertTrue(save.indexOf("\n2|ID|1|") < save.indexOf("\n9|ID|8|"));
+    }
+
+    /**
+     * Build a save file from a schema's tables.
+     *
+     * @param schema The schema
+     * @return The save file
+     */
+    static String buildObjects(Schema schema) {
+        SaveFileBuilder builder = new SaveFileBuilder();
+        builder.setTables(schema.getTables());
+        return builder.buildDDL();
+    }
+
+    /**
+     * Build a save file from a packed schema.
+     *
+     * @param schema The packed schema
+     * @return The save file
+     */
+    static String buildColumnar(ColumnarSchema schema) {
+        SaveFileBuilder builder = new SaveFileBuilder();
+        builder.setColumnarSchema(schema);
+        return builder.buildDDL();
+    }
+}
@@ -0,0 +1,64 @@
+package edgeconvert.test;
+
+import edgeconvert.ColumnarSchema;
+import edgeconvert.Schema;
+import edgeconvert.input.SaveParser;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for reading save files with SaveParser.
+ */
+public class SaveParserTest {
+
+    /**
+     * The packed schema read straight from a save file lists its tables,
+     * fields and related tables in the same order as the parsed schema.
+     *
+     * @throws IOException If the save file cannot be written
+     */
+    @Test
+    public void columnarMatchesSchema() throws IOException {
+        for (Schema schema : new Schema[]{TestSchemas.orders(), TestSchemas.star(24)}) {
+            SaveParser parser = parse(SaveFileBuilderTest.buildObjects(schema));
+            Schema parsed = parser.getSchema();
+            ColumnarSchema columnar = parser.getColumnarSchema();
+            assertEquals(parsed.getTables().size(), columnar.getTableCount());
+            for (int table = 0; table < columnar.getTableCount(); table++) {
+                assertEquals(parsed.getTables().get(table).getName(), columnar.getTableName(table));
+            }
+            assertEquals(SaveFileBuilderTest.buildColumnar(ColumnarSchema.of(parsed)),
+                    SaveFileBuilderTest.buildColumnar(columnar));
+            assertEquals(MySQLBuilderTest.buildObjects(parsed), MySQLBuilderTest.buildColumnar(columnar));
+        }
+    }
+
+    /**
+     * Parse a save file's contents.
+     *
+     * @param contents The save file
+     * @return The parser, having read the file
+     * @throws IOException If the file cannot be written
+     */
+    private static SaveParser parse(String contents) throws IOException {
+        File file = File.createTempFile("edgeconvert", ".sav");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write(contents);
+            }
+            SaveParser parser = new SaveParser();
+            parser.setFile(file);
+            assertTrue(parser.parseFile());
+            return parser;
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package edgeconvert.test;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+import edgeconvert.view.SchemaSearchIndex;
+import edgeconvert.view.SwingDispatcher;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for searching a schema's table and field names.
+ */
+public class SchemaSearchIndexTest {
+
+    /**
+     * Run a test's steps on the event dispatch thread, where the index is
+     * used, passing on any failure.
+     *
+     * @param steps The steps to run
+     * @throws Exception If the steps fail
+     */
+    private static void onEventDispatchThread(Runnable steps) throws Exception {
+        try {
+            SwingUtilities.invokeAndWait(steps);
+        } catch (InvocationTargetException ite) {
+            if (ite.getCause() instanceof Error) {
+                throw (Error) ite.getCause();
+            }
+            throw (Exception) ite.getCause();
+        }
+    }
+
+    /**
+     * Tables are found by their own names and their fields' names, in
+     * schema order, including fields added after the schema was indexed.
+     *
+     * @throws Exception If the test fails
+     */
+    @Test
+    public void findsTablesByFieldsInSchemaOrder() throws Exception {
+        onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                findTablesByFieldsInSchemaOrder();
+            }
+        });
+    }
+
+    /**
+     * Index a schema, edit it and search it, all on one thread.
+     */
+    private static void findTablesByFieldsInSchemaOrder() {
+        Schema schema = TestSchemas.orders();
+        SchemaSearchIndex index = new SchemaSearchIndex();
+        index.setSchema(schema);
+        List<Table> tables = schema.getTables();
+
+        SchemaSearchIndex.SearchResult result = index.search("region", false);
+        assertEquals(Arrays.asList(tables.get(0), tables.get(3), tables.get(4)), result.getTables());
+        assertTrue(result.isComplete());
+        assertEquals(tables.subList(1, 5), index.search("NAM", true).getTables());
+        assertEquals(Arrays.asList(tables.get(0)), index.search("note", true).getTables());
+
+        Field field = new Field("REGION_CODE");
+        field.setTable(tables.get(2));
+        tables.get(2).addField(field);
+        assertEquals(Arrays.asList(tables.get(0), tables.get(2), tables.get(3), tables.get(4)),
+                index.search("region", false).getTables());
+
+        Table added = TestSchemas.table("REGIONAL_OFFICE", "ID");
+        schema.addTable(added);
+        List<Table> found = index.search("regional", true).getTables();
+        assertEquals(1, found.size());
+        assertSame(added, found.get(0));
+    }
+
+    /**
+     * A field added on another thread is indexed once the rebuild posted to
+     * the event dispatch thread has run.
+     *
+     * @throws Exception If the test fails
+     */
+    @Test(timeout = 10000)
+    public void rebuildsAfterEditsOnOtherThreads() throws Exception {
+        final Schema schema = TestSchemas.orders();
+        final SchemaSearchIndex index = new SchemaSearchIndex();
+        onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                index.setSchema(schema);
+            }
+        });
+        final Table product = schema.getTableByName("PRODUCT");
+        Field field = new Field("WAREHOUSE_ID");
+        field.setTable(product);
+        product.addField(field); // on this thread, not the event dispatch thread
+        while (SwingDispatcher.getInstance().isPending(index)) {
+            Thread.sleep(10);
+        }
+        onEventDispatchThread(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(Arrays.asList(product), index.search("warehouse", false).getTables());
+            }
+        });
+    }
+
+    /**
+     * A query matching more than MAX_TABLES tables returns the first of
+     * them, and says it stopped early.
+     */
+    @Test
+    public void stopsAfterMaxTables() {
+        Schema schema = new Schema();
+        for (int i = 0; i < SchemaSearchIndex.MAX_TABLES * 2; i++) {
+            schema.addTable(TestSchemas.table("T" + i, "ID"));
+        }
+        SchemaSearchIndex index = new SchemaSearchIndex();
+        index.setSchema(schema);
+        SchemaSearchIndex.SearchResult result = index.search("t", true);
+        assertFalse(result.isComplete());
+        assertEquals(schema.getTables().subList(0, SchemaSearchIndex.MAX_TABLES), result.getTables());
+        assertTrue(index.search("T1999", true).isComplete());
+    }
+}
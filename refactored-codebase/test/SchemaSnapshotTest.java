@@ -0,0 +1,131 @@
+package edgeconvert.test;
+
+import edgeconvert.Field;
+import edgeconvert.FieldSnapshot;
+import edgeconvert.Schema;
+import edgeconvert.SchemaSnapshot;
+import edgeconvert.Table;
+import edgeconvert.TableSnapshot;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ * Tests for the immutable snapshots taken with Schema.snapshot().
+ */
+public class SchemaSnapshotTest {
+
+    /**
+     * A snapshot shares every table that has not changed since the previous
+     * one, and is handed out again until something changes.
+     */
+    @Test
+    public void sharesUnchangedTables() {
+        Schema schema = TestSchemas.orders();
+        SchemaSnapshot first = schema.snapshot();
+        assertSame(first, schema.snapshot());
+
+        schema.getTableByName("PRODUCT").getFieldByName("NAME").setCharLength(40);
+        SchemaSnapshot second = schema.snapshot();
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        for (int position = 0; position < first.getTableCount(); position++) {
+            if (first.getTable(position).getName().equals("PRODUCT")) {
+                assertNotSame(first.getTable(position), second.getTable(position));
+            } else {
+                assertSame(first.getTable(position), second.getTable(position));
+            }
+        }
+        assertEquals(21, first.getTableByName("PRODUCT").getFieldByName("NAME").getCharLength());
+        assertEquals(40, second.getTableByName("PRODUCT").getFieldByName("NAME").getCharLength());
+    }
+
+    /**
+     * Tables added after a snapshot are copied into the next one, and the
+     * earlier tables are still shared.
+     */
+    @Test
+    public void addsNewTables() {
+        Schema schema = TestSchemas.orders();
+        SchemaSnapshot first = schema.snapshot();
+        for (int i = 0; i < 100; i++) {
+            schema.addTable(TestSchemas.table("EXTRA" + i, "ID"));
+        }
+        SchemaSnapshot second = schema.snapshot();
+        assertEquals(105, second.getTableCount());
+        assertSame(first.getTable(4), second.getTable(4));
+        assertEquals("EXTRA99", second.getTable(104).getName());
+    }
+
+    /**
+     * A relation to one of two fields with the same name follows that field,
+     * not the first one with its name.
+     */
+    @Test
+    public void duplicateNamesResolveByPosition() {
+        Table target = TestSchemas.table("CODES", "ID", "CODE", "CODE");
+        Table source = TestSchemas.table("ITEM", "ID", "CODE_ID");
+        Field secondCode = target.getFields().get(2);
+        Field codeId = source.getFieldByName("CODE_ID");
+        codeId.setForeignField(secondCode);
+        source.setRelatedField(codeId, secondCode);
+        source.addRelatedTable(target);
+        target.addRelatedTable(source);
+        Schema schema = new Schema();
+        schema.addTable(target);
+        schema.addTable(source);
+
+        SchemaSnapshot snapshot = schema.snapshot();
+        TableSnapshot codes = snapshot.getTable(0);
+        TableSnapshot item = snapshot.getTable(1);
+        FieldSnapshot itemCodeId = item.getFields().get(1);
+        assertSame(codes.getFields().get(2), snapshot.getForeignField(itemCodeId));
+        Map<FieldSnapshot, FieldSnapshot> related = snapshot.getRelatedFields(item);
+        assertSame(codes.getFields().get(2), related.get(itemCodeId));
+
+        Schema restored = snapshot.toSchema();
+        Table restoredCodes = restored.getTables().get(0);
+        Table restoredItem = restored.getTables().get(1);
+        Field restoredCodeId = restoredItem.getFieldByName("CODE_ID");
+        assertSame(restoredCodes.getFields().get(2), restoredCodeId.getForeignField());
+        assertSame(restoredCodes.getFields().get(2), restoredItem.getRelatedField(restoredCodeId));
+    }
+
+    /**
+     * Moving a referenced field copies the tables that refer to it again,
+     * so their foreign keys still lead to it.
+     */
+    @Test
+    public void movingReferencedFieldCopiesReferrers() {
+        Schema schema = TestSchemas.orders();
+        SchemaSnapshot first = schema.snapshot();
+        Table customer = schema.getTableByName("CUSTOMER");
+        customer.moveFieldDown(customer.getFieldByName("ID"));
+
+        SchemaSnapshot second = schema.snapshot();
+        TableSnapshot orders = second.getTableByName("ORDERS");
+        assertNotSame(first.getTableByName("ORDERS"), orders);
+        assertSame(first.getTableByName("PRODUCT"), second.getTableByName("PRODUCT"));
+        FieldSnapshot customerId = orders.getFieldByName("CUSTOMER_ID");
+        assertSame(second.getTableByName("CUSTOMER").getFieldByName("ID"), second.getForeignField(customerId));
+        assertSame(second.getTableByName("CUSTOMER").getFieldByName("ID"),
+                second.getRelatedFields(orders).get(customerId));
+    }
+
+    /**
+     * A snapshot unpacks into tables that build the same DDL as the schema
+     * it was taken of, however it has been edited since.
+     */
+    @Test
+    public void toSchemaMatchesSchema() {
+        Schema schema = TestSchemas.orders();
+        String ddl = MySQLBuilderTest.buildObjects(schema);
+        SchemaSnapshot snapshot = schema.snapshot();
+        schema.getTableByName("ORDERS").getFieldByName("NOTE").setCharLength(99);
+        schema.addTable(TestSchemas.table("LATER", "ID"));
+
+        assertEquals(ddl, MySQLBuilderTest.buildObjects(snapshot.toSchema()));
+        assertEquals(MySQLBuilderTest.buildObjects(schema), MySQLBuilderTest.buildObjects(schema.snapshot().toSchema()));
+    }
+}
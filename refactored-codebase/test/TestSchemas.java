@@ -0,0 +1,121 @@
+package edgeconvert.test;
+
+import edgeconvert.DataType;
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.Table;
+
+/**
+ * Small schemas built by hand for the tests, related the way the parsers
+ * relate tables.
+ */
+final class TestSchemas {
+
+    /**
+     * Construct nothing. All methods are static.
+     */
+    private TestSchemas() {
+    }
+
+    /**
+     * Create a table whose first field is an auto-incremented integer
+     * primary key and whose other fields are varchars.
+     *
+     * @param name The table's name
+     * @param fieldNames The names of its fields, the primary key first
+     * @return The new table
+     */
+    static Table table(String name, String... fieldNames) {
+        Table table = new Table(name);
+        for (int i = 0; i < fieldNames.length; i++) {
+            Field field = new Field(fieldNames[i]);
+            if (i == 0) {
+                field.setDataType(DataType.INTEGER);
+                field.setIsPrimaryKey(true);
+                field.setAutoIncrement(true);
+                field.setAllowNull(false);
+            } else {
+                field.setDataType(DataType.VARCHAR);
+                field.setCharLength(20 + i);
+            }
+            field.setTable(table);
+            table.addField(field);
+        }
+        return table;
+    }
+
+    /**
+     * Give a field of one table a foreign key to a field of another, and
+     * relate the two tables.
+     *
+     * @param table The referring table
+     * @param field The name of the referring field
+     * @param target The referenced table
+     * @param targetField The name of the referenced field
+     */
+    static void relate(Table table, String field, Table target, String targetField) {
+        Field nativeField = table.getFieldByName(field);
+        Field foreignField = target.getFieldByName(targetField);
+        nativeField.setForeignField(foreignField);
+        table.setRelatedField(nativeField, foreignField);
+        if (!table.getRelatedTables().contains(target)) {
+            table.addRelatedTable(target);
+        }
+        if (!target.getRelatedTables().contains(table)) {
+            target.addRelatedTable(table);
+        }
+    }
+
+    /**
+     * Create a schema in which a table has foreign keys to four others, one
+     * of which refers back to it, and the tables are listed out of
+     * dependency order.
+     *
+     * @return The new schema
+     */
+    static Schema orders() {
+        Table order = table("ORDERS", "ID", "CUSTOMER_ID", "PRODUCT_ID", "SHIPPER_ID", "REGION_ID", "NOTE");
+        Table customer = table("CUSTOMER", "ID", "NAME", "LAST_ORDER_ID");
+        Table product = table("PRODUCT", "ID", "NAME");
+        Table shipper = table("SHIPPER", "ID", "NAME", "REGION_ID");
+        Table region = table("REGION", "ID", "NAME");
+        relate(order, "CUSTOMER_ID", customer, "ID");
+        relate(order, "PRODUCT_ID", product, "ID");
+        relate(order, "SHIPPER_ID", shipper, "ID");
+        relate(order, "REGION_ID", region, "ID");
+        relate(shipper, "REGION_ID", region, "ID");
+        relate(customer, "LAST_ORDER_ID", order, "ID");
+        Schema schema = new Schema();
+        schema.addTable(order);
+        schema.addTable(customer);
+        schema.addTable(product);
+        schema.addTable(shipper);
+        schema.addTable(region);
+        return schema;
+    }
+
+    /**
+     * Create a schema in which one table has a foreign key to each of many
+     * others, so anything that emits its foreign keys in hash order rather
+     * than field order shows up.
+     *
+     * @param targets The number of referenced tables
+     * @return The new schema
+     */
+    static Schema star(int targets) {
+        String[] fieldNames = new String[targets + 1];
+        fieldNames[0] = "ID";
+        for (int i = 1; i <= targets; i++) {
+            fieldNames[i] = "REF" + i + "_ID";
+        }
+        Table center = table("CENTER", fieldNames);
+        Schema schema = new Schema();
+        schema.addTable(center);
+        for (int i = 1; i <= targets; i++) {
+            Table target = table("REF" + i, "ID", "NAME");
+            relate(center, fieldNames[i], target, "ID");
+            schema.addTable(target);
+        }
+        return schema;
+    }
+}
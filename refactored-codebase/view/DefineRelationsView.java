@@ -52,6 +52,7 @@ public class DefineRelationsView extends EdgeConvertView {
      *
      * @param enabled The new enabled status of the Create DDL button
      */
+    @Override
     public void setCreateDDLEnabled(boolean enabled) {
         btnCreateDDL.setEnabled(enabled);
     }
@@ -302,6 +303,6 @@ public class DefineRelationsView extends EdgeConvertView {
         listModelFieldsTablesRelatedTo.setTable(null);
         boolean validSchema = schema != null;
         btnDefineTables.setEnabled(validSchema);
-        btnCreateDDL.setEnabled(validSchema);
+        btnCreateDDL.setEnabled(validSchema && EdgeConvertMediator.getInstance().isPluginsReady());
     }
 }
@@ -10,11 +10,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.DefaultListSelectionModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
@@ -26,13 +30,16 @@ public class DefineTablesView extends EdgeConvertView {
     // declarations
     private JButton btnCreateDDL, btnDefineRelations, btnMoveUp, btnMoveDown;
     private JPanel panelBottom, panelCenter, panelMove,
-            panelCenter1, panelCenter2;
+            panelCenter1, panelCenter2, panelSearch;
     private JList<Table> listTables;
     private JList<Field> listFields;
     private SchemaTableListModel listModelTables;
     private TableFieldListModel listModelFields;
     private JScrollPane scrollTables, scrollFields;
-    private JLabel lblTables, lblields;
+    private JLabel lblTables, lblields, lblSearch;
+    private JTextField txtSearch;
+    private JCheckBox chkSearchPrefix;
+    private SchemaSearchIndex searchIndex;
     private EditFieldView editFieldView;
 
     /**
@@ -54,6 +61,7 @@ public class DefineTablesView extends EdgeConvertView {
      *
      * @param enabled The new enabled status of the Create DDL button
      */
+    @Override
     public void setCreateDDLEnabled(boolean enabled) {
         btnCreateDDL.setEnabled(enabled);
     }
@@ -74,6 +82,16 @@ public class DefineTablesView extends EdgeConvertView {
         panelBottom.add(btnCreateDDL);
         this.getContentPane().add(panelBottom, BorderLayout.SOUTH);
 
+        panelSearch = new JPanel(new BorderLayout());
+        lblSearch = new JLabel("Search: ");
+        txtSearch = new JTextField();
+        chkSearchPrefix = new JCheckBox("Starts with");
+        panelSearch.add(lblSearch, BorderLayout.WEST);
+        panelSearch.add(txtSearch, BorderLayout.CENTER);
+        panelSearch.add(chkSearchPrefix, BorderLayout.EAST);
+        this.getContentPane().add(panelSearch, BorderLayout.NORTH);
+        searchIndex = new SchemaSearchIndex();
+
         panelCenter = new JPanel(new GridLayout(1, 3));
         listModelTables = new SchemaTableListModel();
         listTables = new JList<>(listModelTables);
@@ -145,6 +163,36 @@ public class DefineTablesView extends EdgeConvertView {
                 }
         );
         
+        // search box, filters as the user types
+        txtSearch.getDocument().addDocumentListener(
+                new DocumentListener() {
+                    @Override
+                    public void insertUpdate(DocumentEvent de) {
+                        applySearch();
+                    }
+
+                    @Override
+                    public void removeUpdate(DocumentEvent de) {
+                        applySearch();
+                    }
+
+                    @Override
+                    public void changedUpdate(DocumentEvent de) {
+                        applySearch();
+                    }
+                }
+        );
+        
+        // search prefix check box
+        chkSearchPrefix.addActionListener(
+                new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent ae) {
+                        applySearch();
+                    }
+                }
+        );
+        
         // tables list
         listTables.addListSelectionListener(
                 new ListSelectionListener() {
@@ -217,6 +265,35 @@ public class DefineTablesView extends EdgeConvertView {
         );
     }
     
+    /**
+     * Filters the tables and fields lists by the text in the search box,
+     * keeping the selected table and field selected if they are still shown
+     */
+    private void applySearch() {
+        Table table = getSelectedTable();
+        Field field = getSelectedField();
+        String query = txtSearch.getText().trim();
+        SchemaSearchIndex.SearchResult result = null;
+        if (!query.isEmpty()) {
+            result = searchIndex.search(query, chkSearchPrefix.isSelected());
+        }
+        listModelFields.setFilter(result);
+        listModelTables.setFilter(result);
+        if (result == null) {
+            lblTables.setText("All Tables");
+        } else if (result.isComplete()) {
+            lblTables.setText("Matching Tables");
+        } else { // the search stopped early
+            lblTables.setText("First " + SchemaSearchIndex.MAX_TABLES + " Matching Tables");
+        }
+        if (table != null) {
+            listTables.setSelectedValue(table, true);
+            if (field != null && table == getSelectedTable()) {
+                listFields.setSelectedValue(field, true);
+            }
+        }
+    }
+
     /**
      * Gets the selected table
      * @return the selected table
@@ -240,11 +317,13 @@ public class DefineTablesView extends EdgeConvertView {
     @Override
     public void populate() {
         Schema schema = EdgeConvertMediator.getInstance().getSchema();
+        searchIndex.setSchema(schema);
         listModelTables.setSchema(schema);
         listModelFields.setTable(null);
         editFieldView.setField(null);
+        applySearch(); // search the new schema
         boolean validSchema = schema != null;
         btnDefineRelations.setEnabled(validSchema);
-        btnCreateDDL.setEnabled(validSchema);
+        btnCreateDDL.setEnabled(validSchema && EdgeConvertMediator.getInstance().isPluginsReady());
     }
 }
@@ -34,7 +34,7 @@ public abstract class EdgeConvertView extends JFrame {
     private JMenuBar menuBar;
     private JMenu menuFile, menuOptions, menuHelp, menuOpen;
     private JMenuItem menuItemExit, menuItemPluginLocation, menuItemShowProducts,
-            menuItemAbout, menuItemHelpDesk;
+            menuItemShowFootprint, menuItemAbout, menuItemHelpDesk;
 
     /**
      * Build the common menu bar and add it to the view.
@@ -60,6 +60,8 @@ public abstract class EdgeConvertView extends JFrame {
         for (JMenuItem item : openItems) {
             menuOpen.add(item);
         }
+        // Nothing can be opened until the plugins have loaded
+        menuOpen.setEnabled(!openItems.isEmpty());
     }
 
     /**
@@ -94,8 +96,12 @@ public abstract class EdgeConvertView extends JFrame {
         menuItemShowProducts.setMnemonic(KeyEvent.VK_H);
         menuItemShowProducts.setEnabled(true);
 
+        menuItemShowFootprint = new JMenuItem("Show Memory Footprint");
+        menuItemShowFootprint.setMnemonic(KeyEvent.VK_M);
+
         menuOptions.add(menuItemPluginLocation);
         menuOptions.add(menuItemShowProducts);
+        menuOptions.add(menuItemShowFootprint);
 
         menuHelp = new JMenu("Help");
         menuHelp.setMnemonic(KeyEvent.VK_H);
@@ -130,6 +136,7 @@ public abstract class EdgeConvertView extends JFrame {
         menuItemExit.addActionListener(menuListener);
         menuItemPluginLocation.addActionListener(menuListener);
         menuItemShowProducts.addActionListener(menuListener);
+        menuItemShowFootprint.addActionListener(menuListener);
         menuItemAbout.addActionListener(menuListener);
         menuItemHelpDesk.addActionListener(menuListener);
     }
@@ -159,4 +166,11 @@ public abstract class EdgeConvertView extends JFrame {
      * mediator.
      */
     public abstract void populate();
+
+    /**
+     * Set the enabled status of the Create DDL button.
+     *
+     * @param enabled The new enabled status of the Create DDL button
+     */
+    public abstract void setCreateDDLEnabled(boolean enabled);
 }
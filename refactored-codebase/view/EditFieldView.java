@@ -1,15 +1,19 @@
 package edgeconvert.view;
 
 import edgeconvert.DataType;
+import edgeconvert.EdgeConvertMediator;
 import edgeconvert.EdgeField;
 import edgeconvert.Field;
+import edgeconvert.Schema;
 import edgeconvert.view.events.DataTypeRadioListener;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
@@ -306,6 +310,7 @@ public class EditFieldView extends JPanel implements Observer {
                             if (varchar > 0 && varchar <= 65535) { // max length of varchar is 255 before v5.0.3
                                 txtCharLength.setText(Integer.toString(varchar));
                                 field.setCharLength(varchar);
+                                warnMismatchedReferences();
                             } else {
                                 JOptionPane.showMessageDialog(null, "Varchar length must be greater than 0 and less than or equal to 65535.");
                                 txtCharLength.setText(Integer.toString(EdgeField.VARCHAR_DEFAULT_LENGTH));
@@ -335,6 +340,27 @@ public class EditFieldView extends JPanel implements Observer {
         this.add(panelRight);
     }
 
+    /**
+     * Warns the user if fields related to this field no longer have the same
+     * varchar length, as relations are only bound between matching fields
+     */
+    private void warnMismatchedReferences() {
+        Schema schema = EdgeConvertMediator.getInstance().getSchema();
+        if (schema == null) {
+            return;
+        }
+        List<String> mismatched = new ArrayList<>();
+        for (Field referencing : schema.getReferencingFields(field)) { // only the fields bound to this one
+            if (referencing.getCharLength() != field.getCharLength()) {
+                mismatched.add(referencing.getTable().getName() + "." + referencing.getName());
+            }
+        }
+        if (!mismatched.isEmpty()) {
+            JOptionPane.showMessageDialog(null, "The varchar length of " + field.getName()
+                    + " no longer matches the fields related to it: " + String.join(", ", mismatched) + ".");
+        }
+    }
+
     /**
      * Clears the default value
      */
@@ -353,6 +379,12 @@ public class EditFieldView extends JPanel implements Observer {
      */
     @Override
     public void update(Observable o, Object arg) {
-        updateComponents();
+        // a burst of changes to the field only updates the components once
+        SwingDispatcher.getInstance().post(this, new Runnable() {
+            @Override
+            public void run() {
+                updateComponents();
+            }
+        });
     }
 }
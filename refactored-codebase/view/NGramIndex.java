@@ -0,0 +1,244 @@
+package edgeconvert.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of items by their names' 1, 2 and 3 character substrings and
+ * prefixes, answering prefix and substring searches without looking at every
+ * name. An item can have several names, and matches when any of them does.
+ *
+ * Each n-gram and each short prefix has a posting list of the ids of the
+ * items with a name containing it, or starting with it, in increasing order.
+ * A query of up to three characters is answered straight from its posting
+ * list, and a longer one only checks the items in the shortest list that
+ * every match must be in. Results come in id order, so a search that only
+ * wants the first few matches stops as soon as it has them, however many
+ * names match. Items can only be added.
+ *
+ * @param <T> The type of item being named
+ */
+public class NGramIndex<T> {
+
+    // private static/final attributes
+    private static final int MAX_GRAM = 3;
+    private static final int INITIAL_POSTINGS = 4;
+
+    // declarations
+    private final List<T> items;
+    private final List<String[]> keys; // each item's names
+    private final Map<String, Postings> grams;
+    private final Map<String, Postings> prefixes;
+
+    /**
+     * Construct an empty index.
+     */
+    public NGramIndex() {
+        this.items = new ArrayList<>();
+        this.keys = new ArrayList<>();
+        this.grams = new HashMap<>();
+        this.prefixes = new HashMap<>();
+    }
+
+    /**
+     * Add an item to the index under the given name. Its id is the number
+     * of items added before it.
+     *
+     * @param item The item to add
+     * @param name The item's name
+     * @return The item's id
+     */
+    public int add(T item, String name) {
+        int id = items.size();
+        items.add(item);
+        keys.add(new String[0]);
+        addName(id, name);
+        return id;
+    }
+
+    /**
+     * Index an item under another name as well.
+     *
+     * @param id The item's id
+     * @param name The name to add
+     */
+    public void addName(int id, String name) {
+        String key = normalize(name);
+        String[] names = keys.get(id);
+        names = Arrays.copyOf(names, names.length + 1);
+        names[names.length - 1] = key;
+        keys.set(id, names);
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int start = 0; start + length <= key.length(); start++) {
+                post(grams, key.substring(start, start + length), id);
+            }
+            if (length <= key.length()) {
+                post(prefixes, key.substring(0, length), id);
+            }
+        }
+    }
+
+    /**
+     * Add an id to the posting list of a gram or prefix.
+     *
+     * @param index The grams or the prefixes
+     * @param gram The gram or prefix
+     * @param id The id of the item
+     */
+    private static void post(Map<String, Postings> index, String gram, int id) {
+        Postings ids = index.get(gram);
+        if (ids == null) {
+            ids = new Postings();
+            index.put(gram, ids);
+        }
+        ids.add(id);
+    }
+
+    /**
+     * Get the number of items in the index.
+     *
+     * @return The number of items
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Find the items with a name that contains, or starts with, the given
+     * text. Case is ignored.
+     *
+     * @param query The text to look for
+     * @param prefix Whether names must start with the text
+     * @return The matching items, in id order
+     */
+    public List<T> search(String query, boolean prefix) {
+        return search(query, prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find the first items with a name that contains, or starts with, the
+     * given text. Case is ignored. Takes time in proportion to the number
+     * of items returned when the text is at most three characters long.
+     *
+     * @param query The text to look for
+     * @param prefix Whether names must start with the text
+     * @param limit The most items to return
+     * @return The matching items with the lowest ids, in id order
+     */
+    public List<T> search(String query, boolean prefix, int limit) {
+        String key = normalize(query);
+        List<T> matches = new ArrayList<>();
+        if (key.isEmpty()) {
+            matches.addAll(items.subList(0, Math.min(limit, items.size())));
+            return matches;
+        }
+
+        // Only items with a name containing every n-gram of the query, and
+        // starting with its first characters, can match. The shortest of
+        // those lists gives the fewest items to check.
+        int length = Math.min(MAX_GRAM, key.length());
+        Postings candidates = prefix ? prefixes.get(key.substring(0, length)) : null;
+        if (prefix && candidates == null) {
+            return matches;
+        }
+        for (int start = 0; start + length <= key.length(); start++) {
+            Postings ids = grams.get(key.substring(start, start + length));
+            if (ids == null) {
+                return matches;
+            }
+            if (candidates == null || ids.size < candidates.size) {
+                candidates = ids;
+            }
+        }
+        // A short query's list holds exactly the matching items
+        boolean exact = key.length() <= MAX_GRAM && (!prefix || candidates == prefixes.get(key));
+
+        for (int i = 0; i < candidates.size && matches.size() < limit; i++) {
+            int id = candidates.ids[i];
+            if (exact || matches(keys.get(id), key, prefix)) {
+                matches.add(items.get(id));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Determine whether any of an item's names matches a query.
+     *
+     * @param names The item's names, normalized
+     * @param key The query, normalized
+     * @param prefix Whether a name must start with the query
+     * @return Whether or not a name matches
+     */
+    private static boolean matches(String[] names, String key, boolean prefix) {
+        for (String name : names) {
+            if (prefix ? name.startsWith(key) : name.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine whether a name matches a query the same way search does.
+     *
+     * @param name The name to check
+     * @param query The text to look for
+     * @param prefix Whether the name must start with the text
+     * @return Whether or not the name matches
+     */
+    public static boolean matches(String name, String query, boolean prefix) {
+        String key = normalize(name);
+        String text = normalize(query);
+        return prefix ? key.startsWith(text) : key.contains(text);
+    }
+
+    /**
+     * Get the form of a name that is indexed and searched.
+     *
+     * @param name The name, or null
+     * @return The name in lower case
+     */
+    private static String normalize(String name) {
+        return (name == null) ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The ids of the items containing an n-gram, or starting with a prefix,
+     * in increasing order.
+     */
+    private static class Postings {
+
+        // declarations
+        private int[] ids = new int[INITIAL_POSTINGS];
+        private int size;
+
+        /**
+         * Add an id in order, ignoring it if it is already there. Ids are
+         * nearly always added in increasing order, so this is usually an
+         * append.
+         *
+         * @param id The id of the item
+         */
+        void add(int id) {
+            int position = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return; // the n-gram occurs twice in the item's names
+                }
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
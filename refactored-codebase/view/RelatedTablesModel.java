@@ -5,13 +5,14 @@
  */
 package edgeconvert.view;
 
-import edgeconvert.Schema;
+import edgeconvert.SchemaEvent;
 import edgeconvert.Table;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
 
 /**
  * List model that lists all the related tables
@@ -49,13 +50,32 @@ public class RelatedTablesModel extends AbstractListModel<Table> implements Obse
      * Updates the tables in the list
      */
     private void updateTables() {
+        int oldSize = (tables != null) ? tables.size() : 0;
         if(table != null) {
-            this.tables = table.getRelatedTables(); // get the related tables
+            this.tables = new ArrayList<>(table.getRelatedTables()); // get the related tables
         }
         else {
             this.tables = new ArrayList<>();
         }
-        fireContentsChanged(this, 0, getSize() - 1); // fire event
+        // fire events for the replaced list
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+    
+    /**
+     * Applies a single change in the table to the list
+     * @param event the change made to the table
+     */
+    private void applyEvent(SchemaEvent event) {
+        if (event.getType() == SchemaEvent.Type.RELATED_TABLE_ADDED) {
+            int index = event.getIndex();
+            tables.add(index, event.getTable().getRelatedTables().get(index));
+            fireIntervalAdded(this, index, index); // fire event
+        }
     }
     
     /**
@@ -85,6 +105,19 @@ public class RelatedTablesModel extends AbstractListModel<Table> implements Obse
      */
     @Override
     public void update(Observable o, Object arg) {
-        updateTables();
+        // Changes made on the event dispatch thread are applied straight away
+        // so the list stays in step with the table. Anything else, including
+        // changes from other threads, is rebuilt at most once per frame.
+        if (arg instanceof SchemaEvent && SwingUtilities.isEventDispatchThread()
+                && !SwingDispatcher.getInstance().isPending(this)) {
+            applyEvent((SchemaEvent) arg);
+        } else {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    updateTables();
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,220 @@
+package edgeconvert.view;
+
+import edgeconvert.Field;
+import edgeconvert.Schema;
+import edgeconvert.SchemaEvent;
+import edgeconvert.Table;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Search index over the names of a schema's tables and fields. Kept up to
+ * date as tables and fields are added, so searching never has to walk the
+ * whole schema. Each table is indexed under its own name and its fields'
+ * names, with its position in the schema as its id, so tables are found in
+ * schema order and a search stops once it has found MAX_TABLES of them.
+ *
+ * The index is only read and changed on the event dispatch thread. Changes
+ * made to the schema on other threads rebuild it there, at most once per
+ * frame, as the list models do.
+ */
+public class SchemaSearchIndex implements Observer {
+
+    // public static/final attributes
+    public static final int MAX_TABLES = 1000; // the most tables a search returns
+
+    // declarations
+    private Schema schema;
+    private NGramIndex<Table> names;
+
+    /**
+     * Construct an index with a null schema (empty).
+     */
+    public SchemaSearchIndex() {
+        this.schema = null;
+        rebuild();
+    }
+
+    /**
+     * Set the schema to be searched.
+     * @param schema The schema to index
+     */
+    public void setSchema(Schema schema) {
+        if (this.schema != null) {
+            this.schema.deleteObserver(this); // remove observer
+        }
+        this.schema = schema;
+        if (this.schema != null) {
+            this.schema.addObserver(this); // add observer
+        }
+        rebuild();
+    }
+
+    /**
+     * Index every table and field of the schema from scratch.
+     */
+    private void rebuild() {
+        names = new NGramIndex<>();
+        if (schema != null) {
+            for (Table table : schema.getTables()) {
+                addTable(table);
+            }
+        }
+    }
+
+    /**
+     * Index a table and the fields it already has.
+     * @param table The table to index
+     */
+    private void addTable(Table table) {
+        int id = names.add(table, table.getName());
+        for (Field field : table.getFields()) {
+            names.addName(id, field.getName());
+        }
+    }
+
+    /**
+     * Index a field under its table.
+     * @param table The table the field belongs to
+     * @param field The field to index
+     */
+    private void addField(Table table, Field field) {
+        int id = schema.getTableIndex(table); // tables are indexed in schema order
+        if (id >= 0 && id < names.size()) {
+            names.addName(id, field.getName());
+        }
+    }
+
+    /**
+     * Find the tables and fields whose names contain, or start with, the
+     * given text. Only the first MAX_TABLES tables found are returned, so
+     * the short queries typed first, which match nearly every table, take
+     * no longer than the long ones.
+     * @param query The text to look for
+     * @param prefix Whether names must start with the text
+     * @return The result of the search
+     */
+    public SearchResult search(String query, boolean prefix) {
+        List<Table> tables = names.search(query, prefix, MAX_TABLES + 1);
+        boolean complete = tables.size() <= MAX_TABLES;
+        if (!complete) {
+            tables.remove(MAX_TABLES);
+        }
+        return new SearchResult(query, prefix, tables, complete);
+    }
+
+    /**
+     * Called whenever the schema changes. Indexes new tables and fields
+     * as they are added on the event dispatch thread, and rebuilds the
+     * index there after changes made on any other thread.
+     * @param o
+     * @param arg The SchemaEvent describing the change
+     */
+    @Override
+    public void update(Observable o, Object arg) {
+        if (!SwingUtilities.isEventDispatchThread() || SwingDispatcher.getInstance().isPending(this)) {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    rebuild();
+                }
+            });
+        } else if (arg instanceof SchemaEvent) {
+            SchemaEvent event = (SchemaEvent) arg;
+            if (event.getType() == SchemaEvent.Type.TABLE_ADDED) {
+                addTable(event.getTable());
+            } else if (event.getType() == SchemaEvent.Type.FIELD_ADDED) {
+                addField(event.getTable(), event.getField());
+            }
+            // Names cannot change, so nothing else affects the index
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * The tables found by a search, along with the query so that tables and
+     * fields added afterwards can be checked against it.
+     */
+    public static class SearchResult {
+
+        // declarations
+        private final String query;
+        private final boolean prefix;
+        private final List<Table> tables;
+        private final boolean complete;
+
+        /**
+         * Construct a search result.
+         * @param query The text searched for
+         * @param prefix Whether names had to start with the text
+         * @param tables The matching tables, in schema order
+         * @param complete Whether every matching table was found
+         */
+        SearchResult(String query, boolean prefix, List<Table> tables, boolean complete) {
+            this.query = query;
+            this.prefix = prefix;
+            this.tables = tables;
+            this.complete = complete;
+        }
+
+        /**
+         * Get the tables that were found: those whose names match and those
+         * with a field whose name matches.
+         * @return The matching tables, in schema order
+         */
+        public List<Table> getTables() {
+            return new ArrayList<>(tables);
+        }
+
+        /**
+         * Determine whether the search found every matching table, or
+         * stopped after the first MAX_TABLES.
+         * @return Whether or not every matching table was found
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Determine whether a name matches the search.
+         * @param name The name to check
+         * @return Whether or not the name matches
+         */
+        public boolean matches(String name) {
+            return NGramIndex.matches(name, query, prefix);
+        }
+
+        /**
+         * Determine whether a table, or any of its fields, matches the search.
+         * @param table The table to check
+         * @return Whether or not the table would be found
+         */
+        public boolean matches(Table table) {
+            if (matches(table.getName())) {
+                return true;
+            }
+            for (Field field : table.getFields()) {
+                if (matches(field.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Determine whether a field is shown for this search. Every field of
+         * a table whose name matches is shown, otherwise only the fields
+         * whose names match.
+         * @param table The table the field belongs to
+         * @param field The field to check
+         * @return Whether or not the field is shown
+         */
+        public boolean shows(Table table, Field field) {
+            return matches(table.getName()) || matches(field.getName());
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package edgeconvert.view;
 
 import edgeconvert.Schema;
+import edgeconvert.SchemaEvent;
 import edgeconvert.Table;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
 
 /**
  * List model that, when given to a list, displays all of the tables
- * in a given schema.
+ * in a given schema, or only those found by a search.
  * 
  */
 public class SchemaTableListModel extends AbstractListModel<Table> implements Observer {
@@ -18,6 +22,8 @@ public class SchemaTableListModel extends AbstractListModel<Table> implements Ob
     // declarations
     private Schema schema;
     private List<Table> tables;
+    private Set<Table> listed; // the tables in the list
+    private SchemaSearchIndex.SearchResult filter;
     
     /**
      * Construct a list model with a null schema (empty).
@@ -29,6 +35,7 @@ public class SchemaTableListModel extends AbstractListModel<Table> implements Ob
     
     /**
      * Set the schema this list model displays the tables of.
+     * Any search filter is cleared, since it belongs to the old schema.
      * @param schema The schema this list model represents
      */
     public void setSchema(Schema schema) {
@@ -36,27 +43,104 @@ public class SchemaTableListModel extends AbstractListModel<Table> implements Ob
             this.schema.deleteObserver(this); // remove observer
         }
         this.schema = schema;
+        this.filter = null;
         if(this.schema != null) {
             this.schema.addObserver(this); // add observer
         }
         updateTables(); // update the tables
     }
     
+    /**
+     * Show only the tables found by a search.
+     * @param filter The search result, or null to show every table
+     */
+    public void setFilter(SchemaSearchIndex.SearchResult filter) {
+        this.filter = filter;
+        updateTables();
+    }
+    
     /**
      * Update the list of tables to reflect the schema's
      * current state.
      */
     private void updateTables() {
+        int oldSize = (tables != null) ? tables.size() : 0;
         // If the schema has been set, the list contains its tables
-        if(schema != null) {
+        if(schema != null && filter != null) {
+            this.tables = filter.getTables(); // add the tables found by the search
+        }
+        else if(schema != null) {
             this.tables = schema.getTables(); // add the tables from the schema
         }
         // Otherwise, the list is empty
         else {
             this.tables = new ArrayList<>();
         }
-        // Notify the JList that the list model has changed
-        fireContentsChanged(this, 0, getSize() - 1);
+        this.listed = new HashSet<>(tables);
+        // Notify the JList that the whole list has been replaced
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+    
+    /**
+     * Apply a single change in the schema to the list, notifying the JList
+     * of only the rows that changed.
+     * @param event The change made to the schema
+     */
+    private void applyEvent(SchemaEvent event) {
+        Table table = event.getTable();
+        if (event.getType() == SchemaEvent.Type.TABLE_ADDED) {
+            if (filter == null || (filter.matches(table) && isWithinFilter(table))) {
+                addTable(table);
+            }
+        }
+        // A new field can bring a table into the search results
+        else if (event.getType() == SchemaEvent.Type.FIELD_ADDED) {
+            if (filter != null && !listed.contains(table) && filter.matches(event.getField().getName())
+                    && isWithinFilter(table)) {
+                addTable(table);
+            }
+        }
+        // Other changes inside a table do not affect how it is listed
+    }
+    
+    /**
+     * Determine whether a table that now matches the search belongs in the
+     * list. A search that stopped early lists only the first matching
+     * tables, so a table after the last of them is left out.
+     * @param table The matching table
+     * @return Whether or not the table is listed
+     */
+    private boolean isWithinFilter(Table table) {
+        if (filter.isComplete() || tables.isEmpty()) {
+            return true;
+        }
+        return schema.getTableIndex(table) < schema.getTableIndex(tables.get(tables.size() - 1));
+    }
+    
+    /**
+     * Add a table to the list in the same position it has in the schema.
+     * @param table The table to add
+     */
+    private void addTable(Table table) {
+        int schemaIndex = schema.getTableIndex(table);
+        int low = 0;
+        int high = tables.size();
+        while (low < high) { // binary search, the list is in schema order
+            int mid = (low + high) >>> 1;
+            if (schema.getTableIndex(tables.get(mid)) < schemaIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        listed.add(table);
+        tables.add(low, table);
+        fireIntervalAdded(this, low, low);
     }
     
     /**
@@ -86,8 +170,20 @@ public class SchemaTableListModel extends AbstractListModel<Table> implements Ob
      */
     @Override
     public void update(Observable o, Object arg) {
-        // When the schema changes, update the tables displayed
-        updateTables();
+        // Changes made on the event dispatch thread are applied straight away
+        // so the list stays in step with the schema. Anything else, including
+        // changes from other threads, is rebuilt at most once per frame.
+        if (arg instanceof SchemaEvent && SwingUtilities.isEventDispatchThread()
+                && !SwingDispatcher.getInstance().isPending(this)) {
+            applyEvent((SchemaEvent) arg);
+        } else {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    updateTables();
+                }
+            });
+        }
     }
     
 }
@@ -0,0 +1,163 @@
+package edgeconvert.view;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Collects updates to the Swing models and applies them together on the
+ * event dispatch thread, at most once per frame.
+ *
+ * Updates posted without a key are structural changes: every one is run, in
+ * the order they were posted. Updates posted with a key are refreshes: while
+ * one is waiting to run, posting another with an equal key is dropped, so a
+ * burst of changes to the same thing causes a single refresh.
+ */
+public class SwingDispatcher {
+
+    // public static/final attributes
+    public static final int FRAME_MILLIS = 16;
+
+    // private static/final attributes
+    private static final SwingDispatcher INSTANCE = new SwingDispatcher();
+
+    // declarations
+    private final Map<Object, Runnable> pending; // in the order posted
+    private final Timer frameTimer;
+    private boolean scheduled;
+    private long lastFlushNanos;
+    private long postedCount, droppedCount, flushCount;
+
+    /**
+     * Construct the dispatcher.
+     */
+    private SwingDispatcher() {
+        this.pending = new LinkedHashMap<>();
+        this.frameTimer = new Timer(FRAME_MILLIS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                flush();
+            }
+        });
+        this.frameTimer.setRepeats(false);
+        this.scheduled = false;
+    }
+
+    /**
+     * Get the dispatcher.
+     * @return The single dispatcher instance
+     */
+    public static SwingDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Post a structural update. It will be run after every update posted
+     * before it.
+     * @param update The update to run on the event dispatch thread
+     */
+    public void post(Runnable update) {
+        post(new Object(), update); // a key nothing else is equal to
+    }
+
+    /**
+     * Post a refresh. If a refresh with an equal key is already waiting, this
+     * one is dropped.
+     * @param key Identifies what is being refreshed
+     * @param refresh The refresh to run on the event dispatch thread
+     */
+    public synchronized void post(Object key, Runnable refresh) {
+        postedCount++;
+        if (pending.containsKey(key)) {
+            droppedCount++;
+            return;
+        }
+        pending.put(key, refresh);
+        if (!scheduled) {
+            scheduled = true;
+            schedule();
+        }
+    }
+
+    /**
+     * Determine whether a refresh with the given key is waiting to be run.
+     * @param key Identifies what is being refreshed
+     * @return Whether or not the refresh is pending
+     */
+    public synchronized boolean isPending(Object key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Arrange for the pending updates to be run, waiting out the rest of the
+     * frame if the last run was less than a frame ago.
+     */
+    private void schedule() {
+        long sinceFlush = (System.nanoTime() - lastFlushNanos) / 1000000L;
+        if (lastFlushNanos != 0 && sinceFlush < FRAME_MILLIS) {
+            final int delay = (int) (FRAME_MILLIS - sinceFlush);
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    frameTimer.setInitialDelay(delay);
+                    frameTimer.restart();
+                }
+            });
+        } else {
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+        }
+    }
+
+    /**
+     * Run every pending update. Called on the event dispatch thread. Updates
+     * posted while running are left for the next frame.
+     */
+    private void flush() {
+        List<Runnable> updates;
+        synchronized (this) {
+            updates = new ArrayList<>(pending.values());
+            pending.clear();
+            scheduled = false;
+            lastFlushNanos = System.nanoTime();
+            flushCount++;
+        }
+        for (Runnable update : updates) {
+            update.run();
+        }
+    }
+
+    /**
+     * Get the number of updates posted so far.
+     * @return The number of updates posted
+     */
+    public synchronized long getPostedCount() {
+        return postedCount;
+    }
+
+    /**
+     * Get the number of refreshes dropped because an equal one was already
+     * waiting.
+     * @return The number of duplicate refreshes dropped
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Get the number of times pending updates have been run.
+     * @return The number of flushes
+     */
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+}
@@ -1,16 +1,22 @@
 package edgeconvert.view;
 
 import edgeconvert.Field;
+import edgeconvert.SchemaEvent;
 import edgeconvert.Table;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
 
 /**
  * List model that, when given to a list, displays all of the fields
- * in a given table.
+ * in a given table, or only those shown by a search.
  * 
  */
 public class TableFieldListModel extends AbstractListModel<Field> implements Observer {
@@ -18,6 +24,8 @@ public class TableFieldListModel extends AbstractListModel<Field> implements Obs
     // declarations
     private Table table;
     private List<Field> fields;
+    private Set<Field> listed; // the fields in the list
+    private SchemaSearchIndex.SearchResult filter;
 
     /**
      * Construct a list model with a null table (empty).
@@ -27,6 +35,15 @@ public class TableFieldListModel extends AbstractListModel<Field> implements Obs
         updateFields();
     }
     
+    /**
+     * Show only the fields shown by a search.
+     * @param filter The search result, or null to show every field
+     */
+    public void setFilter(SchemaSearchIndex.SearchResult filter) {
+        this.filter = filter;
+        updateFields();
+    }
+    
     /**
      * Set the table that this list model displays the fields of.
      * @param table The table that this list model represents
@@ -47,14 +64,89 @@ public class TableFieldListModel extends AbstractListModel<Field> implements Obs
      * current state.
      */
     private void updateFields() {
+        int oldSize = (fields != null) ? fields.size() : 0;
+        this.fields = new ArrayList<>();
         if(table != null) {
-            this.fields = table.getFields(); // add fields to the list
-        }
-        else {
-            this.fields = new ArrayList<>();
+            for (Field field : table.getFields()) { // add fields to the list
+                if (filter == null || filter.shows(table, field)) {
+                    fields.add(field);
+                }
+            }
         }
+        this.listed = new HashSet<>(fields);
         
-        fireContentsChanged(this, 0, getSize() - 1); // fire event
+        // Notify the JList that the whole list has been replaced
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+
+    /**
+     * Apply a single change in the table to the list, notifying the JList
+     * of only the rows that changed.
+     * @param event The change made to the table
+     */
+    private void applyEvent(SchemaEvent event) {
+        final Field field = event.getField();
+        int position;
+        switch (event.getType()) {
+            case FIELD_ADDED:
+                if (filter == null || filter.shows(table, field)) {
+                    position = getInsertionIndex(event.getIndex());
+                    listed.add(field);
+                    fields.add(position, field);
+                    fireIntervalAdded(this, position, position);
+                }
+                break;
+            case FIELD_CHANGED:
+                // only repaints the row, so repeated edits to a field are coalesced
+                SwingDispatcher.getInstance().post(Arrays.asList(this, field), new Runnable() {
+                    @Override
+                    public void run() {
+                        if (listed.contains(field)) {
+                            int position = getInsertionIndex(table.getFieldIndex(field));
+                            fireContentsChanged(TableFieldListModel.this, position, position);
+                        }
+                    }
+                });
+                break;
+            case FIELDS_SWAPPED:
+                int first = Math.min(event.getIndex(), event.getOtherIndex());
+                // the swapped fields are next to each other in the table, so
+                // if both are listed they are next to each other in the list
+                position = getInsertionIndex(first);
+                if (position + 1 < fields.size() && table.getFieldIndex(fields.get(position + 1)) <= first + 1) {
+                    Collections.swap(fields, position, position + 1);
+                    fireContentsChanged(this, position, position + 1);
+                }
+                break;
+            default:
+                // Relations and indexes do not affect how fields are listed
+                break;
+        }
+    }
+
+    /**
+     * Gets the position a field belongs at in the list, keeping the fields
+     * in the same order as the table
+     * @param tableIndex the field's position in the table
+     * @return the number of listed fields that come before it in the table
+     */
+    private int getInsertionIndex(int tableIndex) {
+        int low = 0;
+        int high = fields.size();
+        while (low < high) { // binary search, the list is in table order
+            int mid = (low + high) >>> 1;
+            if (table.getFieldIndex(fields.get(mid)) < tableIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /**
@@ -84,7 +176,19 @@ public class TableFieldListModel extends AbstractListModel<Field> implements Obs
      */
     @Override
     public void update(Observable o, Object arg) {
-        // When the table changes, update the fields displayed
-        updateFields();
+        // Changes made on the event dispatch thread are applied straight away
+        // so the list stays in step with the table. Anything else, including
+        // changes from other threads, is rebuilt at most once per frame.
+        if (arg instanceof SchemaEvent && SwingUtilities.isEventDispatchThread()
+                && !SwingDispatcher.getInstance().isPending(this)) {
+            applyEvent((SchemaEvent) arg);
+        } else {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    updateFields();
+                }
+            });
+        }
     }
 }
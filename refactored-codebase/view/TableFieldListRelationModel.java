@@ -6,13 +6,19 @@
 package edgeconvert.view;
 
 import edgeconvert.Field;
+import edgeconvert.SchemaEvent;
 import edgeconvert.Table;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
 
 /**
  * Model for the Fields in the Table with Relations list in Define Relations
@@ -22,6 +28,8 @@ public class TableFieldListRelationModel extends AbstractListModel<Field> implem
     // declarations
     private Table table;
     private List<Field> fields;
+    private Set<Field> listed; // the fields in the list
+    private boolean showingAll; // whether every field is listed, because none are related
 
     /**
      * Default constructor
@@ -52,27 +60,164 @@ public class TableFieldListRelationModel extends AbstractListModel<Field> implem
      * Updates the fields in the list
      */
     private void updateFields() {
+        int oldSize = (fields != null) ? fields.size() : 0;
+        this.fields = getTableFields();
+        this.listed = new HashSet<>(fields);
+        this.showingAll = table != null && table.getRelatedFieldCount() == 0;
+        
+        // fire events for the replaced list
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+    
+    /**
+     * Gets the fields of the table that should be listed
+     * @return the related fields, or all of the fields if none are related
+     */
+    private List<Field> getTableFields() {
+        List<Field> tableFields = new ArrayList<>();
         if(table != null) {
-            this.fields = new ArrayList<>();
             List<Field> tempFields = table.getFields(); // get the fields
             Map<Field, Field> mappedFields = table.getRelatedFields(); // get the related fields
             
             // if there are no related fields show all the fields
             if(mappedFields.isEmpty()) {
-                this.fields = tempFields;
+                tableFields = tempFields;
             } else {
                 for (int i = 0; i < tempFields.size(); i++) {
                     if (mappedFields.containsKey(tempFields.get(i))) {
-                        fields.add(tempFields.get(i)); // add related fields to the list
+                        tableFields.add(tempFields.get(i)); // add related fields to the list
                     }
                 }
             }
         }
-        else {
-            this.fields = new ArrayList<>();
+        return tableFields;
+    }
+
+    /**
+     * Applies a single change in the table to the list. Only the rows
+     * affected by the change are touched, the rest of the table is not
+     * looked at.
+     * @param event the change made to the table
+     */
+    private void applyEvent(SchemaEvent event) {
+        final Field field = event.getField();
+        int position;
+        switch (event.getType()) {
+            case FIELD_ADDED:
+                if (showingAll) { // a new field is never related
+                    addField(event.getIndex(), field);
+                }
+                break;
+            case FIELD_CHANGED:
+                // only repaints the row, so repeated edits to a field are coalesced
+                SwingDispatcher.getInstance().post(Arrays.asList(this, field), new Runnable() {
+                    @Override
+                    public void run() {
+                        int position = getPosition(field);
+                        if (position >= 0) {
+                            fireContentsChanged(TableFieldListRelationModel.this, position, position);
+                        }
+                    }
+                });
+                break;
+            case FIELDS_SWAPPED:
+                int first = Math.min(event.getIndex(), event.getOtherIndex());
+                // the swapped fields are next to each other in the table, so
+                // if both are listed they are next to each other in the list
+                position = getInsertionIndex(first);
+                if (position + 1 < fields.size() && table.getFieldIndex(fields.get(position + 1)) <= first + 1) {
+                    Collections.swap(fields, position, position + 1);
+                    fireContentsChanged(this, position, position + 1);
+                }
+                break;
+            case RELATED_FIELD_SET:
+                if (showingAll) { // the first relation, only related fields are shown from now on
+                    showingAll = false;
+                    replaceFields(new ArrayList<Field>());
+                }
+                if (getPosition(field) < 0) {
+                    addField(getInsertionIndex(event.getIndex()), field);
+                }
+                break;
+            case RELATED_FIELD_REMOVED:
+                position = showingAll ? -1 : getPosition(field);
+                if (position >= 0) {
+                    listed.remove(field);
+                    fields.remove(position);
+                    fireIntervalRemoved(this, position, position);
+                }
+                if (!showingAll && table.getRelatedFieldCount() == 0) { // the last relation, show all fields again
+                    showingAll = true;
+                    replaceFields(table.getFields());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Adds a field to the list
+     * @param position where the field goes in the list
+     * @param field the field to add
+     */
+    private void addField(int position, Field field) {
+        listed.add(field);
+        fields.add(position, field);
+        fireIntervalAdded(this, position, position);
+    }
+    
+    /**
+     * Gets the position of a field in the list
+     * @param field the field to find
+     * @return the field's position, or -1 if it is not listed
+     */
+    private int getPosition(Field field) {
+        if (!listed.contains(field)) {
+            return -1;
+        }
+        return getInsertionIndex(table.getFieldIndex(field));
+    }
+    
+    /**
+     * Gets the position a field belongs at in the list, keeping the fields
+     * in the same order as the table
+     * @param tableIndex the field's position in the table
+     * @return the number of listed fields that come before it in the table
+     */
+    private int getInsertionIndex(int tableIndex) {
+        int low = 0;
+        int high = fields.size();
+        while (low < high) { // binary search, the list is in table order
+            int mid = (low + high) >>> 1;
+            if (table.getFieldIndex(fields.get(mid)) < tableIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Replaces every listed field
+     * @param newFields the fields that should be listed
+     */
+    private void replaceFields(List<Field> newFields) {
+        int oldSize = fields.size();
+        this.fields = newFields;
+        this.listed = new HashSet<>(newFields);
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (!newFields.isEmpty()) {
+            fireIntervalAdded(this, 0, newFields.size() - 1);
         }
-        
-        fireContentsChanged(this, 0, getSize() - 1); // fire event
     }
 
     /**
@@ -102,6 +247,19 @@ public class TableFieldListRelationModel extends AbstractListModel<Field> implem
      */
     @Override
     public void update(Observable o, Object arg) {
-        updateFields();
+        // Changes made on the event dispatch thread are applied straight away
+        // so the list stays in step with the table. Anything else, including
+        // changes from other threads, is rebuilt at most once per frame.
+        if (arg instanceof SchemaEvent && SwingUtilities.isEventDispatchThread()
+                && !SwingDispatcher.getInstance().isPending(this)) {
+            applyEvent((SchemaEvent) arg);
+        } else {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    updateFields();
+                }
+            });
+        }
     }
 }
@@ -6,12 +6,16 @@
 package edgeconvert.view;
 
 import edgeconvert.Schema;
+import edgeconvert.SchemaEvent;
 import edgeconvert.Table;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
 
 /**
  * Model for the Tables With Relations list
@@ -21,6 +25,7 @@ public class TablesWithRelationsModel extends AbstractListModel<Table> implement
     // Decalarations
     private Schema schema;
     private List<Table> tables;
+    private Set<Table> listed; // the tables in the list
     
     /**
      * Default constructor
@@ -50,8 +55,9 @@ public class TablesWithRelationsModel extends AbstractListModel<Table> implement
      * Updates the tables and the list
      */
     private void updateTables() {
+        int oldSize = (tables != null) ? tables.size() : 0;
+        this.tables = new ArrayList<>();
         if(schema != null) {
-            this.tables = new ArrayList<>();
             List<Table> tempTables = schema.getTables(); // get the tables from the schema
             for(int i = 0; i < tempTables.size(); i++) { // iterate and add
                 if(!tempTables.get(i).getRelatedTables().isEmpty()) {
@@ -59,10 +65,53 @@ public class TablesWithRelationsModel extends AbstractListModel<Table> implement
                 }
             }
         }
-        else {
-            this.tables = new ArrayList<>();
+        this.listed = new HashSet<>(tables);
+        // fire events for the replaced list
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+    
+    /**
+     * Applies a single change in the schema to the list. A table only
+     * appears once it has its first relation, so that is the only change
+     * that adds a row.
+     * @param event the change made to the schema
+     */
+    private void applyEvent(SchemaEvent event) {
+        Table table = event.getTable();
+        boolean firstRelation = event.getType() == SchemaEvent.Type.RELATED_TABLE_ADDED
+                && event.getIndex() == 0;
+        boolean addedWithRelations = event.getType() == SchemaEvent.Type.TABLE_ADDED
+                && !table.getRelatedTables().isEmpty();
+        if ((firstRelation || addedWithRelations) && listed.add(table)) {
+            int index = getInsertionIndex(schema.getTableIndex(table));
+            tables.add(index, table);
+            fireIntervalAdded(this, index, index); // fire event
         }
-        fireContentsChanged(this, 0, getSize() - 1); // fire event
+    }
+    
+    /**
+     * Gets the position a table belongs at in the list, keeping the tables
+     * in the same order as the schema
+     * @param schemaIndex the table's position in the schema
+     * @return the number of listed tables that come before it in the schema
+     */
+    private int getInsertionIndex(int schemaIndex) {
+        int low = 0;
+        int high = tables.size();
+        while (low < high) { // binary search, the list is in schema order
+            int mid = (low + high) >>> 1;
+            if (schema.getTableIndex(tables.get(mid)) < schemaIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
     
     /**
@@ -92,6 +141,19 @@ public class TablesWithRelationsModel extends AbstractListModel<Table> implement
      */
     @Override
     public void update(Observable o, Object arg) {
-        updateTables();
+        // Changes made on the event dispatch thread are applied straight away
+        // so the list stays in step with the schema. Anything else, including
+        // changes from other threads, is rebuilt at most once per frame.
+        if (arg instanceof SchemaEvent && SwingUtilities.isEventDispatchThread()
+                && !SwingDispatcher.getInstance().isPending(this)) {
+            applyEvent((SchemaEvent) arg);
+        } else {
+            SwingDispatcher.getInstance().post(this, new Runnable() {
+                @Override
+                public void run() {
+                    updateTables();
+                }
+            });
+        }
     }
 }
@@ -2,12 +2,19 @@ package edgeconvert.view.events;
 
 import edgeconvert.EdgeConvertMediator;
 import edgeconvert.Schema;
+import edgeconvert.diagnostics.GetSchemaEvent;
+import edgeconvert.diagnostics.ParseFileEvent;
 import edgeconvert.input.FileParser;
+import edgeconvert.input.ParseProgressListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
@@ -15,6 +22,10 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  */
 public class FileOpen implements ActionListener {
 
+    // private static/final attributes
+    private static final int PROGRESS_POLL_MILLIS = 100;
+    private static ParseWorker activeWorker; // shared by every Open menu item
+
     // declarations
     private FileParser parser;
     private JFileChooser jfc;
@@ -42,6 +53,10 @@ public class FileOpen implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         EdgeConvertMediator edgeConvert = EdgeConvertMediator.getInstance(); // get mediator instance
+
+        if (activeWorker != null && (!activeWorker.isDone() || activeWorker.isParsing())) {
+            return; // only one file is opened at a time
+        }
         
         if (edgeConvert.isSchemaModified()) { // check for unsaved changes
             if (this.showUnsavedConfirmation() == JOptionPane.NO_OPTION) {
@@ -51,25 +66,26 @@ public class FileOpen implements ActionListener {
 
         // Show file chooser
         if (jfc.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
-
-            File toParse = jfc.getSelectedFile(); 
-
-            parser.setFile(toParse); // set file in parser
-            final boolean readSuccess = parser.parseFile(); // parse file
-
-            if (readSuccess) {
-                Schema schema = parser.getSchema(); // get the schema from the parser
-                edgeConvert.setSchema(schema); // set the schema in the mediator
-                truncFileName = toParse.getName().substring(toParse.getName().lastIndexOf(File.separator) + 1); // get name of file
-                edgeConvert.setDefineTablesTitle(truncFileName); // set the title
-                edgeConvert.setDefineRelationsTitle(truncFileName);
-                edgeConvert.showDefineTablesView(); // show the define tables view
-            } else {
-                showParseError(parser.getErrorMessage());
-            }
+            activeWorker = new ParseWorker(jfc.getSelectedFile());
+            activeWorker.execute(); // parse off the event dispatch thread
         }
     }
 
+    /**
+     * Called on the event dispatch thread once a file has been parsed
+     * successfully.
+     * @param toParse the file that was parsed
+     * @param schema the schema parsed from the file
+     */
+    private void showSchema(File toParse, Schema schema) {
+        EdgeConvertMediator edgeConvert = EdgeConvertMediator.getInstance(); // get mediator instance
+        edgeConvert.setSchema(schema); // set the schema in the mediator
+        truncFileName = toParse.getName().substring(toParse.getName().lastIndexOf(File.separator) + 1); // get name of file
+        edgeConvert.setDefineTablesTitle(truncFileName); // set the title
+        edgeConvert.setDefineRelationsTitle(truncFileName);
+        edgeConvert.showDefineTablesView(); // show the define tables view
+    }
+
     /**
      * Displayed if the user tries to exit with unsaved changes
      * @return yes/no
@@ -86,4 +102,113 @@ public class FileOpen implements ActionListener {
     private void showParseError(String message) {
         JOptionPane.showMessageDialog(null, message, "Error while parsing file", JOptionPane.ERROR_MESSAGE);
     }
+
+    /**
+     * Parses a file in the background. Shows a progress dialog, fed by the
+     * parser's progress, that lets the user cancel the parse. The schema is
+     * only handed to the mediator once parsing has completed.
+     */
+    private class ParseWorker extends SwingWorker<Schema, Void> {
+
+        // declarations
+        private final File toParse;
+        private final ProgressMonitor monitor;
+        private final Timer poller;
+        private volatile boolean parsing;
+
+        /**
+         * Construct a worker parsing the given file.
+         * @param toParse the file to be parsed
+         */
+        ParseWorker(File toParse) {
+            this.toParse = toParse;
+            this.monitor = new ProgressMonitor(null, "Opening " + toParse.getName(), null, 0, 100);
+            // Keep the dialog in step with the worker and watch for the cancel button
+            this.poller = new Timer(PROGRESS_POLL_MILLIS, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    if (monitor.isCanceled()) {
+                        cancel(true); // interrupts the parse
+                    } else {
+                        monitor.setProgress(getProgress());
+                    }
+                }
+            });
+            this.poller.start();
+        }
+
+        /**
+         * Determine whether the parser is still in use. A cancelled worker is
+         * done before its background thread has noticed the cancellation.
+         * @return whether or not the file is still being parsed
+         */
+        boolean isParsing() {
+            return parsing;
+        }
+
+        /**
+         * Parses the file on a background thread
+         * @return the parsed schema, or null if parsing failed
+         */
+        @Override
+        protected Schema doInBackground() {
+            parsing = true;
+            parser.setProgressListener(new ParseProgressListener() {
+                @Override
+                public void progressMade(long processed, long total) {
+                    if (total > 0) {
+                        setProgress((int) Math.min(99, processed * 100 / total));
+                    }
+                }
+            });
+            try {
+                parser.setFile(toParse); // set file in parser
+                ParseFileEvent parseEvent = new ParseFileEvent();
+                parseEvent.begin();
+                boolean parsed = false;
+                try {
+                    parsed = parser.parseFile(); // parse file
+                } finally { // a parser that throws is counted as failing
+                    parseEvent.finish(parser, toParse, parsed);
+                }
+                if (!parsed) {
+                    return null;
+                }
+                GetSchemaEvent schemaEvent = new GetSchemaEvent();
+                schemaEvent.begin();
+                Schema schema = null;
+                try {
+                    schema = parser.getSchema(); // get the schema from the parser
+                } finally {
+                    schemaEvent.finish(parser, schema);
+                }
+                return schema;
+            } finally {
+                parser.setProgressListener(null);
+                parsing = false;
+            }
+        }
+
+        /**
+         * Called on the event dispatch thread once parsing ends
+         */
+        @Override
+        protected void done() {
+            poller.stop();
+            monitor.close();
+            if (isCancelled()) { // the user chose to stop
+                return;
+            }
+            try {
+                Schema schema = get();
+                if (schema != null) {
+                    showSchema(toParse, schema);
+                } else {
+                    showParseError(parser.getErrorMessage());
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                showParseError(String.valueOf(e.getCause()));
+            }
+        }
+    }
 }
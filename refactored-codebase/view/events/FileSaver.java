@@ -1,12 +1,29 @@
 package edgeconvert.view.events;
 
 import edgeconvert.EdgeConvertMediator;
+import edgeconvert.SchemaSnapshot;
+import edgeconvert.Table;
+import edgeconvert.diagnostics.BuildDDLEvent;
+import edgeconvert.diagnostics.SetTablesEvent;
+import edgeconvert.diagnostics.WriteDDLEvent;
+import edgeconvert.output.BuildProgressListener;
 import edgeconvert.output.DDLBuilder;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
@@ -14,27 +31,60 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  */
 public class FileSaver {
 
+    // private static/final attributes
+    private static final int CHUNK_SIZE = 8192;
+    private static final int PROGRESS_POLL_MILLIS = 100;
+    private static final Logger LOGGER = Logger.getLogger(FileSaver.class.getName());
+    private static SaveWorker activeWorker; // only one save runs at a time
+
     // declarations
-    private String sqlString;
     private DDLBuilder builder;
+    private String databaseName;
     private List<String> productNames;
     private List<DDLBuilder> builders;
     private EdgeConvertMediator mediator;
 
     /**
-     * Saves the files
-     * @return boolean whether the file was saved or not
+     * Listener told when a save running in the background has finished.
+     */
+    public interface SaveListener {
+
+        /**
+         * Called on the event dispatch thread once the save has finished.
+         * @param success whether or not the file was saved
+         */
+        public void saveFinished(boolean success);
+    }
+
+    /**
+     * Asks the user how and where to save, then builds and writes the DDL in
+     * the background. A snapshot of the schema is taken before the work is
+     * handed off, so edits made while the save runs do not end up in the file.
+     * Only the tables changed since the last snapshot are copied on the event
+     * dispatch thread.
+     * @param listener told whether the save succeeded, or null
+     * @return whether or not a save was started
      */
-    public boolean save() {
+    public boolean save(SaveListener listener) {
+        if (activeWorker != null && !activeWorker.isFinished()) {
+            JOptionPane.showMessageDialog(null, "A file is already being saved.");
+            return false;
+        }
         mediator = EdgeConvertMediator.getInstance(); // get the mediator
         getBuilderClasses(); // get the ddl builder classes
-        sqlString = getDDL(); // gets the created ddl
-        if (sqlString.equals("CANCELLED")) {
+        if (!selectBuilder()) { // prompts for the product and database name
+            return false;
+        }
+        File outputFile = selectOutputFile();
+        if (outputFile == null) {
             return false;
         }
-        return writeDDL(sqlString); // writes the ddl
+        SchemaSnapshot snapshot = mediator.getSchema().snapshot(); // taken on the event dispatch thread
+        activeWorker = new SaveWorker(builder, databaseName, snapshot, outputFile, listener);
+        activeWorker.execute();
+        return true;
     }
-    
+
     /**
      * Gets the builder classes from the mediator
      */
@@ -49,9 +99,9 @@ public class FileSaver {
 
     /**
      * Displays a prompt to have the user define the save type
-     * @return 
+     * @return whether or not a builder was chosen
      */
-    private String getDDL() {
+    private boolean selectBuilder() {
         String response = (String) JOptionPane.showInputDialog(
                 null,
                 "Select a product:",
@@ -61,7 +111,7 @@ public class FileSaver {
                 productNames.toArray(),
                 null); // prompt
 
-        if (response == null) return "CANCELLED"; // return cancel if cancelled
+        if (response == null) return false; // return if cancelled
 
         int selected;
         for (selected = 0; selected < productNames.size(); selected++) { // get the product name
@@ -71,31 +121,29 @@ public class FileSaver {
         }
 
         builder = builders.get(selected); // get the builder
-        builder.setTables(mediator.getSchema().getTables()); // set tables in the builder
+        databaseName = null;
         if (builder.requiresDatabaseName()) { // check to see if database name is required
-            String databaseName = getDatabaseName(); // ask for database name
+            databaseName = getDatabaseName(); // ask for database name
             if (databaseName == null) {
-                return "CANCELLED";
+                return false;
             }
-            builder.setDatabaseName(databaseName);// set the database name
         }
-        return builder.buildDDL(); // build ddl
+        return true;
     }
 
     /**
-     * Writes the DDL to a save file
-     * @param output the output to be saved
-     * @return success/failure
+     * Asks the user where the DDL should be saved
+     * @return the file to save to, or null if cancelled
      */
-    private boolean writeDDL(String output) {
+    private File selectOutputFile() {
         JOptionPane.showMessageDialog(null, "Please select the directory and name of the file you'd like to save."); // show message
-        
+
         JFileChooser jfc = new JFileChooser(); // init file chooser
         final String productName = builder.getProductName(); // get product name and extension
         final String fileExtension = builder.getFileExtension();
         FileNameExtensionFilter filter = new FileNameExtensionFilter(productName, fileExtension); // get the file format filter
         jfc.setFileFilter(filter); // set the file filter
-        
+
         if (jfc.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) { // show the file dialog
             File outputFile = jfc.getSelectedFile();
             String filename = outputFile.getAbsolutePath();
@@ -107,22 +155,12 @@ public class FileSaver {
                 int response = JOptionPane.showConfirmDialog(null, "Overwrite existing file?", "Confirm Overwrite",
                         JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
                 if (response == JOptionPane.CANCEL_OPTION) {
-                    return false;
+                    return null;
                 }
             }
-            try { // write the file
-                PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(outputFile, false)));
-                pw.println(output);
-                //close the file
-                pw.close();
-                JOptionPane.showMessageDialog(null, "Your file has been saved successfully.");
-                return true;
-            } catch (IOException ioe) {
-                System.out.println(ioe);
-                return false;
-            }
+            return outputFile;
         }
-        return false;
+        return null;
     }
 
     /**
@@ -140,4 +178,173 @@ public class FileSaver {
         }
         return name;
     }
+
+    /**
+     * Builds and writes the DDL in the background, showing a progress dialog
+     * that lets the user cancel. The DDL is written to a temporary file that
+     * only replaces the chosen file once it is complete, so a cancelled save
+     * leaves any existing file untouched.
+     */
+    private static class SaveWorker extends SwingWorker<Boolean, Void> {
+
+        // declarations
+        private final DDLBuilder builder;
+        private final String databaseName;
+        private final SchemaSnapshot snapshot;
+        private final File outputFile;
+        private final SaveListener listener;
+        private final ProgressMonitor monitor;
+        private final Timer poller;
+        private volatile boolean working;
+
+        /**
+         * Construct a worker saving the given schema.
+         * @param builder the builder creating the DDL
+         * @param databaseName the database name, or null if not required
+         * @param snapshot a snapshot of the schema to be saved
+         * @param outputFile the file the DDL is written to
+         * @param listener told whether the save succeeded, or null
+         */
+        SaveWorker(DDLBuilder builder, String databaseName, SchemaSnapshot snapshot, File outputFile,
+                SaveListener listener) {
+            this.builder = builder;
+            this.databaseName = databaseName;
+            this.snapshot = snapshot;
+            this.outputFile = outputFile;
+            this.listener = listener;
+            this.working = true;
+            this.monitor = new ProgressMonitor(null, "Saving " + outputFile.getName(), "Creating DDL", 0, 100);
+            // Keep the dialog in step with the worker and watch for the cancel button
+            this.poller = new Timer(PROGRESS_POLL_MILLIS, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    if (monitor.isCanceled()) {
+                        cancel(true);
+                    } else {
+                        monitor.setProgress(getProgress());
+                        if (getProgress() >= 50) {
+                            monitor.setNote("Writing file");
+                        }
+                    }
+                }
+            });
+            this.poller.start();
+        }
+
+        /**
+         * Determine whether the builder is no longer in use. A cancelled
+         * worker is done before its background thread has stopped.
+         * @return whether or not the save has completely finished
+         */
+        boolean isFinished() {
+            return isDone() && !working;
+        }
+
+        /**
+         * Builds and writes the DDL on a background thread. The builder is
+         * told to stop between tables once the save is cancelled.
+         * @return whether or not the file was saved
+         * @throws IOException if the file cannot be written
+         */
+        @Override
+        protected Boolean doInBackground() throws IOException {
+            builder.setProgressListener(new BuildProgressListener() {
+                @Override
+                public void progressMade(int built, int total) {
+                    if (isCancelled()) {
+                        throw new CancellationException(); // stops buildDDL
+                    }
+                    setProgress((int) ((long) built * 49 / total)); // building is the first half
+                }
+            });
+            try {
+                if (databaseName != null) {
+                    builder.setDatabaseName(databaseName); // set the database name
+                }
+                List<Table> tables = snapshot.toSchema().getTables(); // tables for this save alone
+                SetTablesEvent setTablesEvent = new SetTablesEvent();
+                setTablesEvent.begin();
+                boolean set = false;
+                try {
+                    builder.setTables(tables); // set tables in the builder
+                    set = true;
+                } finally { // a builder that throws, or is cancelled, is counted as failing
+                    setTablesEvent.finish(builder, tables, set);
+                }
+                BuildDDLEvent buildEvent = new BuildDDLEvent();
+                buildEvent.begin();
+                String output = null;
+                try {
+                    output = builder.buildDDL(); // build ddl
+                } finally {
+                    buildEvent.finish(builder, tables, output);
+                }
+                if (isCancelled()) {
+                    return false;
+                }
+                setProgress(50);
+                return writeDDL(output + System.lineSeparator());
+            } finally {
+                builder.setProgressListener(null);
+                working = false;
+            }
+        }
+
+        /**
+         * Writes the DDL to a temporary file beside the chosen one, then moves
+         * it into place
+         * @param output the output to be saved
+         * @return whether or not the file was saved
+         * @throws IOException if the file cannot be written
+         */
+        private boolean writeDDL(String output) throws IOException {
+            WriteDDLEvent event = new WriteDDLEvent();
+            event.begin();
+            boolean written = false;
+            File tempFile = File.createTempFile("." + outputFile.getName() + "-", ".tmp",
+                    outputFile.getAbsoluteFile().getParentFile());
+            try {
+                try (Writer writer = new BufferedWriter(new FileWriter(tempFile, false))) {
+                    for (int start = 0; start < output.length(); start += CHUNK_SIZE) {
+                        if (isCancelled()) {
+                            return false;
+                        }
+                        writer.write(output, start, Math.min(CHUNK_SIZE, output.length() - start));
+                        setProgress(50 + (int) ((long) start * 49 / output.length()));
+                    }
+                }
+                Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                written = true;
+                return true;
+            } finally {
+                tempFile.delete(); // only still there if the save did not complete
+                event.finish(outputFile, written);
+            }
+        }
+
+        /**
+         * Called on the event dispatch thread once the save ends
+         */
+        @Override
+        protected void done() {
+            poller.stop();
+            monitor.close();
+            boolean success = false;
+            try {
+                success = get();
+                if (success) {
+                    JOptionPane.showMessageDialog(null, "Your file has been saved successfully.");
+                }
+            } catch (CancellationException ce) {
+                // the user chose to stop
+            } catch (InterruptedException | ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Unable to save " + outputFile, e.getCause());
+                JOptionPane.showMessageDialog(null, "Unable to save " + outputFile.getName() + ":\n" + e.getCause(),
+                        "Error while saving file", JOptionPane.ERROR_MESSAGE);
+            }
+            if (listener != null) {
+                listener.saveFinished(success);
+            }
+        }
+    }
 }
@@ -6,14 +6,19 @@
 package edgeconvert.view.events;
 
 import edgeconvert.EdgeConvertMediator;
+import edgeconvert.Schema;
+import edgeconvert.diagnostics.SchemaFootprint;
 import edgeconvert.output.DDLBuilder;
 import edgeconvert.view.help.HelpViewer;
+import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 
 /**
  * Listener for the common menu bar.
@@ -51,6 +56,9 @@ public class MainMenuListener implements ActionListener {
             case "Show Database Products Available":
                 this.showProducts();
                 break;
+            case "Show Memory Footprint":
+                this.showFootprint();
+                break;
             case "Help Desk":
                 this.showHelp();
                 break;
@@ -97,13 +105,28 @@ public class MainMenuListener implements ActionListener {
         JOptionPane.showMessageDialog(null, message);
     }
 
+    /**
+     * Shows the estimated memory taken by the open schema
+     */
+    public void showFootprint() {
+        Schema schema = EdgeConvertMediator.getInstance().getSchema();
+        if (schema == null) {
+            JOptionPane.showMessageDialog(frame, "Open a file to see how much memory its schema takes.");
+            return;
+        }
+        JTextArea report = new JTextArea(SchemaFootprint.measure(schema).toReport(10), 24, 90);
+        report.setEditable(false);
+        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JOptionPane.showMessageDialog(frame, new JScrollPane(report), "Memory Footprint",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Launches the help system
      */
     public void showHelp() {
         try {
-            new HelpViewer();
-            HelpViewer.initAndShowGUI();
+            new HelpViewer().initAndShowGUI();
         } catch (Exception e) {
             e.printStackTrace();
         }
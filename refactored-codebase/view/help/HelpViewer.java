@@ -1,24 +1,22 @@
 package edgeconvert.view.help;
 
-import java.io.File;
 import java.net.URL;
-import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.embed.swing.JFXPanel;
 import javafx.scene.Scene;
 import javafx.scene.web.WebView;
-import javafx.stage.Stage;
-import javax.swing.JEditorPane;
 import javax.swing.JFrame;
-import javax.swing.JScrollPane;
 
 /**
  * Launcher and GUI class for the help system
  */
 public class HelpViewer {
     
+    // public static/final attributes
+    public static final String PREWARM_PROPERTY = "edgeconvert.help.prewarm";
+    
     // declarations
-    private static URL url;
+    private final URL url;
     
     /**
      * Default constructor
@@ -28,14 +26,40 @@ public class HelpViewer {
         url = this.getClass().getResource("site/index.html");
     }
     
+    /**
+     * Starts the JavaFX runtime and loads the web engine on a background
+     * thread, so that the help opens without the start-up delay. Only done
+     * when the edgeconvert.help.prewarm system property is true.
+     */
+    public static void prewarm() {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                new JFXPanel(); // starts the JavaFX runtime
+                Platform.setImplicitExit(false);
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        new WebView(); // loads the web engine
+                    }
+                });
+            }
+        }, "edgeconvert-javafx-prewarm");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+    
     /**
      * Initializes the panel and launches the GUI
      */
-    public static void initAndShowGUI() {
+    public void initAndShowGUI() {
          JFrame jf = new JFrame("Help Desk");
          jf.setLocationRelativeTo(null);
          jf.setSize(900, 600);
          final JFXPanel fxPanel = new JFXPanel();
+         // keep the runtime alive when the help is closed, so it can be reopened
+         Platform.setImplicitExit(false);
          jf.add(fxPanel);
          jf.setVisible(true);
          
@@ -51,9 +75,9 @@ public class HelpViewer {
      * Inits the JavaFX panel and creates the web view
      * @param fxPanel the JavaFX panel
      */
-    public static void initFX(JFXPanel fxPanel) {
+    private void initFX(JFXPanel fxPanel) {
         WebView webview = new WebView(); // create the web view
         webview.getEngine().load(url.toString()); // load the local web page
         fxPanel.setScene(new Scene(webview));
     }
-}
\ No newline at end of file
+}